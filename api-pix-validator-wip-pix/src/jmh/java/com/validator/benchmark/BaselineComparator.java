@@ -0,0 +1,85 @@
+package com.validator.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara um resultado JMH (JSON) com o baseline versionado e falha se algum benchmark
+ * ficou mais lento ou passou a alocar mais do que a tolerância permite.
+ * <p>
+ * Uso: {@code BaselineComparator <baseline.json> <resultado.json> [tolerância, padrão 0.10]}
+ */
+public final class BaselineComparator {
+
+    private static final String ALLOCATION_METRIC = "·gc.alloc.rate.norm";
+    // Abaixo disso (bytes/op) a alocação é ruído de medição
+    private static final double ALLOCATION_FLOOR = 16.0;
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: BaselineComparator <baseline.json> <result.json> [tolerance]");
+        }
+
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : new TreeMap<>(current).entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW   %s%n", entry.getKey());
+                continue;
+            }
+
+            double timeDelta = delta(score(before), score(entry.getValue()));
+            double allocationDelta = delta(
+                    Math.max(allocation(before), ALLOCATION_FLOOR), Math.max(allocation(entry.getValue()), ALLOCATION_FLOOR));
+            boolean regressed = timeDelta > tolerance || allocationDelta > tolerance;
+            regressions += regressed ? 1 : 0;
+
+            System.out.printf("%-5s %s time %+.1f%% alloc %+.1f%%%n",
+                    regressed ? "SLOW" : "OK", entry.getKey(), timeDelta * 100, allocationDelta * 100);
+        }
+
+        if (regressions > 0) {
+            throw new IllegalStateException(regressions + " benchmark(s) regressed beyond " + tolerance * 100 + "%");
+        }
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file)) {
+            results.put(key(node), node);
+        }
+        return results;
+    }
+
+    private static String key(JsonNode node) {
+        StringBuilder key = new StringBuilder(node.path("benchmark").asText());
+        node.path("params").fields().forEachRemaining(
+                param -> key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+        return key.toString();
+    }
+
+    private static double score(JsonNode node) {
+        return node.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double allocation(JsonNode node) {
+        return node.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score").asDouble(0.0);
+    }
+
+    private static double delta(double before, double after) {
+        return (after - before) / before;
+    }
+}
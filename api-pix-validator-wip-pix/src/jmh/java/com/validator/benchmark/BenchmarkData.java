@@ -0,0 +1,68 @@
+package com.validator.benchmark;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.model.enums.PixType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Massa de dados determinística para os benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final String[] WORDS = {
+            "pagamento", "aluguel", "mercado", "pix", "transferencia", "conta", "luz", "agua",
+            "almoco", "presente", "reembolso", "servico", "parcela", "mensalidade", "viagem"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static String description(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder description = new StringBuilder(length + 16);
+        while (description.length() < length) {
+            description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return description.substring(0, length);
+    }
+
+    /**
+     * Os termos padrão seguidos de termos sintéticos até completar o tamanho pedido.
+     */
+    static List<String> dictionary(int size) {
+        List<String> terms = new ArrayList<>(List.of("golpe", "fraude", "fake", "urgente"));
+        for (int i = 0; terms.size() < size; i++) {
+            terms.add("termo" + i + "suspeito");
+        }
+        return terms.subList(0, size);
+    }
+
+    static List<Transaction> history(int size) {
+        List<Transaction> history = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setValue(100.0 + i);
+            transaction.setCreatedDate(LocalDateTime.now().minusHours(i + 1L));
+            history.add(transaction);
+        }
+        return history;
+    }
+
+    static User user(Long id, String pixKey) {
+        return new User(id, "CPF não localizado", "Usuário não localizado", PixType.EMAIL, pixKey);
+    }
+
+    static Transaction transaction(User sender, User receiver, String description) {
+        Transaction transaction = new Transaction();
+        transaction.setSender(sender);
+        transaction.setReceiver(receiver);
+        transaction.setValue(120.0);
+        transaction.setDescription(description);
+        return transaction;
+    }
+}
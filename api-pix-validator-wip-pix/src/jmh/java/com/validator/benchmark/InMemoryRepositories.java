@@ -0,0 +1,112 @@
+package com.validator.benchmark;
+
+import com.validator.model.BlackList;
+import com.validator.model.ReceiverStats;
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.repository.BlackListExpiry;
+import com.validator.repository.BlackListRepositoryImpl;
+import com.validator.repository.TransactionRepositoryImpl;
+import com.validator.repository.UserRepositoryImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repositórios em memória usados nos benchmarks no lugar do Postgres.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static final class Users extends UserRepositoryImpl {
+
+        private final Map<String, User> byKey = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public Optional<User> findByPixKey(String key) {
+            return Optional.ofNullable(byKey.get(key));
+        }
+
+        @Override
+        public List<User> findByPixKeys(Collection<String> keys) {
+            return keys.stream().map(byKey::get).filter(user -> user != null).toList();
+        }
+
+        @Override
+        public User save(User user) {
+            return byKey.computeIfAbsent(user.getPixKey(), key -> {
+                user.setId(ids.incrementAndGet());
+                return user;
+            });
+        }
+
+        @Override
+        public Map<String, User> insertReserved(Collection<User> users) {
+            Map<String, User> existing = new HashMap<>();
+            for (User user : users) {
+                User stored = byKey.computeIfAbsent(user.getPixKey(), key -> user);
+                if (stored != user) {
+                    existing.put(stored.getPixKey(), stored);
+                }
+            }
+            return existing;
+        }
+
+        @Override
+        public long nextUserIdBlock() {
+            return ids.addAndGet(User.ID_ALLOCATION_SIZE);
+        }
+    }
+
+    static final class BlackLists extends BlackListRepositoryImpl {
+
+        @Override
+        public void save(BlackList blackList) {
+        }
+
+        @Override
+        public LocalDateTime upsert(BlackList blackList) {
+            return blackList.getExpiresAt();
+        }
+
+        @Override
+        public List<BlackListExpiry> findActive(LocalDateTime now) {
+            return List.of();
+        }
+
+        @Override
+        public int deleteAllExpired(LocalDateTime now) {
+            return 0;
+        }
+    }
+
+    static final class Transactions extends TransactionRepositoryImpl {
+
+        private final List<Transaction> history;
+
+        Transactions(List<Transaction> history) {
+            super(null);
+            this.history = new ArrayList<>(history);
+        }
+
+        @Override
+        public List<Transaction> findReceiverLast15Transactions(Long userId) {
+            return history;
+        }
+
+        @Override
+        public Optional<ReceiverStats> findReceiverStats(Long receiverId) {
+            return Optional.empty();
+        }
+    }
+}
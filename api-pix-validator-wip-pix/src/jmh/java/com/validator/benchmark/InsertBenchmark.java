@@ -0,0 +1,122 @@
+package com.validator.benchmark;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação de um lote de transações com id IDENTITY (um INSERT e uma ida ao banco por linha, como o Hibernate
+ * faz com IDENTITY) contra ids de sequência pooled (um nextval a cada 50 linhas e INSERTs em batch de JDBC).
+ * <p>
+ * Usa um H2 em modo servidor (TCP local), para que cada ida ao banco tenha o custo de rede que teria no PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InsertBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param({"200"})
+    private int batchSize;
+
+    private Server server;
+    private Connection connection;
+
+    @Setup
+    public void setup() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        connection = DriverManager.getConnection(
+                "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:inserts;NON_KEYWORDS=VALUE", "sa", "");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE identity_transactions (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "value DOUBLE PRECISION, description VARCHAR(255), status VARCHAR(255), created_date TIMESTAMP(6))");
+            statement.execute("CREATE TABLE pooled_transactions (id BIGINT PRIMARY KEY, "
+                    + "value DOUBLE PRECISION, description VARCHAR(255), status VARCHAR(255), created_date TIMESTAMP(6))");
+            statement.execute("CREATE SEQUENCE transactions_seq INCREMENT BY " + ALLOCATION_SIZE + " START WITH " + ALLOCATION_SIZE);
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE identity_transactions");
+            statement.execute("TRUNCATE TABLE pooled_transactions");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void teardown() throws SQLException {
+        connection.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public long identityPerRow() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO identity_transactions (value, description, status, created_date) VALUES (?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < batchSize; i++) {
+                bind(insert, 1, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    public long pooledSequenceBatched() throws SQLException {
+        long nextId = 0;
+        long maxId = -1;
+        try (PreparedStatement sequence = connection.prepareStatement("VALUES NEXT VALUE FOR transactions_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO pooled_transactions (id, value, description, status, created_date) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < batchSize; i++) {
+                if (nextId > maxId) {
+                    // Mesmo cálculo do otimizador pooled: o valor lido é o topo do bloco de 50 ids
+                    try (ResultSet value = sequence.executeQuery()) {
+                        value.next();
+                        maxId = value.getLong(1);
+                        nextId = maxId - ALLOCATION_SIZE + 1;
+                    }
+                }
+                insert.setLong(1, nextId++);
+                bind(insert, 2, i);
+                insert.addBatch();
+                if ((i + 1) % ALLOCATION_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return nextId;
+    }
+
+    private static void bind(PreparedStatement insert, int firstIndex, int row) throws SQLException {
+        insert.setDouble(firstIndex, 100.0 + row);
+        insert.setString(firstIndex + 1, "pagamento " + row);
+        insert.setString(firstIndex + 2, "SUCCESS");
+        insert.setTimestamp(firstIndex + 3, new Timestamp(System.currentTimeMillis()));
+    }
+}
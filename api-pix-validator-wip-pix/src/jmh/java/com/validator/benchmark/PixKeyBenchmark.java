@@ -0,0 +1,43 @@
+package com.validator.benchmark;
+
+import com.validator.model.enums.PixType;
+import com.validator.service.validators.PixKeyNormalizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da validação e normalização de uma chave PIX, para chaves já canônicas (sem alocação) e formatadas.
+ * O perfil jmh roda com {@code -prof gc}, que mostra a alocação por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PixKeyBenchmark {
+
+    @Param({"CPF", "PHONE", "EMAIL", "RANDOM"})
+    private PixType type;
+
+    @Param({"true", "false"})
+    private boolean canonical;
+
+    private String key;
+
+    @Setup
+    public void setup() {
+        key = switch (type) {
+            case CPF -> canonical ? "52998224725" : "529.982.247-25";
+            case PHONE -> canonical ? "+5511987654321" : "(11) 98765-4321";
+            case EMAIL -> canonical ? "cliente.pagamentos@example.com" : "Cliente.Pagamentos@Example.com";
+            case RANDOM -> canonical ? "123e4567-e89b-12d3-a456-426614174000" : "123E4567-E89B-12D3-A456-426614174000";
+        };
+    }
+
+    @Benchmark
+    public String normalize() {
+        return PixKeyNormalizer.normalize(type, key);
+    }
+}
@@ -0,0 +1,120 @@
+package com.validator.benchmark;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.repository.cache.ReceiverWindow;
+import com.validator.repository.cache.ReceiverWindowCache;
+import com.validator.service.validators.rules.DangerousDescriptionRule;
+import com.validator.service.graph.MuleGraph;
+import com.validator.service.graph.MuleGraphLimits;
+import com.validator.service.validators.rules.DangerousKeysRule;
+import com.validator.service.validators.rules.HighFrequencyRule;
+import com.validator.service.validators.rules.MuleNetworkRule;
+import com.validator.service.validators.rules.OutOfAverageValueRule;
+import com.validator.service.validators.rules.ValidationContext;
+import com.validator.service.validators.rules.ValidationThresholds;
+import com.validator.service.validators.rules.VelocityRule;
+import com.validator.service.validators.terms.DangerousTermDictionary;
+import com.validator.service.velocity.VelocityLimits;
+import com.validator.service.velocity.VelocityTracker;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo isolado de cada regra, variando o tamanho da descrição e do dicionário de termos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RuleBenchmark {
+
+    @Param({"16", "256", "4096"})
+    private int descriptionLength;
+
+    @Param({"4", "100", "1000"})
+    private int dictionarySize;
+
+    private Transaction transaction;
+    private ValidationContext context;
+
+    private HighFrequencyRule highFrequencyRule;
+    private OutOfAverageValueRule outOfAverageValueRule;
+    private DangerousDescriptionRule dangerousDescriptionRule;
+    private DangerousKeysRule dangerousKeysRule;
+    private VelocityRule velocityRule;
+    private MuleNetworkRule muleNetworkRule;
+
+    @Setup
+    public void setup() {
+        DangerousTermDictionary dictionary = new DangerousTermDictionary(null, null);
+        dictionary.reload(BenchmarkData.dictionary(dictionarySize));
+
+        ReceiverWindow window = new ReceiverWindow(ReceiverWindowCache.WINDOW_SIZE);
+        BenchmarkData.history(ReceiverWindowCache.WINDOW_SIZE).forEach(
+                t -> window.add(ReceiverWindowCache.toEpochMillis(t.getCreatedDate()), t.getValue()));
+
+        transaction = BenchmarkData.transaction(
+                BenchmarkData.user(1L, "alice.pagamentos@example.com"),
+                BenchmarkData.user(2L, "loja.centro@example.com"),
+                BenchmarkData.description(descriptionLength, 42L));
+
+        // Uma transação a cada 10 s nas últimas ~3 h: as janelas curtas vêm dos contadores exatos e a de 24 h do sketch
+        long now = System.currentTimeMillis();
+        VelocityTracker velocity = new VelocityTracker(true, 4, 1024, 5, 10_000);
+        for (int i = 1000; i > 0; i--) {
+            velocity.record(transaction, now - i * 10_000L);
+        }
+
+        // Grafo com 100 mil usuários em cadeias de 100, todas desaguando no destinatário
+        MuleGraph graph = new MuleGraph(true, 200_000, 200_000, Duration.ofHours(1));
+        for (long id = 3; id < 100_000; id++) {
+            User next = BenchmarkData.user(id % 100 == 0 ? 2L : id + 1, "next");
+            graph.record(BenchmarkData.transaction(BenchmarkData.user(id, "user"), next, ""), now);
+        }
+
+        context = new ValidationContext(
+                now, user -> false, () -> window, ValidationThresholds.DEFAULTS, velocity, graph);
+
+        highFrequencyRule = new HighFrequencyRule();
+        outOfAverageValueRule = new OutOfAverageValueRule();
+        dangerousDescriptionRule = new DangerousDescriptionRule(dictionary);
+        dangerousKeysRule = new DangerousKeysRule(dictionary);
+        velocityRule = new VelocityRule(VelocityLimits.DEFAULTS);
+        muleNetworkRule = new MuleNetworkRule(MuleGraphLimits.DEFAULTS);
+    }
+
+    @Benchmark
+    public boolean highFrequency() {
+        return highFrequencyRule.matches(transaction, context);
+    }
+
+    @Benchmark
+    public boolean outOfAverageValue() {
+        return outOfAverageValueRule.matches(transaction, context);
+    }
+
+    @Benchmark
+    public boolean dangerousDescription() {
+        return dangerousDescriptionRule.matches(transaction, context);
+    }
+
+    @Benchmark
+    public boolean dangerousKeys() {
+        return dangerousKeysRule.matches(transaction, context);
+    }
+
+    @Benchmark
+    public boolean velocity() {
+        return velocityRule.matches(transaction, context);
+    }
+
+    @Benchmark
+    public boolean muleNetwork() {
+        return muleNetworkRule.matches(transaction, context);
+    }
+}
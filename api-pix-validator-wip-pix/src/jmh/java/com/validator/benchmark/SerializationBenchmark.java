@@ -0,0 +1,114 @@
+package com.validator.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.validator.config.BinaryFormatConfig;
+import com.validator.controller.requests.TransactionRequest;
+import com.validator.controller.requests.UserRequest;
+import com.validator.controller.responses.TransactionResponse;
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.PixType;
+import com.validator.model.enums.TransactionStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tamanho e custo de (de)serialização de lotes de transações em JSON, CBOR e Smile, com os mesmos
+ * mapeadores que a aplicação registra. O tamanho de cada lote é impresso no início da medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializationBenchmark {
+
+    private static final FraudReason[] REASONS = {
+            FraudReason.STRANGE_VALUE, FraudReason.HIGH_FREQUENCY, FraudReason.SUSPICIOUS_DESCRIPTION
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"1", "1000"})
+    private int batchSize;
+
+    private ObjectWriter responseWriter;
+    private ObjectReader requestReader;
+    private List<TransactionResponse> responses;
+    private List<TransactionRequest> requests;
+    private byte[] encodedRequests;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper mapper = mapper(format);
+        JavaType responseList = mapper.getTypeFactory().constructCollectionType(List.class, TransactionResponse.class);
+        JavaType requestList = mapper.getTypeFactory().constructCollectionType(List.class, TransactionRequest.class);
+        responseWriter = mapper.writerFor(responseList);
+        requestReader = mapper.readerFor(requestList);
+
+        responses = new ArrayList<>(batchSize);
+        requests = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            responses.add(response(i));
+            requests.add(request(i));
+        }
+        encodedRequests = mapper.writerFor(requestList).writeValueAsBytes(requests);
+
+        System.out.printf("%n%s, %d transactions: responses %d bytes, requests %d bytes%n",
+                format, batchSize, responseWriter.writeValueAsBytes(responses).length, encodedRequests.length);
+    }
+
+    @Benchmark
+    public byte[] serializeResponses() throws IOException {
+        return responseWriter.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public List<TransactionRequest> deserializeRequests() throws IOException {
+        return requestReader.readValue(encodedRequests);
+    }
+
+    private static ObjectMapper mapper(String format) {
+        BinaryFormatConfig config = new BinaryFormatConfig();
+        return switch (format) {
+            case "json" -> new Jackson2ObjectMapperBuilder().build();
+            case "cbor" -> config.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder()).getObjectMapper();
+            case "smile" -> config.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder()).getObjectMapper();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+    }
+
+    private static TransactionResponse response(int i) {
+        Transaction transaction = BenchmarkData.transaction(
+                BenchmarkData.user(1L + i % 50, "cliente" + i % 50 + "@example.com"),
+                BenchmarkData.user(1000L + i % 20, "loja" + i % 20 + "@example.com"),
+                BenchmarkData.description(48, i));
+        transaction.setId(10_000L + i);
+        if (i % 4 == 0) {
+            transaction.setStatus(TransactionStatus.FAILED);
+            transaction.setFraudReason(REASONS[i % REASONS.length]);
+        } else {
+            transaction.setStatus(TransactionStatus.SUCCESS);
+        }
+        return transaction.toResponse();
+    }
+
+    private static TransactionRequest request(int i) {
+        return new TransactionRequest(
+                null,
+                new UserRequest("cliente" + i % 50 + "@example.com", PixType.EMAIL),
+                new UserRequest("loja" + i % 20 + "@example.com", PixType.EMAIL),
+                120.0 + i,
+                BenchmarkData.description(48, i));
+    }
+}
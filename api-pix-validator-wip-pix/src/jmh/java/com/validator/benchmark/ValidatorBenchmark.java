@@ -0,0 +1,100 @@
+package com.validator.benchmark;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.repository.cache.BlackListIndex;
+import com.validator.repository.cache.ReceiverWindowCache;
+import com.validator.repository.cache.UserCache;
+import com.validator.service.BlackListService;
+import com.validator.service.BlackListTtl;
+import com.validator.service.UserService;
+import com.validator.service.graph.MuleGraph;
+import com.validator.service.metrics.ValidationMetrics;
+import com.validator.service.validators.ReceiverShardExecutor;
+import com.validator.service.validators.TransactionEnricher;
+import com.validator.service.validators.TransactionValidator;
+import com.validator.service.validators.rules.*;
+import com.validator.service.validators.terms.DangerousTermDictionary;
+import com.validator.service.velocity.VelocityTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TransactionValidator#validate} completo, com repositórios em memória no lugar do banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ValidatorBenchmark {
+
+    private static final String SENDER_KEY = "alice.pagamentos@example.com";
+    private static final String RECEIVER_KEY = "loja.centro@example.com";
+
+    @Param({"16", "256", "4096"})
+    private int descriptionLength;
+
+    @Param({"4", "100", "1000"})
+    private int dictionarySize;
+
+    private TransactionValidator validator;
+    private String description;
+    private LocalDateTime createdDate;
+
+    @Setup
+    public void setup() {
+        DangerousTermDictionary dictionary = new DangerousTermDictionary(null, null);
+        dictionary.reload(BenchmarkData.dictionary(dictionarySize));
+
+        InMemoryRepositories.BlackLists blackLists = new InMemoryRepositories.BlackLists();
+        InMemoryRepositories.Transactions transactions =
+                new InMemoryRepositories.Transactions(BenchmarkData.history(ReceiverWindowCache.WINDOW_SIZE));
+
+        ReceiverWindowCache receiverWindowCache = new ReceiverWindowCache(transactions, 10_000);
+        // Usuários já gravados: a janela do destinatário é hidratada do histórico, como antes dos provisórios
+        InMemoryRepositories.Users users = new InMemoryRepositories.Users();
+        users.save(new User(null, null, null, null, SENDER_KEY));
+        users.save(new User(null, null, null, null, RECEIVER_KEY));
+        UserService userService = new UserService(users, new UserCache(10_000, Duration.ofMinutes(10)));
+
+        // Modo sequencial: mantém o número comparável com o baseline (sem troca de thread)
+        validator = new TransactionValidator(
+                new TransactionEnricher(userService, receiverWindowCache, null, false, Duration.ofSeconds(2)),
+                new ReceiverShardExecutor(false, 0, Duration.ofSeconds(2)),
+                new BlackListService(blackLists, new BlackListIndex(blackLists, Duration.ofSeconds(1), 500), BlackListTtl.DEFAULTS),
+                receiverWindowCache,
+                VelocityTracker.DISABLED,
+                MuleGraph.DISABLED,
+                new ValidationMetrics(new SimpleMeterRegistry()),
+                ValidationThresholds.DEFAULTS,
+                List.of(
+                        new TransactionValueRule(),
+                        new DangerousDescriptionRule(dictionary),
+                        new DangerousKeysRule(dictionary),
+                        new UserBlacklistRule(),
+                        new HighFrequencyRule(),
+                        new OutOfAverageValueRule()));
+
+        description = BenchmarkData.description(descriptionLength, 42L);
+        // validate() registra cada decisão na janela do destinatário; uma data antiga mantém a regra de frequência
+        // sem disparar, e a decisão igual em todas as invocações
+        createdDate = LocalDateTime.now().minusDays(1);
+    }
+
+    @Benchmark
+    public Transaction validate() {
+        Transaction transaction = BenchmarkData.transaction(
+                new User(null, null, null, null, SENDER_KEY),
+                new User(null, null, null, null, RECEIVER_KEY),
+                description);
+        transaction.setCreatedDate(createdDate);
+        return validator.validate(transaction);
+    }
+}
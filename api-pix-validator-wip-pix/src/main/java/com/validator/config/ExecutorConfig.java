@@ -0,0 +1,19 @@
+package com.validator.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Uma thread virtual por tarefa para as consultas de enriquecimento feitas em paralelo durante a validação.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService validationExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -0,0 +1,38 @@
+package com.validator.config;
+
+import com.validator.model.enums.PixType;
+import com.validator.service.ratelimit.RateLimit;
+import com.validator.service.ratelimit.SenderRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class RateLimitConfig {
+
+    /**
+     * Limites por remetente, um por tipo de chave PIX.
+     */
+    @Bean
+    public SenderRateLimiter senderRateLimiter(
+            @Value("${validator.rate-limit.enabled:true}") boolean enabled,
+            @Value("${validator.rate-limit.max-senders:100000}") long maxSenders,
+            @Value("${validator.rate-limit.idle-timeout:PT10M}") Duration idleTimeout,
+            @Value("${validator.rate-limit.cpf.burst:20}") int cpfBurst,
+            @Value("${validator.rate-limit.cpf.refill-per-second:5}") double cpfRefill,
+            @Value("${validator.rate-limit.email.burst:20}") int emailBurst,
+            @Value("${validator.rate-limit.email.refill-per-second:5}") double emailRefill,
+            @Value("${validator.rate-limit.phone.burst:20}") int phoneBurst,
+            @Value("${validator.rate-limit.phone.refill-per-second:5}") double phoneRefill,
+            @Value("${validator.rate-limit.random.burst:10}") int randomBurst,
+            @Value("${validator.rate-limit.random.refill-per-second:2}") double randomRefill) {
+        return new SenderRateLimiter(enabled, maxSenders, idleTimeout, Map.of(
+                PixType.CPF, new RateLimit(cpfBurst, cpfRefill),
+                PixType.EMAIL, new RateLimit(emailBurst, emailRefill),
+                PixType.PHONE, new RateLimit(phoneBurst, phoneRefill),
+                PixType.RANDOM, new RateLimit(randomBurst, randomRefill)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.validator.config;
+
+import com.validator.service.BlackListTtl;
+import com.validator.service.graph.MuleGraphLimits;
+import com.validator.service.validators.rules.ValidationThresholds;
+import com.validator.service.velocity.VelocityLimits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ValidationConfig {
+
+    /**
+     * Limites das regras de valor, média e frequência aplicados em produção.
+     */
+    @Bean
+    public ValidationThresholds validationThresholds(
+            @Value("${validator.rules.max-value:10000.0}") double maxValue,
+            @Value("${validator.rules.min-value:0.5}") double minValue,
+            @Value("${validator.rules.min-history:5}") int minHistory,
+            @Value("${validator.rules.tolerance-factor:4.0}") double toleranceFactor,
+            @Value("${validator.rules.frequency-minutes:5}") long frequencyMinutes,
+            @Value("${validator.rules.max-transactions:5}") long maxTransactions) {
+        return new ValidationThresholds(maxValue, minValue, minHistory, toleranceFactor, frequencyMinutes, maxTransactions);
+    }
+
+    /**
+     * Limites de volume por janela (1 min, 5 min, 1 h, 24 h) para remetentes e destinatários.
+     */
+    @Bean
+    public VelocityLimits velocityLimits(
+            @Value("${validator.velocity.sender.max-count:10,30,200,1000}") long[] senderMaxCount,
+            @Value("${validator.velocity.sender.max-sum:20000,50000,200000,1000000}") double[] senderMaxSum,
+            @Value("${validator.velocity.receiver.max-count:0,0,3000,30000}") long[] receiverMaxCount,
+            @Value("${validator.velocity.receiver.max-sum:1000000,2000000,10000000,50000000}") double[] receiverMaxSum) {
+        return new VelocityLimits(senderMaxCount, senderMaxSum, receiverMaxCount, receiverMaxSum);
+    }
+
+    /**
+     * Quando o destinatário é tratado como conta de passagem em um grupo que cresce rápido.
+     */
+    @Bean
+    public MuleGraphLimits muleGraphLimits(
+            @Value("${validator.mule-graph.min-component-growth:20}") int minComponentGrowth,
+            @Value("${validator.mule-graph.min-in-degree:3}") int minInDegree,
+            @Value("${validator.mule-graph.min-out-degree:2}") int minOutDegree) {
+        return new MuleGraphLimits(minComponentGrowth, minInDegree, minOutDegree);
+    }
+
+    /**
+     * Prazos na blacklist por motivo da reprovação.
+     */
+    @Bean
+    public BlackListTtl blackListTtl(
+            @Value("${validator.blacklist.ttl.strange-value:P30D}") Duration strangeValue,
+            @Value("${validator.blacklist.ttl.high-frequency:PT24H}") Duration highFrequency,
+            @Value("${validator.blacklist.ttl.out-of-average-value:P7D}") Duration outOfAverageValue,
+            @Value("${validator.blacklist.ttl.default:P30D}") Duration fallback) {
+        return new BlackListTtl(strangeValue, highFrequency, outOfAverageValue, fallback);
+    }
+}
@@ -0,0 +1,26 @@
+package com.validator.controller;
+
+import com.validator.controller.responses.BlackListStatsResponse;
+import com.validator.repository.cache.BlackListIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/blacklist")
+public class BlackListController {
+
+    private final BlackListIndex blackListIndex;
+
+    /**
+     * Estatísticas do índice em memória da blacklist (tamanho, acertos e falhas de consulta).
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<BlackListStatsResponse> stats() {
+        return ResponseEntity.ok(
+                new BlackListStatsResponse(
+                        blackListIndex.size(), blackListIndex.getHits(), blackListIndex.getMisses()));
+    }
+}
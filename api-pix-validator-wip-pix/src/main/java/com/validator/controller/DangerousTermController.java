@@ -0,0 +1,34 @@
+package com.validator.controller;
+
+import com.validator.controller.responses.ApiResponse;
+import com.validator.service.validators.terms.DangerousTermDictionary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/dangerous-terms")
+public class DangerousTermController {
+
+    private final DangerousTermDictionary dangerousTermDictionary;
+
+    @GetMapping
+    public ResponseEntity<List<String>> listAll() {
+        return ResponseEntity.ok(dangerousTermDictionary.matcher().getTerms());
+    }
+
+    /**
+     * Recarrega o dicionário a partir do arquivo configurado, sem reiniciar a aplicação.
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<ApiResponse> reload() {
+        dangerousTermDictionary.reload();
+        return ResponseEntity.ok(
+                ApiResponse.success(
+                        "Dangerous terms reloaded: " + dangerousTermDictionary.matcher().getTerms().size()));
+    }
+}
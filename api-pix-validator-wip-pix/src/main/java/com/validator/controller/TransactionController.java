@@ -1,15 +1,34 @@
 package com.validator.controller;
 
 import com.validator.controller.requests.TransactionRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.validator.controller.responses.ApiResponse;
+import com.validator.controller.responses.TransactionPage;
 import com.validator.controller.responses.TransactionResponse;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import com.validator.repository.StatusCursor;
+import com.validator.repository.TransactionFilter;
 import com.validator.service.TransactionService;
+import com.validator.service.ratelimit.SenderRateLimiter;
+import com.validator.service.validators.InvalidPixKeyException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 @CrossOrigin(origins = "*")
 @RestController
@@ -17,11 +36,57 @@ import java.util.List;
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final SenderRateLimiter senderRateLimiter;
+
+    @Value("${validator.batch.max-size:1000}")
+    private int batchMaxSize;
+
+    @Value("${validator.pagination.default-limit:100}")
+    private int defaultPageLimit;
+
+    @Value("${validator.pagination.max-limit:1000}")
+    private int maxPageLimit;
+
+    @Value("${validator.stream.fetch-size:500}")
+    private int streamFetchSize;
 
+    /**
+     * Lista paginada por cursor: envie o valor do cabeçalho X-Next-Cursor em {@code after} para obter a próxima página.
+     */
     @GetMapping
-    public ResponseEntity<List<TransactionResponse>> listAll() {
-        return ResponseEntity.ok(transactionService.findAll());
+    public ResponseEntity<?> listAll(
+            @RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        int pageLimit = Objects.isNull(limit) ? defaultPageLimit : limit;
+        if (pageLimit < 1 || pageLimit > maxPageLimit) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Limit must be between 1 and " + maxPageLimit));
+        }
+
+        return withNextCursor(transactionService.findPage(after, pageLimit));
+    }
+
+    /**
+     * Todas as transações em NDJSON (um objeto JSON por linha), escritas conforme são lidas do banco.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        ObjectWriter writer = objectMapper.writerFor(TransactionResponse.class);
+
+        StreamingResponseBody body = outputStream ->
+                transactionService.streamAll(streamFetchSize, transaction -> {
+                    try {
+                        outputStream.write(writer.writeValueAsBytes(transaction));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
@@ -35,12 +100,52 @@ public class TransactionController {
                                         .body(ApiResponse.error("Transaction not found: " + id)));
     }
 
+    /**
+     * Chaves inválidas recebem 400 e remetentes acima do limite de taxa recebem 429, antes de qualquer consulta
+     * ao banco. O limite vale para a chave canônica, então variações de formatação dividem o mesmo balde.
+     */
     @PostMapping
-    public ResponseEntity<TransactionResponse> create(@RequestBody TransactionRequest transaction) {
+    public ResponseEntity<?> create(@RequestBody TransactionRequest transaction) {
+        transaction.normalizePixKeys();
+        long waitNanos = senderRateLimiter.tryAcquire(transaction.getSender());
+        if (waitNanos > 0) {
+            return tooManyRequests(waitNanos, "Rate limit exceeded for sender " + transaction.getSender().getPixKey());
+        }
+
         TransactionResponse created = transactionService.save(transaction);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * Valida e grava um lote de transações; as respostas seguem a ordem dos itens enviados.
+     * Cada item consome uma ficha do seu remetente, como no envio individual: se algum remetente passar do limite,
+     * o lote inteiro recebe 429, com o {@code Retry-After} do remetente que mais precisa esperar, e nada é gravado.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBatch(@RequestBody List<TransactionRequest> transactions) {
+        if (transactions.size() > batchMaxSize) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Batch size exceeds the limit of " + batchMaxSize));
+        }
+
+        long maxWaitNanos = 0;
+        String limitedSender = null;
+        for (TransactionRequest transaction : transactions) {
+            transaction.normalizePixKeys();
+            long waitNanos = senderRateLimiter.tryAcquire(transaction.getSender());
+            if (waitNanos > maxWaitNanos) {
+                maxWaitNanos = waitNanos;
+                limitedSender = transaction.getSender().getPixKey();
+            }
+        }
+        if (maxWaitNanos > 0) {
+            return tooManyRequests(maxWaitNanos, "Rate limit exceeded for sender " + limitedSender);
+        }
+
+        List<TransactionResponse> created = transactionService.saveBatch(transactions);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> update(
             @PathVariable Long id, @RequestBody TransactionRequest transaction) {
@@ -73,9 +178,41 @@ public class TransactionController {
                                         .body(ApiResponse.error("Transaction not found: " + id)));
     }
 
+    /**
+     * Fila por status (mais recentes primeiro), com filtros opcionais por motivo de fraude e intervalo [from, to).
+     * O cursor da próxima página vem no cabeçalho X-Next-Cursor e volta em {@code after}.
+     */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TransactionResponse>> findByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(transactionService.findByStatus(status));
+    public ResponseEntity<?> findByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) FraudReason fraudReason,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        TransactionStatus transactionStatus = TransactionStatus.fromName(status);
+        if (Objects.isNull(transactionStatus)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Unknown transaction status: " + status));
+        }
+
+        int pageLimit = Objects.isNull(limit) ? defaultPageLimit : limit;
+        if (pageLimit < 1 || pageLimit > maxPageLimit) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Limit must be between 1 and " + maxPageLimit));
+        }
+
+        StatusCursor cursor;
+        try {
+            cursor = StatusCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+
+        TransactionPage page = transactionService.findByStatus(
+                new TransactionFilter(transactionStatus, fraudReason, from, to), cursor, pageLimit);
+
+        return withNextCursor(page);
     }
 
 
@@ -96,4 +233,24 @@ public class TransactionController {
         TransactionResponse response = transactionService.rejectTransaction(id);
         return ResponseEntity.ok(response);
     }
+
+    @ExceptionHandler(InvalidPixKeyException.class)
+    public ResponseEntity<ApiResponse> handleInvalidPixKey(InvalidPixKeyException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+    }
+
+    private static ResponseEntity<ApiResponse> tooManyRequests(long waitNanos, String message) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(ApiResponse.error(message));
+    }
+
+    private ResponseEntity<List<TransactionResponse>> withNextCursor(TransactionPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (Objects.nonNull(page.getNextCursor())) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
@@ -1,10 +1,13 @@
 package com.validator.controller.requests;
 
 import com.validator.model.Transaction;
+import com.validator.service.validators.InvalidPixKeyException;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Objects;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -16,6 +19,20 @@ public class TransactionRequest {
     private Double value;
     private String description;
 
+    /**
+     * Troca as chaves do remetente e do destinatário pela forma canônica.
+     *
+     * @throws InvalidPixKeyException se alguma chave falta ou é inválida
+     */
+    public void normalizePixKeys() {
+        if (Objects.isNull(this.sender) || Objects.isNull(this.receiver)) {
+            throw new InvalidPixKeyException("Sender and receiver PIX keys are required");
+        }
+
+        this.sender.normalizePixKey();
+        this.receiver.normalizePixKey();
+    }
+
     public Transaction toEntity() {
         Transaction transaction = new Transaction();
 
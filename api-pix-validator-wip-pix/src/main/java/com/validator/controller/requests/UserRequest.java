@@ -2,6 +2,7 @@ package com.validator.controller.requests;
 
 import com.validator.model.User;
 import com.validator.model.enums.PixType;
+import com.validator.service.validators.PixKeyNormalizer;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,10 +14,17 @@ public class UserRequest {
     private String pixKey;
     private PixType pixKeyType;
 
+    /**
+     * Troca a chave pela forma canônica do tipo ({@link PixKeyNormalizer}).
+     */
+    public void normalizePixKey() {
+        this.pixKey = PixKeyNormalizer.normalize(this.pixKeyType, this.pixKey);
+    }
+
     public User toEntity() {
         User user = new User();
 
-        user.setPixKey(this.pixKey);
+        user.setPixKey(PixKeyNormalizer.normalize(this.pixKeyType, this.pixKey));
         user.setPixKeyType(this.pixKeyType);
 
         return user;
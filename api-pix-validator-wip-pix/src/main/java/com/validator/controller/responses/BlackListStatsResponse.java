@@ -0,0 +1,16 @@
+package com.validator.controller.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BlackListStatsResponse {
+
+    private int size;
+    private long hits;
+    private long misses;
+
+}
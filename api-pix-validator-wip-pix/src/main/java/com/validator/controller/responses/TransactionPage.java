@@ -0,0 +1,17 @@
+package com.validator.controller.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionPage {
+
+    private List<TransactionResponse> items;
+    private String nextCursor;
+
+}
@@ -1,5 +1,6 @@
 package com.validator.model;
 
+import com.validator.model.enums.FraudReason;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,7 +16,8 @@ import java.time.LocalDateTime;
 public class BlackList {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blacklist_seq")
+    @SequenceGenerator(name = "blacklist_seq", sequenceName = "blacklist_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -24,4 +26,12 @@ public class BlackList {
 
     private LocalDateTime createTime;
 
+    @Enumerated(EnumType.STRING)
+    private FraudReason reason;
+
+    /**
+     * Fim do prazo na blacklist; nulo para inclusões sem prazo.
+     */
+    private LocalDateTime expiresAt;
+
 }
@@ -0,0 +1,87 @@
+package com.validator.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.Arrays;
+
+/**
+ * Estatísticas acumuladas das transações recebidas por um usuário, mantidas incrementalmente a cada gravação.
+ * Guarda contagem, soma e soma dos quadrados (média e variância em O(1)), uma média móvel exponencial
+ * e a janela das últimas transações (instante em epoch millis e valor, da mais antiga para a mais recente).
+ */
+@Entity
+@Table(name = "receiver_stats")
+@Data
+@NoArgsConstructor
+public class ReceiverStats {
+
+    public static final int WINDOW_SIZE = 15;
+    public static final double EWMA_ALPHA = 0.2;
+
+    @Id
+    @Column(name = "receiver_id")
+    private Long receiverId;
+
+    private long transactionCount;
+    private double valueSum;
+    private double valueSumOfSquares;
+    private double ewma;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private long[] windowTimes = new long[0];
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private double[] windowValues = new double[0];
+
+    public ReceiverStats(Long receiverId) {
+        this.receiverId = receiverId;
+    }
+
+    public void add(long epochMillis, double value) {
+        ewma = transactionCount == 0 ? value : EWMA_ALPHA * value + (1 - EWMA_ALPHA) * ewma;
+        transactionCount++;
+        valueSum += value;
+        valueSumOfSquares += value * value;
+
+        int keep = Math.min(windowTimes.length, WINDOW_SIZE - 1);
+        long[] times = Arrays.copyOfRange(windowTimes, windowTimes.length - keep, windowTimes.length + 1);
+        double[] values = Arrays.copyOfRange(windowValues, windowValues.length - keep, windowValues.length + 1);
+        times[keep] = epochMillis;
+        values[keep] = value;
+        windowTimes = times;
+        windowValues = values;
+    }
+
+    public void reset() {
+        transactionCount = 0;
+        valueSum = 0.0;
+        valueSumOfSquares = 0.0;
+        ewma = 0.0;
+        windowTimes = new long[0];
+        windowValues = new double[0];
+    }
+
+    public double mean() {
+        return transactionCount == 0 ? 0.0 : valueSum / transactionCount;
+    }
+
+    /**
+     * Variância populacional de todas as transações recebidas.
+     */
+    public double variance() {
+        if (transactionCount == 0) {
+            return 0.0;
+        }
+
+        double mean = mean();
+        return Math.max(0.0, valueSumOfSquares / transactionCount - mean * mean);
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+}
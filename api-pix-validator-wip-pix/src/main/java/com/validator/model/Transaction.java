@@ -9,17 +9,30 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Objects;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Espelham db/migration/V2__hot_path_indexes.sql. Histórico do destinatário:
+        @Index(name = "idx_transactions_receiver_created", columnList = "receiver_id, created_date DESC"),
+        // Fila por status (mais recentes primeiro) e o mesmo recorte filtrado por motivo de fraude
+        @Index(name = "idx_transactions_status_created", columnList = "status, created_date DESC, id DESC"),
+        @Index(name = "idx_transactions_status_reason_created", columnList = "status, fraud_reason, created_date DESC, id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
 
+    /**
+     * Ids reservados a cada chamada da sequência transactions_seq (otimizador pooled).
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
@@ -43,6 +56,17 @@ public class Transaction {
     private LocalDateTime lastUpdatedDate;
 
 
+    /**
+     * Troca remetente e destinatário pelos usuários já gravados com a mesma chave PIX, quando houver.
+     */
+    public void useStoredUsers(Map<String, User> stored) {
+        if (stored.isEmpty()) {
+            return;
+        }
+        this.sender = stored.getOrDefault(this.sender.getPixKey(), this.sender);
+        this.receiver = stored.getOrDefault(this.receiver.getPixKey(), this.receiver);
+    }
+
     public TransactionResponse toResponse() {
         TransactionResponse transactionResponse = new TransactionResponse();
         transactionResponse.setId(this.id);
@@ -10,7 +10,9 @@ public enum FraudReason {
     HIGH_FREQUENCY("HIGH_FREQUENCY", "Muitas transações em um curto período de tempo (5 min)"),
     OUT_OF_AVERAGE_VALUE("OUT_OF_AVERAGE_VALUE", "Valor fora da média das últimas 5 transações"),
     SUSPICIOUS_DESCRIPTION("SUSPICIOUS_DESCRIPTION", "Descrição contém termos suspeitos ou proibidos"),
-    USER_IN_BLACKLIST("USER_IN_BLACKLIST", "Remetente ou destinatário presente em blacklist");
+    USER_IN_BLACKLIST("USER_IN_BLACKLIST", "Remetente ou destinatário presente em blacklist"),
+    HIGH_VELOCITY("HIGH_VELOCITY", "Volume do remetente ou do destinatário acima do limite em 1 min, 5 min, 1 h ou 24 h"),
+    MULE_NETWORK("MULE_NETWORK", "Destinatário repassa valores dentro de um grupo de contas que cresceu rápido (possível rede de laranjas)");
 
     private final String code;
     private final String description;
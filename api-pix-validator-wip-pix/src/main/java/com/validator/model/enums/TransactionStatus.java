@@ -2,11 +2,28 @@ package com.validator.model.enums;
 
 import lombok.Getter;
 
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Getter
 public enum TransactionStatus {
 
     SUCCESS,
     FAILED,
-    PENDING_REVIEW
+    PENDING_REVIEW;
+
+    private static final Map<String, TransactionStatus> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(Enum::name, Function.identity()));
+
+    /**
+     * Busca pelo nome sem diferenciar maiúsculas; devolve {@code null} para nomes desconhecidos em vez de lançar exceção.
+     */
+    public static TransactionStatus fromName(String name) {
+        return Objects.isNull(name) ? null : BY_NAME.get(name.toUpperCase(Locale.ROOT));
+    }
 
 }
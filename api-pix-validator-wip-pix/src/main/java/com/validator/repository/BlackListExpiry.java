@@ -0,0 +1,9 @@
+package com.validator.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Usuário na blacklist e o fim do seu prazo ({@code null} = sem prazo).
+ */
+public record BlackListExpiry(Long userId, LocalDateTime expiresAt) {
+}
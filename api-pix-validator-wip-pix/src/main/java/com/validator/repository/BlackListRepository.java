@@ -3,6 +3,8 @@ package com.validator.repository;
 import com.validator.model.BlackList;
 import com.validator.model.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,5 +16,13 @@ public interface BlackListRepository {
 
     void save(BlackList blackList);
 
+    LocalDateTime upsert(BlackList blackList);
+
     Optional<BlackList> findByUserId(Long userId);
+
+    List<BlackListExpiry> findActive(LocalDateTime now);
+
+    int deleteExpired(Collection<Long> userIds, LocalDateTime now);
+
+    int deleteAllExpired(LocalDateTime now);
 }
@@ -7,7 +7,10 @@ import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Repository
@@ -35,6 +38,30 @@ public class BlackListRepositoryImpl implements BlackListRepository {
         Optional.ofNullable(blackList.getId()).ifPresentOrElse(entityManager::merge, () -> entityManager.persist(blackList));
     }
 
+    /**
+     * Inclui o usuário ou renova a inclusão existente (uma linha por usuário). O prazo nunca encurta:
+     * vale o maior entre o atual e o novo, e uma inclusão sem prazo continua sem prazo.
+     *
+     * @return o prazo gravado
+     */
+    @Override
+    @Transactional
+    public LocalDateTime upsert(BlackList blackList) {
+        return (LocalDateTime) entityManager.createNativeQuery(
+                        "INSERT INTO blacklist (user_id, create_time, reason, expires_at) " +
+                                "VALUES (:userId, :createTime, :reason, :expiresAt) " +
+                                "ON CONFLICT (user_id) DO UPDATE SET create_time = EXCLUDED.create_time, " +
+                                "reason = EXCLUDED.reason, " +
+                                "expires_at = CASE WHEN blacklist.expires_at IS NULL OR EXCLUDED.expires_at IS NULL THEN NULL " +
+                                "ELSE GREATEST(blacklist.expires_at, EXCLUDED.expires_at) END " +
+                                "RETURNING expires_at", LocalDateTime.class)
+                .setParameter("userId", blackList.getUser().getId())
+                .setParameter("createTime", blackList.getCreateTime())
+                .setParameter("reason", Objects.isNull(blackList.getReason()) ? null : blackList.getReason().name())
+                .setParameter("expiresAt", blackList.getExpiresAt())
+                .getSingleResult();
+    }
+
     @Override
     @Transactional(Transactional.TxType.SUPPORTS)
     public Optional<BlackList> findByUserId(Long userId) {
@@ -46,5 +73,35 @@ public class BlackListRepositoryImpl implements BlackListRepository {
             .getResultStream()
             .findFirst();
 }
+
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<BlackListExpiry> findActive(LocalDateTime now) {
+        return entityManager.createQuery(
+                        "SELECT new com.validator.repository.BlackListExpiry(b.user.id, b.expiresAt) FROM BlackList b " +
+                                "WHERE b.expiresAt IS NULL OR b.expiresAt > :now", BlackListExpiry.class)
+                .setParameter("now", now)
+                .getResultList();
+    }
+
+    /**
+     * Remove os usuários informados cujo prazo já venceu; inclusões renovadas nesse meio-tempo ficam.
+     */
+    @Override
+    @Transactional
+    public int deleteExpired(Collection<Long> userIds, LocalDateTime now) {
+        return entityManager.createQuery("DELETE FROM BlackList b WHERE b.user.id IN :userIds AND b.expiresAt <= :now")
+                .setParameter("userIds", userIds)
+                .setParameter("now", now)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int deleteAllExpired(LocalDateTime now) {
+        return entityManager.createQuery("DELETE FROM BlackList b WHERE b.expiresAt <= :now")
+                .setParameter("now", now)
+                .executeUpdate();
+    }
 }
 
@@ -0,0 +1,38 @@
+package com.validator.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Posição na listagem por status, ordenada por (createdDate, id) decrescentes.
+ * Trafega como texto opaco (Base64 URL-safe de "createdDate|id").
+ */
+public record StatusCursor(LocalDateTime createdDate, Long id) {
+
+    public String encode() {
+        String raw = createdDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return {@code null} se {@code value} for nulo ou vazio
+     * @throws IllegalArgumentException se o cursor não puder ser lido
+     */
+    public static StatusCursor decode(String value) {
+        if (Objects.isNull(value) || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new StatusCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.validator.repository;
+
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros da fila por status. Apenas o status é obrigatório; o intervalo de datas é [from, to).
+ */
+public record TransactionFilter(
+        TransactionStatus status,
+        FraudReason fraudReason,
+        LocalDateTime from,
+        LocalDateTime to) {
+}
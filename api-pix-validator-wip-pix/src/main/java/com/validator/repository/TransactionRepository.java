@@ -1,22 +1,44 @@
 package com.validator.repository;
 
+import com.validator.model.ReceiverStats;
 import com.validator.model.Transaction;
+import com.validator.model.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TransactionRepository {
     List<Transaction> findAll();
 
     Optional<Transaction> findById(Long id);
 
+    List<Transaction> findPage(Long afterId, int limit);
+
+    void forEach(int fetchSize, Consumer<Transaction> action);
+
+    void forEachByReceiver(int fetchSize, Consumer<Transaction> action);
+
     Transaction save(Transaction transaction);
 
+    Transaction save(Transaction transaction, Collection<User> newUsers);
+
+    List<Transaction> saveAll(List<Transaction> transactions);
+
+    List<Transaction> saveAll(List<Transaction> transactions, Collection<User> newUsers);
+
+    void insertJournaled(List<Transaction> transactions);
+
+    long nextTransactionIdBlock();
+
     Transaction update(Transaction transaction);
 
     void delete(Long id);
 
     List<Transaction> findReceiverLast15Transactions(Long userId);
 
-    List<Transaction> findByStatus(String status);
+    List<Transaction> findByStatus(TransactionFilter filter, StatusCursor after, int limit);
+
+    Optional<ReceiverStats> findReceiverStats(Long receiverId);
 }
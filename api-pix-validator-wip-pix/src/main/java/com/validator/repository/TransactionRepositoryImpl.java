@@ -1,28 +1,72 @@
 package com.validator.repository;
 
+import com.validator.model.ReceiverStats;
 import com.validator.model.Transaction;
-import com.validator.model.enums.TransactionStatus;
+import com.validator.model.User;
+import com.validator.repository.cache.ReceiverWindowCache;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 public class TransactionRepositoryImpl implements TransactionRepository {
 
+    /**
+     * Remetente e destinatário vêm na mesma consulta; sem o JOIN FETCH, o @ManyToOne EAGER dispara um SELECT por usuário.
+     */
+    private static final String SELECT_WITH_USERS =
+            "SELECT t FROM Transaction t JOIN FETCH t.sender JOIN FETCH t.receiver ";
+
+    /**
+     * Regravar uma linha que já chegou ao banco (replay do diário após uma queda) não tem efeito.
+     */
+    private static final String INSERT_JOURNALED =
+            "INSERT INTO transactions " +
+                    "(id, sender_id, receiver_id, value, description, status, fraud_reason, created_date, last_updated_date) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    /**
+     * Destinatários por comando no upsert de {@code receiver_stats}.
+     */
+    private static final int STATS_CHUNK_SIZE = 500;
+
+    private final UserRepositoryImpl userRepository;
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    public TransactionRepositoryImpl(UserRepositoryImpl userRepository) {
+        this.userRepository = userRepository;
+    }
+
     @Override
     @Transactional(Transactional.TxType.SUPPORTS)
     public List<Transaction> findAll() {
         return entityManager
-                .createQuery("SELECT t FROM Transaction t ORDER BY t.id", Transaction.class)
+                .createQuery(SELECT_WITH_USERS + "ORDER BY t.id", Transaction.class)
                 .getResultList();
     }
 
@@ -32,40 +76,197 @@ public class TransactionRepositoryImpl implements TransactionRepository {
         return Optional.ofNullable(entityManager.find(Transaction.class, id));
     }
 
+    /**
+     * Página por keyset: as {@code limit} transações com id maior que {@code afterId} (ou as primeiras, se nulo).
+     */
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<Transaction> findPage(Long afterId, int limit) {
+        return entityManager.createQuery(
+                        SELECT_WITH_USERS + "WHERE t.id > :afterId ORDER BY t.id", Transaction.class)
+                .setParameter("afterId", Objects.isNull(afterId) ? Long.MIN_VALUE : afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Percorre todas as transações em ordem de id por um cursor somente-leitura, buscando {@code fetchSize} linhas por vez.
+     * O contexto de persistência é limpo a cada bloco, então a memória usada não cresce com o tamanho da tabela.
+     */
+    @Override
+    @Transactional
+    public void forEach(int fetchSize, Consumer<Transaction> action) {
+        stream(SELECT_WITH_USERS + "ORDER BY t.id", fetchSize, action);
+    }
+
+    /**
+     * Como {@link #forEach}, mas agrupado por destinatário e, dentro de cada um, em ordem cronológica
+     * (a ordem do índice idx_transactions_receiver_created). Usado pelo backtest.
+     */
+    @Override
+    @Transactional
+    public void forEachByReceiver(int fetchSize, Consumer<Transaction> action) {
+        stream(SELECT_WITH_USERS + "ORDER BY t.receiver.id, t.createdDate, t.id", fetchSize, action);
+    }
+
+    private void stream(String jpql, int fetchSize, Consumer<Transaction> action) {
+        // O driver do Postgres só usa cursor (em vez de carregar tudo) dentro de uma transação e com fetch size definido
+        try (Stream<Transaction> transactions = entityManager
+                .createQuery(jpql, Transaction.class)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+
+            Iterator<Transaction> iterator = transactions.iterator();
+            for (long read = 1; iterator.hasNext(); read++) {
+                action.accept(iterator.next());
+                if (read % fetchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
     @Override
     @Transactional
     public Transaction save(Transaction transaction) {
+        return save(transaction, List.of());
+    }
+
+    /**
+     * Grava a transação e, na mesma transação de banco, os usuários provisórios que ela referencia
+     * ({@link UserRepositoryImpl#insertReserved}): se a gravação falhar, nenhum deles fica em users.
+     * Um provisório cuja chave já estava gravada é trocado na transação pelo usuário gravado.
+     */
+    @Override
+    @Transactional
+    public Transaction save(Transaction transaction, Collection<User> newUsers) {
+        if (!newUsers.isEmpty()) {
+            transaction.useStoredUsers(userRepository.insertReserved(newUsers));
+        }
+
         if (Objects.isNull(transaction.getId())) {
-            transaction.setCreatedDate(LocalDateTime.now());
-            transaction.setLastUpdatedDate(LocalDateTime.now());
+            // Mantém o instante da decisão, que já está na janela do destinatário, na velocidade e no grafo
+            LocalDateTime now = LocalDateTime.now();
+            if (Objects.isNull(transaction.getCreatedDate())) {
+                transaction.setCreatedDate(now);
+            }
+            transaction.setLastUpdatedDate(now);
             entityManager.persist(transaction);
+            recordReceiverStats(List.of(transaction));
             return transaction;
         }
 
+        // Regravação de uma transação existente (aprovação/rejeição): valor e destinatário não mudam, as estatísticas ficam como estão
         return entityManager.merge(transaction);
     }
 
+    @Override
+    @Transactional
+    public List<Transaction> saveAll(List<Transaction> transactions) {
+        return saveAll(transactions, List.of());
+    }
+
+    /**
+     * Como {@link #save(Transaction, Collection)}, para um lote: um INSERT multi-linha para os usuários novos
+     * e as transações na mesma transação de banco.
+     */
+    @Override
+    @Transactional
+    public List<Transaction> saveAll(List<Transaction> transactions, Collection<User> newUsers) {
+        if (!newUsers.isEmpty()) {
+            Map<String, User> stored = userRepository.insertReserved(newUsers);
+            transactions.forEach(transaction -> transaction.useStoredUsers(stored));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Transaction transaction : transactions) {
+            if (Objects.isNull(transaction.getCreatedDate())) {
+                transaction.setCreatedDate(now);
+            }
+            transaction.setLastUpdatedDate(now);
+            entityManager.persist(transaction);
+        }
+
+        recordReceiverStats(transactions);
+        return transactions;
+    }
+
+    /**
+     * Grava as transações vindas do diário de decisões, já com id e datas, em um único batch de JDBC.
+     * As estatísticas do destinatário só recebem as linhas que de fato foram inseridas.
+     */
+    @Override
+    @Transactional
+    public void insertJournaled(List<Transaction> transactions) {
+        int[] counts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_JOURNALED)) {
+                for (Transaction transaction : transactions) {
+                    bindJournaled(insert, transaction);
+                    insert.addBatch();
+                }
+                return insert.executeBatch();
+            }
+        });
+
+        List<Transaction> inserted = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            // SUCCESS_NO_INFO: o driver não informou a contagem, a linha é tratada como inserida
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                inserted.add(transactions.get(i));
+            }
+        }
+        recordReceiverStats(inserted);
+    }
+
+    /**
+     * Topo de um bloco de {@link Transaction#ID_ALLOCATION_SIZE} ids reservados na sequência
+     * (o bloco vai de {@code topo - ID_ALLOCATION_SIZE + 1} até o topo, como no otimizador pooled do Hibernate).
+     */
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public long nextTransactionIdBlock() {
+        return ((Number) entityManager.createNativeQuery("SELECT nextval('transactions_seq')").getSingleResult())
+                .longValue();
+    }
+
     @Override
     @Transactional
     public Transaction update(Transaction transaction) {
         Transaction existing = getOrThrow(transaction.getId());
+        Long previousReceiverId = receiverIdOf(existing);
         transaction.setCreatedDate(existing.getCreatedDate());
         transaction.setLastUpdatedDate(LocalDateTime.now());
-        return entityManager.merge(transaction);
+        Transaction merged = entityManager.merge(transaction);
+
+        // Valor ou destinatário podem ter mudado: as estatísticas afetadas são recalculadas em ordem de id (evita deadlock)
+        TreeSet<Long> receiverIds = new TreeSet<>();
+        if (Objects.nonNull(previousReceiverId)) {
+            receiverIds.add(previousReceiverId);
+        }
+        if (Objects.nonNull(receiverIdOf(merged))) {
+            receiverIds.add(receiverIdOf(merged));
+        }
+        receiverIds.forEach(this::rebuildReceiverStats);
+
+        return merged;
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
         Transaction existing = getOrThrow(id);
+        Long receiverId = receiverIdOf(existing);
         entityManager.remove(existing);
+        rebuildReceiverStats(receiverId);
     }
 
     @Override
     @Transactional(Transactional.TxType.SUPPORTS)
     public List<Transaction> findReceiverLast15Transactions(Long userId) {
         return entityManager.createQuery(
-                        "SELECT t FROM Transaction t " +
+                        SELECT_WITH_USERS +
                                 "WHERE t.receiver.id = :userId " +
                                 "ORDER BY t.createdDate DESC", Transaction.class)
                 .setParameter("userId", userId)
@@ -75,16 +276,198 @@ public class TransactionRepositoryImpl implements TransactionRepository {
 
     @Override
     @Transactional(Transactional.TxType.SUPPORTS)
-    public List<Transaction> findByStatus(String status) {
-        TransactionStatus enumStatus = TransactionStatus.valueOf(status.toUpperCase());
+    public List<Transaction> findByStatus(TransactionFilter filter, StatusCursor after, int limit) {
+        // Todas as condições são de igualdade ou faixa sobre (status, fraud_reason, created_date, id),
+        // servidas pelos índices compostos declarados em Transaction
+        StringBuilder jpql = new StringBuilder(SELECT_WITH_USERS).append("WHERE t.status = :status ");
 
-        return entityManager.createQuery(
-                        "SELECT t FROM Transaction t " +
-                                "WHERE t.status = :status " +
-                                "ORDER BY t.createdDate DESC", Transaction.class)
-                .setParameter("status", enumStatus)
-                .setMaxResults(15)
-                .getResultList();
+        if (Objects.nonNull(filter.fraudReason())) {
+            jpql.append("AND t.fraudReason = :fraudReason ");
+        }
+        if (Objects.nonNull(filter.from())) {
+            jpql.append("AND t.createdDate >= :from ");
+        }
+        if (Objects.nonNull(filter.to())) {
+            jpql.append("AND t.createdDate < :to ");
+        }
+        if (Objects.nonNull(after)) {
+            jpql.append("AND (t.createdDate < :afterCreatedDate OR (t.createdDate = :afterCreatedDate AND t.id < :afterId)) ");
+        }
+        jpql.append("ORDER BY t.createdDate DESC, t.id DESC");
+
+        TypedQuery<Transaction> query = entityManager.createQuery(jpql.toString(), Transaction.class)
+                .setParameter("status", filter.status())
+                .setMaxResults(limit);
+
+        if (Objects.nonNull(filter.fraudReason())) {
+            query.setParameter("fraudReason", filter.fraudReason());
+        }
+        if (Objects.nonNull(filter.from())) {
+            query.setParameter("from", filter.from());
+        }
+        if (Objects.nonNull(filter.to())) {
+            query.setParameter("to", filter.to());
+        }
+        if (Objects.nonNull(after)) {
+            query.setParameter("afterCreatedDate", after.createdDate());
+            query.setParameter("afterId", after.id());
+        }
+
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public Optional<ReceiverStats> findReceiverStats(Long receiverId) {
+        return Optional.ofNullable(entityManager.find(ReceiverStats.class, receiverId));
+    }
+
+    /**
+     * Acrescenta as transações recém-persistidas às estatísticas dos seus destinatários, com um único
+     * {@code INSERT ... ON CONFLICT DO UPDATE} multi-linha: cada linha leva os agregados do lote para um destinatário
+     * e o banco os soma aos que já estavam lá. Sem flush e sem SELECT ... FOR UPDATE; os destinatários seguem
+     * em ordem de id, para que gravações concorrentes travem as linhas na mesma ordem.
+     */
+    private void recordReceiverStats(List<Transaction> transactions) {
+        Map<Long, ReceiverStats> byReceiver = new TreeMap<>();
+        Map<Long, Double> firstValues = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            Long receiverId = receiverIdOf(transaction);
+            if (Objects.isNull(receiverId)) {
+                continue;
+            }
+            byReceiver.computeIfAbsent(receiverId, ReceiverStats::new)
+                    .add(ReceiverWindowCache.toEpochMillis(transaction.getCreatedDate()), transaction.getValue());
+            firstValues.putIfAbsent(receiverId, transaction.getValue());
+        }
+        if (byReceiver.isEmpty()) {
+            return;
+        }
+
+        List<ReceiverStats> deltas = List.copyOf(byReceiver.values());
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            for (int from = 0; from < deltas.size(); from += STATS_CHUNK_SIZE) {
+                List<ReceiverStats> chunk = deltas.subList(from, Math.min(from + STATS_CHUNK_SIZE, deltas.size()));
+                try (PreparedStatement upsert = connection.prepareStatement(mergeReceiverStatsSql(chunk.size()))) {
+                    int index = 1;
+                    for (ReceiverStats delta : chunk) {
+                        upsert.setLong(index++, delta.getReceiverId());
+                        upsert.setLong(index++, delta.getTransactionCount());
+                        upsert.setDouble(index++, delta.getValueSum());
+                        upsert.setDouble(index++, delta.getValueSumOfSquares());
+                        upsert.setDouble(index++, delta.getEwma());
+                        upsert.setDouble(index++, firstValues.get(delta.getReceiverId()));
+                        upsert.setArray(index++, connection.createArrayOf("bigint",
+                                Arrays.stream(delta.getWindowTimes()).boxed().toArray()));
+                        upsert.setArray(index++, connection.createArrayOf("float8",
+                                Arrays.stream(delta.getWindowValues()).boxed().toArray()));
+                    }
+                    upsert.executeUpdate();
+                }
+            }
+        });
+    }
+
+    /**
+     * Upsert de {@code rows} destinatários. Cada linha de entrada traz os agregados do lote calculados como se o
+     * destinatário fosse novo ({@link ReceiverStats#add}), mais o valor da primeira transação do lote:
+     * <ul>
+     *     <li>contagem, soma e soma dos quadrados são somadas;</li>
+     *     <li>a média móvel exponencial de {@code k} valores aplicada sobre uma média {@code E} já existente é
+     *     {@code (1 - alfa)^k * (E - primeiro valor) + média do lote} (a do lote começa no primeiro valor);</li>
+     *     <li>as janelas são concatenadas e ficam as últimas {@link ReceiverStats#WINDOW_SIZE} posições.</li>
+     * </ul>
+     */
+    private static String mergeReceiverStatsSql(int rows) {
+        StringBuilder sql = new StringBuilder("WITH batch " +
+                "(receiver_id, transaction_count, value_sum, value_sum_of_squares, ewma, first_value, window_times, window_values) " +
+                "AS (VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(?::BIGINT, ?::BIGINT, ?::DOUBLE PRECISION, ?::DOUBLE PRECISION, ?::DOUBLE PRECISION, ")
+                    .append("?::DOUBLE PRECISION, ?::BIGINT[], ?::DOUBLE PRECISION[])");
+        }
+
+        String keepFrom = "GREATEST(1, cardinality(receiver_stats.window_times) + cardinality(EXCLUDED.window_times) - "
+                + (ReceiverStats.WINDOW_SIZE - 1) + ")";
+        return sql.append(") ")
+                .append("INSERT INTO receiver_stats ")
+                .append("(receiver_id, transaction_count, value_sum, value_sum_of_squares, ewma, window_times, window_values) ")
+                .append("SELECT receiver_id, transaction_count, value_sum, value_sum_of_squares, ewma, window_times, window_values ")
+                .append("FROM batch ")
+                .append("ON CONFLICT (receiver_id) DO UPDATE SET ")
+                .append("transaction_count = receiver_stats.transaction_count + EXCLUDED.transaction_count, ")
+                .append("value_sum = receiver_stats.value_sum + EXCLUDED.value_sum, ")
+                .append("value_sum_of_squares = receiver_stats.value_sum_of_squares + EXCLUDED.value_sum_of_squares, ")
+                .append("ewma = CASE WHEN receiver_stats.transaction_count = 0 THEN EXCLUDED.ewma ")
+                .append("ELSE power(").append(1 - ReceiverStats.EWMA_ALPHA).append(", EXCLUDED.transaction_count) * ")
+                .append("(receiver_stats.ewma - (SELECT b.first_value FROM batch b WHERE b.receiver_id = EXCLUDED.receiver_id)) ")
+                .append("+ EXCLUDED.ewma END, ")
+                .append("window_times = (receiver_stats.window_times || EXCLUDED.window_times)[").append(keepFrom).append(":], ")
+                .append("window_values = (receiver_stats.window_values || EXCLUDED.window_values)[").append(keepFrom).append(":]")
+                .toString();
+    }
+
+    /**
+     * Recalcula as estatísticas de um destinatário a partir das transações gravadas.
+     * A média móvel exponencial é reconstruída apenas sobre a janela das últimas transações.
+     */
+    private void rebuildReceiverStats(Long receiverId) {
+        if (Objects.isNull(receiverId)) {
+            return;
+        }
+
+        createReceiverStats(receiverId);
+        ReceiverStats stats = entityManager.find(ReceiverStats.class, receiverId, LockModeType.PESSIMISTIC_WRITE);
+
+        Object[] totals = entityManager.createQuery(
+                        "SELECT COUNT(t), COALESCE(SUM(t.value), 0), COALESCE(SUM(t.value * t.value), 0) " +
+                                "FROM Transaction t WHERE t.receiver.id = :receiverId", Object[].class)
+                .setParameter("receiverId", receiverId)
+                .getSingleResult();
+
+        List<Transaction> lastTransactions = findReceiverLast15Transactions(receiverId);
+
+        stats.reset();
+        for (int i = lastTransactions.size() - 1; i >= 0; i--) {
+            Transaction transaction = lastTransactions.get(i);
+            stats.add(ReceiverWindowCache.toEpochMillis(transaction.getCreatedDate()), transaction.getValue());
+        }
+
+        stats.setTransactionCount(((Number) totals[0]).longValue());
+        stats.setValueSum(((Number) totals[1]).doubleValue());
+        stats.setValueSumOfSquares(((Number) totals[2]).doubleValue());
+    }
+
+    /**
+     * Cria a linha vazia do destinatário se ainda não existir. Devolve {@code true} se esta chamada a criou.
+     */
+    private boolean createReceiverStats(Long receiverId) {
+        entityManager.flush();
+
+        return entityManager.createNativeQuery(
+                        "INSERT INTO receiver_stats " +
+                                "(receiver_id, transaction_count, value_sum, value_sum_of_squares, ewma, window_times, window_values) " +
+                                "VALUES (:receiverId, 0, 0, 0, 0, '{}', '{}') " +
+                                "ON CONFLICT (receiver_id) DO NOTHING")
+                .setParameter("receiverId", receiverId)
+                .executeUpdate() == 1;
+    }
+
+    private void bindJournaled(PreparedStatement insert, Transaction transaction) throws SQLException {
+        insert.setLong(1, transaction.getId());
+        insert.setObject(2, transaction.getSender().getId(), Types.BIGINT);
+        insert.setObject(3, transaction.getReceiver().getId(), Types.BIGINT);
+        insert.setObject(4, transaction.getValue(), Types.DOUBLE);
+        insert.setObject(5, transaction.getDescription(), Types.VARCHAR);
+        insert.setObject(6, Objects.isNull(transaction.getStatus()) ? null : transaction.getStatus().name(), Types.VARCHAR);
+        insert.setObject(7, Objects.isNull(transaction.getFraudReason()) ? null : transaction.getFraudReason().name(), Types.VARCHAR);
+        insert.setObject(8, transaction.getCreatedDate(), Types.TIMESTAMP);
+        insert.setObject(9, transaction.getLastUpdatedDate(), Types.TIMESTAMP);
+    }
+
+    private Long receiverIdOf(Transaction transaction) {
+        return Objects.isNull(transaction.getReceiver()) ? null : transaction.getReceiver().getId();
     }
 
     private Transaction getOrThrow(Long id) {
@@ -2,6 +2,9 @@ package com.validator.repository;
 
 import com.validator.model.User;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface UserRepository {
@@ -10,6 +13,12 @@ public interface UserRepository {
 
     Optional<User> findByPixKey(String key);
 
+    List<User> findByPixKeys(Collection<String> keys);
+
     User save(User user);
 
+    Map<String, User> insertReserved(Collection<User> users);
+
+    long nextUserIdBlock();
+
 }
@@ -1,20 +1,31 @@
 package com.validator.repository;
 
-import com.validator.model.Transaction;
 import com.validator.model.User;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
 public class UserRepositoryImpl implements UserRepository {
 
+    private static final int INSERT_CHUNK_SIZE = 500;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -33,6 +44,18 @@ public class UserRepositoryImpl implements UserRepository {
                 .findFirst();
     }
 
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<User> findByPixKeys(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+
+        return entityManager.createQuery("SELECT u FROM User u WHERE u.pixKey IN :keys", User.class)
+                .setParameter("keys", keys)
+                .getResultList();
+    }
+
     @Override
     @Transactional
     public User save(User user) {
@@ -44,4 +67,67 @@ public class UserRepositoryImpl implements UserRepository {
         return entityManager.merge(user);
     }
 
+    /**
+     * Insere os usuários ainda não gravados, com os ids já reservados ({@link #nextUserIdBlock}).
+     * Quem já tinha uma linha com a mesma chave PIX (gravada por outra requisição ou outra instância) não é inserido:
+     * a linha existente volta no mapa, por chave PIX, e quem chamou troca o provisório por ela.
+     * Os usuários recebidos não são alterados. Depende do índice único em users(pix_key).
+     */
+    @Override
+    @Transactional
+    public Map<String, User> insertReserved(Collection<User> users) {
+        // Chaves repetidas no mesmo comando seriam inseridas uma vez só; o id final vale para todas as instâncias
+        List<User> distinct = List.copyOf(users.stream()
+                .collect(Collectors.toMap(User::getPixKey, Function.identity(), (first, second) -> first, LinkedHashMap::new))
+                .values());
+
+        Set<String> inserted = new HashSet<>();
+        for (int from = 0; from < distinct.size(); from += INSERT_CHUNK_SIZE) {
+            inserted.addAll(insertChunk(distinct.subList(from, Math.min(from + INSERT_CHUNK_SIZE, distinct.size()))));
+        }
+
+        List<String> conflicting = distinct.stream().map(User::getPixKey).filter(key -> !inserted.contains(key)).toList();
+        if (conflicting.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, User> existing = new HashMap<>();
+        findByPixKeys(conflicting).forEach(user -> existing.put(user.getPixKey(), user));
+        return existing;
+    }
+
+    /**
+     * Topo de um bloco de {@link User#ID_ALLOCATION_SIZE} ids reservados na sequência
+     * (o bloco vai de {@code topo - ID_ALLOCATION_SIZE + 1} até o topo, como no otimizador pooled do Hibernate).
+     */
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public long nextUserIdBlock() {
+        return ((Number) entityManager.createNativeQuery("SELECT nextval('users_seq')").getSingleResult())
+                .longValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> insertChunk(List<User> users) {
+        StringBuilder sql = new StringBuilder("INSERT INTO users (id, cpf, name, pix_key_type, pix_key) VALUES ");
+        for (int i = 0; i < users.size(); i++) {
+            sql.append(i == 0 ? "" : ", ")
+                    .append("(:id").append(i).append(", :cpf").append(i).append(", :name").append(i)
+                    .append(", :pixKeyType").append(i).append(", :pixKey").append(i).append(")");
+        }
+        sql.append(" ON CONFLICT DO NOTHING RETURNING pix_key");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            query.setParameter("id" + i, user.getId())
+                    .setParameter("cpf" + i, user.getCpf())
+                    .setParameter("name" + i, user.getName())
+                    .setParameter("pixKeyType" + i, Objects.isNull(user.getPixKeyType()) ? null : user.getPixKeyType().name())
+                    .setParameter("pixKey" + i, user.getPixKey());
+        }
+
+        return query.getResultList();
+    }
+
 }
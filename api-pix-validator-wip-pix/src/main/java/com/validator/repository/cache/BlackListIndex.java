@@ -0,0 +1,269 @@
+package com.validator.repository.cache;
+
+import com.validator.repository.BlackListExpiry;
+import com.validator.repository.BlackListRepositoryImpl;
+import com.validator.util.LongLongHashMap;
+import com.validator.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Índice em memória dos usuários presentes na blacklist, com o fim do prazo de cada um.
+ * Carregado na inicialização e atualizado a cada inclusão, para que a consulta não faça I/O.
+ * <p>
+ * Os prazos ficam em uma {@link TimingWheel}: a cada intervalo de varredura, os usuários vencidos saem do índice
+ * e são apagados da tabela em lotes. A consulta compara o prazo com o relógio, então um usuário vencido deixa de
+ * contar na hora, mesmo antes da varredura.
+ */
+@Slf4j
+@Component
+public class BlackListIndex {
+
+    private static final long NOT_LISTED = Long.MIN_VALUE;
+    private static final long NO_EXPIRATION = Long.MAX_VALUE;
+
+    private final BlackListRepositoryImpl blackListRepository;
+    private final Duration sweepInterval;
+    private final int deleteBatchSize;
+    private final LongSupplier clock;
+
+    // Estado abaixo protegido por lock
+    private final LongLongHashMap expirations = new LongLongHashMap(1024, NOT_LISTED);
+    private final TimingWheel wheel;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private ScheduledExecutorService sweeper;
+
+    @Autowired
+    public BlackListIndex(
+            BlackListRepositoryImpl blackListRepository,
+            @Value("${validator.blacklist.sweep-interval:PT1S}") Duration sweepInterval,
+            @Value("${validator.blacklist.delete-batch-size:500}") int deleteBatchSize) {
+        this(blackListRepository, sweepInterval, deleteBatchSize, System::currentTimeMillis);
+    }
+
+    BlackListIndex(BlackListRepositoryImpl blackListRepository, Duration sweepInterval, int deleteBatchSize,
+                   LongSupplier clock) {
+        this.blackListRepository = blackListRepository;
+        this.sweepInterval = sweepInterval;
+        this.deleteBatchSize = deleteBatchSize;
+        this.clock = clock;
+        this.wheel = new TimingWheel(sweepInterval.toMillis(), clock.getAsLong());
+    }
+
+    @PostConstruct
+    public void start() {
+        load();
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("blacklist-sweeper").daemon().factory());
+        sweeper.scheduleWithFixedDelay(
+                this::sweepQuietly, sweepInterval.toMillis(), sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (Objects.nonNull(sweeper)) {
+            sweeper.shutdown();
+        }
+    }
+
+    /**
+     * Apaga da tabela o que venceu enquanto a aplicação estava parada e carrega o restante.
+     */
+    public void load() {
+        LocalDateTime now = toDateTime(clock.getAsLong());
+        int purged = blackListRepository.deleteAllExpired(now);
+        List<BlackListExpiry> active = blackListRepository.findActive(now);
+
+        lock.writeLock().lock();
+        try {
+            expirations.clear();
+            for (BlackListExpiry entry : active) {
+                if (Objects.nonNull(entry.userId())) {
+                    put(entry.userId(), entry.expiresAt());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Blacklist index loaded with {} users ({} expired entries purged)", active.size(), purged);
+    }
+
+    public boolean contains(Long userId) {
+        if (Objects.isNull(userId)) {
+            return false;
+        }
+
+        long now = clock.getAsLong();
+        long expiresAt;
+        lock.readLock().lock();
+        try {
+            expiresAt = expirations.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        boolean found = expiresAt != NOT_LISTED && expiresAt > now;
+        (found ? hits : misses).increment();
+        return found;
+    }
+
+    /**
+     * Inclui o usuário sem prazo.
+     */
+    public void add(Long userId) {
+        add(userId, null);
+    }
+
+    /**
+     * Inclui o usuário ou substitui o seu prazo ({@code null} = sem prazo).
+     */
+    public void add(Long userId, LocalDateTime expiresAt) {
+        if (Objects.isNull(userId)) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            put(userId, expiresAt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inclui o usuário ou prorroga o seu prazo; um prazo já mais longo (ou sem prazo) não é encurtado.
+     */
+    public void extend(Long userId, LocalDateTime expiresAt) {
+        if (Objects.isNull(userId)) {
+            return;
+        }
+
+        long expiresAtMillis = Objects.isNull(expiresAt) ? NO_EXPIRATION : ReceiverWindowCache.toEpochMillis(expiresAt);
+        lock.writeLock().lock();
+        try {
+            if (expirations.get(userId) < expiresAtMillis) {
+                put(userId, expiresAt);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tira o usuário do índice, sem mexer na tabela.
+     */
+    public void remove(Long userId) {
+        if (Objects.isNull(userId)) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            expirations.remove(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tira do índice os usuários vencidos e os apaga da tabela. Quem foi renovado entre o agendamento
+     * e o vencimento continua, tanto no índice quanto na tabela.
+     *
+     * @return quantos usuários saíram do índice
+     */
+    int sweep() {
+        long now = clock.getAsLong();
+        List<Long> expired = new ArrayList<>();
+
+        lock.writeLock().lock();
+        try {
+            wheel.advance(now, userId -> {
+                long expiresAt = expirations.get(userId);
+                if (expiresAt != NOT_LISTED && expiresAt <= now) {
+                    expirations.remove(userId);
+                    expired.add(userId);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        evictions.add(expired.size());
+        LocalDateTime cutoff = toDateTime(now);
+        for (int from = 0; from < expired.size(); from += deleteBatchSize) {
+            blackListRepository.deleteExpired(expired.subList(from, Math.min(from + deleteBatchSize, expired.size())), cutoff);
+        }
+        return expired.size();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return expirations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            // O índice já descartou os vencidos; as linhas que ficaram na tabela saem na próxima carga
+            log.warn("Blacklist sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private void put(long userId, LocalDateTime expiresAt) {
+        long expiresAtMillis = Objects.isNull(expiresAt) ? NO_EXPIRATION : ReceiverWindowCache.toEpochMillis(expiresAt);
+        expirations.put(userId, expiresAtMillis);
+        if (expiresAtMillis != NO_EXPIRATION) {
+            wheel.schedule(userId, expiresAtMillis);
+        }
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
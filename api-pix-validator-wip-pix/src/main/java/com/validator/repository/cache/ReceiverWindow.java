@@ -0,0 +1,56 @@
+package com.validator.repository.cache;
+
+/**
+ * Janela deslizante (ring buffer) com as últimas transações recebidas por um usuário.
+ * Guarda apenas o instante (epoch millis) e o valor de cada transação, em arrays primitivos.
+ */
+public class ReceiverWindow {
+
+    public static final long UNKNOWN_TIME = Long.MIN_VALUE;
+
+    private final long[] times;
+    private final double[] values;
+    private int next;
+    private int size;
+
+    public ReceiverWindow(int capacity) {
+        this.times = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    public synchronized void add(long epochMillis, double value) {
+        times[next] = epochMillis;
+        values[next] = value;
+        next = (next + 1) % times.length;
+        size = Math.min(size + 1, times.length);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Conta as transações cujo tempo decorrido até {@code nowMillis}, truncado em minutos, é no máximo {@code minutes}.
+     */
+    public synchronized long countWithinMinutes(long nowMillis, long minutes) {
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            if (times[i] != UNKNOWN_TIME && (nowMillis - times[i]) / 60_000 <= minutes) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public synchronized double average() {
+        if (size == 0) {
+            return 0.0;
+        }
+
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum / size;
+    }
+}
@@ -0,0 +1,160 @@
+package com.validator.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.validator.model.ReceiverStats;
+import com.validator.model.Transaction;
+import com.validator.repository.TransactionRepositoryImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Mantém, por destinatário, a janela das últimas transações usada pelas regras de frequência e média.
+ * A consulta ao banco só acontece para hidratar um destinatário que ainda não está (ou deixou de estar) em memória,
+ * e lê uma única linha de {@code receiver_stats}; o número de destinatários é limitado e os menos usados são descartados.
+ */
+@Component
+public class ReceiverWindowCache {
+
+    public static final int WINDOW_SIZE = ReceiverStats.WINDOW_SIZE;
+
+    private final TransactionRepositoryImpl transactionRepository;
+    private final Cache<Long, ReceiverWindow> windows;
+
+    public ReceiverWindowCache(
+            TransactionRepositoryImpl transactionRepository,
+            @Value("${validator.receiver-window.max-receivers:100000}") long maxReceivers) {
+        this.transactionRepository = transactionRepository;
+        this.windows = Caffeine.newBuilder().maximumSize(maxReceivers).build();
+    }
+
+    public ReceiverWindow get(Long receiverId) {
+        if (Objects.isNull(receiverId)) {
+            return new ReceiverWindow(WINDOW_SIZE);
+        }
+
+        ReceiverWindow window = windows.getIfPresent(receiverId);
+        if (Objects.nonNull(window)) {
+            return window;
+        }
+
+        // Hidratado fora do cache para não prender a thread (virtual) durante o I/O; em caso de corrida vale a primeira janela
+        ReceiverWindow hydrated = hydrate(receiverId);
+        ReceiverWindow existing = windows.asMap().putIfAbsent(receiverId, hydrated);
+        return Objects.isNull(existing) ? hydrated : existing;
+    }
+
+    /**
+     * Janela de um destinatário que ainda não está gravado no banco: não há histórico para hidratar.
+     */
+    public ReceiverWindow getNew(Long receiverId) {
+        if (Objects.isNull(receiverId)) {
+            return new ReceiverWindow(WINDOW_SIZE);
+        }
+
+        ReceiverWindow empty = new ReceiverWindow(WINDOW_SIZE);
+        ReceiverWindow existing = windows.asMap().putIfAbsent(receiverId, empty);
+        return Objects.isNull(existing) ? empty : existing;
+    }
+
+    /**
+     * Janela do destinatário que já está em memória, sem consultar o banco, ou {@code null}.
+     */
+    public ReceiverWindow getIfPresent(Long receiverId) {
+        return Objects.isNull(receiverId) ? null : windows.getIfPresent(receiverId);
+    }
+
+    /**
+     * Janela em memória ou lida do banco, sem guardá-la no cache: quem decide é que a instala ({@link #install}),
+     * para que uma leitura que não chegou a ser usada não deixe no cache uma janela sem a transação que já foi decidida.
+     */
+    public ReceiverWindow fetch(Long receiverId) {
+        if (Objects.isNull(receiverId)) {
+            return new ReceiverWindow(WINDOW_SIZE);
+        }
+
+        ReceiverWindow window = windows.getIfPresent(receiverId);
+        return Objects.nonNull(window) ? window : hydrate(receiverId);
+    }
+
+    /**
+     * Guarda no cache uma janela obtida com {@link #fetch}, sem I/O. Se outra já foi guardada nesse meio tempo, vale a que
+     * está no cache.
+     */
+    public ReceiverWindow install(Long receiverId, ReceiverWindow window) {
+        if (Objects.isNull(receiverId)) {
+            return window;
+        }
+
+        ReceiverWindow existing = windows.asMap().putIfAbsent(receiverId, window);
+        return Objects.isNull(existing) ? window : existing;
+    }
+
+    /**
+     * Registra uma transação recém-decidida, antes de ser gravada, para que as seguintes do mesmo destinatário já a
+     * enxerguem. Só mexe em memória: um destinatário fora do cache não é hidratado, e a próxima hidratação lê a
+     * transação do banco depois de gravada.
+     * Se a gravação falhar, a janela deve ser descartada com {@link #evict}.
+     */
+    public void record(Transaction transaction) {
+        if (Objects.isNull(transaction.getReceiver())) {
+            return;
+        }
+
+        ReceiverWindow window = getIfPresent(transaction.getReceiver().getId());
+        if (Objects.nonNull(window)) {
+            window.add(toEpochMillis(transaction.getCreatedDate()), transaction.getValue());
+        }
+    }
+
+    public void evict(Long receiverId) {
+        if (Objects.nonNull(receiverId)) {
+            windows.invalidate(receiverId);
+        }
+    }
+
+    private ReceiverWindow hydrate(Long receiverId) {
+        Optional<ReceiverStats> stats = transactionRepository.findReceiverStats(receiverId);
+        if (stats.isPresent()) {
+            return fromStats(stats.get());
+        }
+
+        // Destinatário ainda sem linha em receiver_stats: cai para a consulta das últimas transações
+        List<Transaction> lastTransactions = transactionRepository.findReceiverLast15Transactions(receiverId);
+        ReceiverWindow window = new ReceiverWindow(WINDOW_SIZE);
+
+        // A consulta devolve da mais recente para a mais antiga
+        for (int i = lastTransactions.size() - 1; i >= 0; i--) {
+            Transaction transaction = lastTransactions.get(i);
+            window.add(toEpochMillis(transaction.getCreatedDate()), transaction.getValue());
+        }
+
+        return window;
+    }
+
+    private ReceiverWindow fromStats(ReceiverStats stats) {
+        ReceiverWindow window = new ReceiverWindow(WINDOW_SIZE);
+        long[] times = stats.getWindowTimes();
+        double[] values = stats.getWindowValues();
+
+        for (int i = 0; i < times.length; i++) {
+            window.add(times[i], values[i]);
+        }
+
+        return window;
+    }
+
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        if (Objects.isNull(dateTime)) {
+            return ReceiverWindow.UNKNOWN_TIME;
+        }
+
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,76 @@
+package com.validator.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.validator.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache de usuários por chave PIX, limitado por tamanho e com expiração após a escrita.
+ * <p>
+ * Guarda à parte os usuários provisórios: chaves que ainda não existem no banco recebem um usuário com id reservado,
+ * que só é gravado junto com a primeira transação persistida. Enquanto isso, a mesma chave recebe o mesmo provisório.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<String, User> users;
+    private final Cache<String, User> placeholders;
+
+    public UserCache(
+            @Value("${validator.user-cache.max-size:100000}") long maxSize,
+            @Value("${validator.user-cache.ttl:PT10M}") Duration ttl) {
+        this.users = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+        this.placeholders = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build();
+    }
+
+    public User getIfPresent(String pixKey) {
+        return users.getIfPresent(pixKey);
+    }
+
+    public Map<String, User> getAllPresent(Collection<String> pixKeys) {
+        return users.getAllPresent(pixKeys);
+    }
+
+    /**
+     * Guarda um usuário que já está gravado no banco; o provisório da mesma chave, se houver, deixa de valer.
+     */
+    public void put(User user) {
+        if (Objects.nonNull(user.getPixKey()) && Objects.nonNull(user.getId())) {
+            users.put(user.getPixKey(), user);
+            placeholders.invalidate(user.getPixKey());
+        }
+    }
+
+    public User getPlaceholder(String pixKey) {
+        return placeholders.getIfPresent(pixKey);
+    }
+
+    /**
+     * Guarda o provisório, a menos que a chave já tenha um; devolve o que ficou valendo.
+     */
+    public User putPlaceholder(User placeholder) {
+        User existing = placeholders.asMap().putIfAbsent(placeholder.getPixKey(), placeholder);
+        return Objects.isNull(existing) ? placeholder : existing;
+    }
+
+    /**
+     * Se é esta a instância guardada como gravada no banco. Um usuário que saiu do cache responde {@code false}.
+     */
+    public boolean isStored(User user) {
+        return Objects.nonNull(user.getPixKey()) && users.getIfPresent(user.getPixKey()) == user;
+    }
+
+    /**
+     * Se é esta a instância guardada como provisória. Um provisório que saiu do cache responde {@code false}.
+     */
+    public boolean isPlaceholder(User user) {
+        return Objects.nonNull(user.getPixKey()) && placeholders.getIfPresent(user.getPixKey()) == user;
+    }
+}
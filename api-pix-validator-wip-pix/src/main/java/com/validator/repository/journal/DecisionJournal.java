@@ -0,0 +1,500 @@
+package com.validator.repository.journal;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import com.validator.repository.TransactionRepositoryImpl;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Diário de decisões (write-ahead): cada transação validada é gravada em um arquivo mapeado em memória,
+ * com checksum, e a requisição é respondida a partir daí. Uma thread de fundo grava as transações no banco
+ * em lotes e apaga os arquivos já gravados; o que não chegou ao banco é relido dos arquivos na inicialização.
+ * <p>
+ * Os ids são reservados em blocos na mesma sequência do Hibernate, então a resposta já leva o id definitivo
+ * e regravar uma transação que já estava no banco não tem efeito.
+ * <p>
+ * Os acréscimos não esperam uns pelos outros no disco: cada requisição escreve o seu registro e, com
+ * {@code fsync} ligado, espera um group commit, em que a primeira da fila força (msync) de uma vez tudo o que foi
+ * acrescentado até ali. A reserva de um bloco de ids (uma ida ao banco) também fica fora do lock dos acréscimos,
+ * e os locks são {@link ReentrantLock}, que não prendem a thread virtual enquanto ela espera.
+ * <p>
+ * Depois de cada lote gravado no banco, cada arquivo guarda quantos dos seus registros já foram gravados;
+ * a releitura começa dali, então uma linha gravada e depois apagada no banco não volta após um reinício.
+ */
+@Slf4j
+@Component
+public class DecisionJournal {
+
+    private static final int RECORD_VERSION = 1;
+
+    private final TransactionRepositoryImpl transactionRepository;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final Duration flushInterval;
+    private final int flushBatchSize;
+
+    // Estado abaixo protegido por lock
+    private final Lock lock = new ReentrantLock();
+    private final Deque<JournalSegment> segments = new ArrayDeque<>();
+    private final Deque<Entry> pending = new ArrayDeque<>();
+    private final Map<Long, Transaction> pendingById = new HashMap<>();
+    private JournalSegment active;
+    private long appendedRecords;
+
+    // Bloco de ids reservado na sequência, protegido por idLock
+    private final Lock idLock = new ReentrantLock();
+    private long nextId;
+    private long maxId = -1;
+
+    // Group commit: registros já forçados para o disco, alterado só com syncLock
+    private final Lock syncLock = new ReentrantLock();
+    private volatile long syncedRecords;
+
+    // Só uma gravação no banco por vez (a thread de fundo ou uma requisição que precisa de uma transação já no banco)
+    private final Lock flushLock = new ReentrantLock();
+
+    private ScheduledExecutorService flusher;
+
+    public DecisionJournal(
+            TransactionRepositoryImpl transactionRepository,
+            @Value("${validator.journal.enabled:false}") boolean enabled,
+            @Value("${validator.journal.directory:./data/journal}") Path directory,
+            @Value("${validator.journal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${validator.journal.fsync:true}") boolean fsync,
+            @Value("${validator.journal.flush-interval:PT0.2S}") Duration flushInterval,
+            @Value("${validator.journal.flush-batch-size:500}") int flushBatchSize) {
+        this.transactionRepository = transactionRepository;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.fsync = fsync;
+        this.flushInterval = flushInterval;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    /**
+     * Relê os arquivos deixados pela execução anterior e tenta gravá-los no banco antes de aceitar novas transações.
+     * Com o diário desligado, arquivos remanescentes ainda são gravados, mas nenhum arquivo novo é aberto.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled && !Files.isDirectory(directory)) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+        long lastSequence = replay();
+        flushQuietly();
+
+        if (!enabled) {
+            if (pendingCount() > 0) {
+                log.error("Decision journal is disabled but {} records in {} could not be flushed", pendingCount(), directory);
+            }
+            return;
+        }
+
+        lock.lock();
+        try {
+            active = JournalSegment.create(directory, lastSequence + 1, segmentSize);
+            segments.addLast(active);
+        } finally {
+            lock.unlock();
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("journal-flusher").daemon().factory());
+        flusher.scheduleWithFixedDelay(
+                this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        log.info("Decision journal started in {} ({} records replayed)", directory, pendingCount());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (Objects.nonNull(flusher)) {
+            flusher.shutdown();
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        lock.lock();
+        try {
+            if (Objects.nonNull(active)) {
+                active.seal();
+                active = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        flushQuietly();
+
+        lock.lock();
+        try {
+            segments.forEach(JournalSegment::close);
+            segments.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserva o id, grava a transação no diário e devolve a mesma instância, pronta para a resposta.
+     * A gravação no banco acontece depois, em segundo plano.
+     */
+    public Transaction append(Transaction transaction) {
+        LocalDateTime now = LocalDateTime.now();
+        transaction.setId(reserveId());
+        if (Objects.isNull(transaction.getCreatedDate())) {
+            transaction.setCreatedDate(now);
+        }
+        transaction.setLastUpdatedDate(now);
+
+        byte[] record = encode(transaction);
+        if (record.length > JournalSegment.maxPayload(segmentSize)) {
+            throw new IllegalArgumentException("Journal record of " + record.length + " bytes does not fit in a segment");
+        }
+
+        long ticket;
+        lock.lock();
+        try {
+            if (Objects.isNull(active)) {
+                throw new IllegalStateException("Decision journal is not accepting writes");
+            }
+            if (!active.append(record)) {
+                rotate();
+                active.append(record);
+            }
+
+            pending.addLast(new Entry(transaction, active));
+            pendingById.put(transaction.getId(), transaction);
+            ticket = ++appendedRecords;
+        } finally {
+            lock.unlock();
+        }
+
+        if (fsync) {
+            awaitSynced(ticket);
+        }
+        return transaction;
+    }
+
+    /**
+     * Transação aceita pelo diário e ainda não gravada no banco.
+     */
+    public Optional<Transaction> findPending(Long id) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(pendingById.get(id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Garante que a transação, se ainda estiver só no diário, esteja no banco antes de retornar:
+     * grava agora os lotes pendentes até ela, em vez de esperar a próxima rodada da thread de fundo.
+     * Uma falha na gravação é propagada, e a transação continua pendente.
+     */
+    public void flushPending(Long id) {
+        while (findPending(id).isPresent()) {
+            flushLock.lock();
+            try {
+                if (findPending(id).isPresent()) {
+                    flushBatch();
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Grava no banco tudo o que estiver pendente, em lotes. Falhas ficam para a próxima rodada.
+     */
+    void flushQuietly() {
+        flushLock.lock();
+        try {
+            while (flushBatch()) {
+                // Continua enquanto os lotes saírem cheios
+            }
+        } catch (RuntimeException e) {
+            log.warn("Decision journal flush failed, {} records pending: {}", pendingCount(), e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Grava o lote mais antigo e marca nos arquivos quantos registros já estão no banco.
+     * Chamado com flushLock: só quem o tem remove pendências, então o início da fila não muda durante a gravação.
+     */
+    private boolean flushBatch() {
+        List<Entry> batch = new ArrayList<>(flushBatchSize);
+        lock.lock();
+        try {
+            Iterator<Entry> iterator = pending.iterator();
+            while (iterator.hasNext() && batch.size() < flushBatchSize) {
+                batch.add(iterator.next());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        transactionRepository.insertJournaled(batch.stream().map(Entry::transaction).toList());
+
+        lock.lock();
+        try {
+            LinkedHashSet<JournalSegment> touched = new LinkedHashSet<>();
+            for (Entry entry : batch) {
+                pending.removeFirst();
+                pendingById.remove(entry.transaction().getId());
+                entry.segment().markFlushed();
+                touched.add(entry.segment());
+            }
+            // Uma queda entre o commit acima e esta marca regrava só este lote, sem efeito (ON CONFLICT)
+            touched.forEach(JournalSegment::persistFlushedMark);
+
+            while (!segments.isEmpty() && segments.peekFirst().isFullyFlushed()) {
+                segments.removeFirst().delete();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return batch.size() == flushBatchSize;
+    }
+
+    /**
+     * Próximo id do bloco reservado; só quem esgota o bloco vai ao banco, sem segurar o lock dos acréscimos.
+     */
+    private long reserveId() {
+        idLock.lock();
+        try {
+            if (nextId > maxId) {
+                maxId = transactionRepository.nextTransactionIdBlock();
+                nextId = maxId - Transaction.ID_ALLOCATION_SIZE + 1;
+            }
+            return nextId++;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    /**
+     * Espera o registro de número {@code ticket} estar no disco. Quem pega o syncLock primeiro força, com um msync
+     * por arquivo, tudo o que foi acrescentado até aquele momento; os que esperavam encontram o seu registro já
+     * coberto e retornam sem forçar de novo.
+     */
+    private void awaitSynced(long ticket) {
+        if (syncedRecords >= ticket) {
+            return;
+        }
+
+        syncLock.lock();
+        try {
+            if (syncedRecords >= ticket) {
+                return;
+            }
+
+            long target;
+            List<SyncPoint> points = new ArrayList<>();
+            lock.lock();
+            try {
+                target = appendedRecords;
+                segments.forEach(segment -> points.add(new SyncPoint(segment, segment.position())));
+            } finally {
+                lock.unlock();
+            }
+
+            points.forEach(point -> point.segment().sync(point.position()));
+            syncedRecords = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void rotate() {
+        active.seal();
+        try {
+            active = JournalSegment.create(directory, active.getSequence() + 1, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.addLast(active);
+    }
+
+    /**
+     * Carrega os arquivos existentes, do mais antigo para o mais recente. Devolve a maior sequência encontrada.
+     */
+    private long replay() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(JournalSegment::isSegment)
+                    .sorted(Comparator.comparingLong(JournalSegment::sequenceOf))
+                    .toList();
+        }
+
+        long lastSequence = 0;
+        lock.lock();
+        try {
+            for (Path file : files) {
+                JournalSegment segment = JournalSegment.open(file);
+                lastSequence = segment.getSequence();
+
+                // Os primeiros registros do arquivo já estavam no banco antes do reinício
+                List<byte[]> records = segment.readAll();
+                for (byte[] record : records.subList(Math.min(segment.getFlushed(), records.size()), records.size())) {
+                    Transaction transaction = decode(record);
+                    pending.addLast(new Entry(transaction, segment));
+                    pendingById.put(transaction.getId(), transaction);
+                }
+
+                if (segment.isFullyFlushed()) {
+                    segment.delete();
+                } else {
+                    segments.addLast(segment);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return lastSequence;
+    }
+
+    static byte[] encode(Transaction transaction) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_VERSION);
+            out.writeLong(transaction.getId());
+            out.writeLong(transaction.getSender().getId());
+            out.writeLong(transaction.getReceiver().getId());
+            out.writeBoolean(Objects.nonNull(transaction.getValue()));
+            out.writeDouble(Objects.isNull(transaction.getValue()) ? 0.0 : transaction.getValue());
+            writeNullable(out, transaction.getDescription());
+            writeNullable(out, Objects.isNull(transaction.getStatus()) ? null : transaction.getStatus().name());
+            writeNullable(out, Objects.isNull(transaction.getFraudReason()) ? null : transaction.getFraudReason().name());
+            writeDate(out, transaction.getCreatedDate());
+            writeDate(out, transaction.getLastUpdatedDate());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Transaction decode(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            int version = in.readByte();
+            if (version != RECORD_VERSION) {
+                throw new IllegalStateException("Unsupported journal record version " + version);
+            }
+
+            Transaction transaction = new Transaction();
+            transaction.setId(in.readLong());
+            transaction.setSender(userWithId(in.readLong()));
+            transaction.setReceiver(userWithId(in.readLong()));
+            boolean hasValue = in.readBoolean();
+            double value = in.readDouble();
+            transaction.setValue(hasValue ? value : null);
+            transaction.setDescription(readNullable(in));
+
+            String status = readNullable(in);
+            transaction.setStatus(Objects.isNull(status) ? null : TransactionStatus.valueOf(status));
+            String fraudReason = readNullable(in);
+            transaction.setFraudReason(Objects.isNull(fraudReason) ? null : FraudReason.valueOf(fraudReason));
+
+            transaction.setCreatedDate(readDate(in));
+            transaction.setLastUpdatedDate(readDate(in));
+            return transaction;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static User userWithId(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(Objects.nonNull(value));
+        if (Objects.nonNull(value)) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDateTime date) throws IOException {
+        Instant instant = date.toInstant(ZoneOffset.UTC);
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+
+    private static LocalDateTime readDate(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private record Entry(Transaction transaction, JournalSegment segment) {
+    }
+
+    private record SyncPoint(JournalSegment segment, int position) {
+    }
+}
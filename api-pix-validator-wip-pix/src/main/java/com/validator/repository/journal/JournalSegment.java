@@ -0,0 +1,215 @@
+package com.validator.repository.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Um arquivo do diário, mapeado em memória e de tamanho fixo.
+ * Cada registro é gravado como [tamanho (int)][CRC32C (int)][conteúdo]; o arquivo nasce zerado,
+ * então um tamanho 0 marca o fim dos registros. Um registro com CRC inválido (escrita interrompida) também encerra a leitura.
+ * <p>
+ * Os últimos 8 bytes guardam quantos registros, do início, já foram gravados no banco ([quantidade][complemento]),
+ * para que a releitura após um reinício não os grave de novo. Arquivos sem essa marca (zerados no fim) são relidos inteiros.
+ */
+final class JournalSegment implements Closeable {
+
+    static final String PREFIX = "journal-";
+    static final String SUFFIX = ".log";
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int TRAILER_SIZE = Integer.BYTES * 2;
+
+    private final long sequence;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private int appended;
+    private int flushed;
+    private boolean sealed;
+    // Até onde o conteúdo já foi forçado para o disco; só quem faz o group commit altera
+    private int synced;
+
+    private JournalSegment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment create(Path directory, long sequence, int size) throws IOException {
+        Path path = directory.resolve(fileName(sequence));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new JournalSegment(sequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    /**
+     * Abre um arquivo existente (recuperação após reinício), já selado: nada mais é acrescentado a ele.
+     */
+    static JournalSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        JournalSegment segment = new JournalSegment(
+                sequenceOf(path), path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        segment.sealed = true;
+        segment.flushed = segment.readFlushedMark();
+        return segment;
+    }
+
+    static String fileName(long sequence) {
+        return String.format("%s%019d%s", PREFIX, sequence, SUFFIX);
+    }
+
+    static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    static int maxPayload(int segmentSize) {
+        return segmentSize - HEADER_SIZE * 2 - TRAILER_SIZE;
+    }
+
+    /**
+     * Acrescenta um registro, sem forçá-lo para o disco ({@link #sync}); devolve {@code false} se não couber
+     * (o chamador passa para o próximo arquivo).
+     */
+    boolean append(byte[] payload) {
+        // Sempre sobra espaço para um cabeçalho zerado depois do último registro (marca de fim), antes da marca de gravados
+        if (buffer.remaining() < HEADER_SIZE * 2 + TRAILER_SIZE + payload.length) {
+            return false;
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+
+        appended++;
+        return true;
+    }
+
+    /**
+     * Fim do último registro acrescentado. Lido com o lock do diário, que protege os acréscimos.
+     */
+    int position() {
+        return buffer.position();
+    }
+
+    /**
+     * Força para o disco (msync) o que foi acrescentado desde a última chamada, até {@code position}.
+     */
+    void sync(int position) {
+        if (position > synced) {
+            buffer.force(synced, position - synced);
+            synced = position;
+        }
+    }
+
+    /**
+     * Lê os registros válidos, do início até o primeiro registro vazio ou corrompido.
+     */
+    List<byte[]> readAll() {
+        ByteBuffer view = buffer.duplicate().position(0);
+        List<byte[]> records = new ArrayList<>();
+
+        while (view.remaining() >= HEADER_SIZE) {
+            int length = view.getInt();
+            int checksum = view.getInt();
+            if (length <= 0 || length > view.remaining()) {
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            view.get(payload);
+
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            records.add(payload);
+        }
+
+        appended = records.size();
+        return records;
+    }
+
+    void seal() {
+        sealed = true;
+    }
+
+    void markFlushed() {
+        flushed++;
+    }
+
+    /**
+     * Grava no arquivo quantos registros já estão no banco e força esse trecho para o disco.
+     */
+    void persistFlushedMark() {
+        int offset = buffer.capacity() - TRAILER_SIZE;
+        buffer.putInt(offset, flushed);
+        buffer.putInt(offset + Integer.BYTES, ~flushed);
+        buffer.force(offset, TRAILER_SIZE);
+    }
+
+    int getFlushed() {
+        return flushed;
+    }
+
+    private int readFlushedMark() {
+        int offset = buffer.capacity() - TRAILER_SIZE;
+        if (offset < 0) {
+            return 0;
+        }
+
+        int count = buffer.getInt(offset);
+        return buffer.getInt(offset + Integer.BYTES) == ~count && count > 0 ? count : 0;
+    }
+
+    /**
+     * Selado e com todos os registros já gravados no banco: pode ser apagado.
+     */
+    boolean isFullyFlushed() {
+        return sealed && flushed >= appended;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
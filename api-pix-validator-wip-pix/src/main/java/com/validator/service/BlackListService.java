@@ -0,0 +1,54 @@
+package com.validator.service;
+
+import com.validator.model.BlackList;
+import com.validator.model.User;
+import com.validator.model.enums.FraudReason;
+import com.validator.repository.BlackListRepositoryImpl;
+import com.validator.repository.cache.BlackListIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class BlackListService {
+
+    private final BlackListRepositoryImpl blackListRepository;
+    private final BlackListIndex blackListIndex;
+    private final BlackListTtl blackListTtl;
+
+    public boolean isBlacklisted(User user) {
+        if (Objects.isNull(user) || Objects.isNull(user.getId())) {
+            return false; // Não podemos checar um usuário que nem existe no banco
+        }
+
+        return blackListIndex.contains(user.getId());
+    }
+
+    /**
+     * Inclui o usuário (ou renova a inclusão) só no índice em memória, sem I/O, com o prazo do motivo contado a partir de agora.
+     * A linha na tabela é gravada depois por {@link #addUserToBlackList}.
+     */
+    public void mark(User user, FraudReason reason) {
+        blackListIndex.extend(user.getId(), LocalDateTime.now().plus(blackListTtl.forReason(reason)));
+    }
+
+    /**
+     * Desfaz {@link #mark} para um id que deixou de valer (um provisório trocado pelo id gravado da mesma chave).
+     */
+    public void unmark(User user) {
+        blackListIndex.remove(user.getId());
+    }
+
+    /**
+     * Inclui o usuário (ou renova a inclusão) com o prazo do motivo, contado a partir de agora.
+     */
+    public void addUserToBlackList(User user, FraudReason reason) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = blackListRepository.upsert(
+                new BlackList(null, user, now, reason, now.plus(blackListTtl.forReason(reason))));
+        blackListIndex.add(user.getId(), expiresAt);
+    }
+}
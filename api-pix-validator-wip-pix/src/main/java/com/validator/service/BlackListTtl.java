@@ -0,0 +1,28 @@
+package com.validator.service;
+
+import com.validator.model.enums.FraudReason;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Por quanto tempo uma reprovação mantém o destinatário na blacklist, conforme o motivo.
+ */
+public record BlackListTtl(Duration strangeValue, Duration highFrequency, Duration outOfAverageValue, Duration fallback) {
+
+    public static final BlackListTtl DEFAULTS =
+            new BlackListTtl(Duration.ofDays(30), Duration.ofHours(24), Duration.ofDays(7), Duration.ofDays(30));
+
+    public Duration forReason(FraudReason reason) {
+        if (Objects.isNull(reason)) {
+            return fallback;
+        }
+
+        return switch (reason) {
+            case STRANGE_VALUE -> strangeValue;
+            case HIGH_FREQUENCY -> highFrequency;
+            case OUT_OF_AVERAGE_VALUE -> outOfAverageValue;
+            default -> fallback;
+        };
+    }
+}
@@ -1,18 +1,31 @@
 package com.validator.service;
 
 import com.validator.controller.requests.TransactionRequest;
+import com.validator.controller.responses.TransactionPage;
 import com.validator.controller.responses.TransactionResponse;
 import com.validator.model.Transaction;
+import com.validator.model.User;
 import com.validator.model.enums.FraudReason;
 import com.validator.model.enums.TransactionStatus;
+import com.validator.repository.StatusCursor;
+import com.validator.repository.TransactionFilter;
 import com.validator.repository.TransactionRepositoryImpl;
+import com.validator.repository.cache.ReceiverWindowCache;
+import com.validator.repository.journal.DecisionJournal;
+import com.validator.service.metrics.ValidationMetrics;
+import com.validator.service.metrics.ValidationMetrics.Stage;
 import com.validator.service.validators.TransactionValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,6 +35,10 @@ public class TransactionService {
 
     private final TransactionRepositoryImpl transactionRepository;
     private final TransactionValidator validator;
+    private final ReceiverWindowCache receiverWindowCache;
+    private final UserService userService;
+    private final ValidationMetrics metrics;
+    private final DecisionJournal decisionJournal;
 
     public List<TransactionResponse> findAll() {
         log.info("Fetching all transactions");
@@ -30,26 +47,166 @@ public class TransactionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Página por cursor (keyset em id). O cursor da próxima página é o id do último item, ou nulo se não houver mais.
+     */
+    public TransactionPage findPage(Long after, int limit) {
+        log.info("Fetching transactions after id={} limit={}", after, limit);
+
+        // Um item a mais indica se existe próxima página sem precisar de COUNT
+        List<Transaction> page = transactionRepository.findPage(after, limit + 1);
+        boolean hasMore = page.size() > limit;
+        List<Transaction> items = hasMore ? page.subList(0, limit) : page;
+
+        return new TransactionPage(
+                items.stream().map(Transaction::toResponse).collect(Collectors.toList()),
+                hasMore ? String.valueOf(items.get(items.size() - 1).getId()) : null);
+    }
+
+    /**
+     * Entrega todas as transações, uma a uma, sem carregá-las juntas em memória.
+     */
+    public void streamAll(int fetchSize, Consumer<TransactionResponse> consumer) {
+        log.info("Streaming all transactions with fetchSize={}", fetchSize);
+        transactionRepository.forEach(fetchSize, transaction -> consumer.accept(transaction.toResponse()));
+    }
+
     public Optional<TransactionResponse> findById(Long id) {
         log.info("Fetching transaction with id={}", id);
-        return transactionRepository.findById(id).map(Transaction::toResponse);
+        // Com o diário ligado, uma transação recém-aceita pode ainda não ter chegado ao banco
+        return transactionRepository.findById(id)
+                .or(() -> decisionJournal.findPending(id))
+                .map(Transaction::toResponse);
     }
 
     public TransactionResponse save(TransactionRequest request) {
-        Transaction transaction = validator.validate(request.toEntity());
-        Transaction saved = transactionRepository.save(transaction);
+        metrics.validationStarted();
+        try {
+            // A decisão já foi registrada na janela do destinatário; se a gravação falhar, a janela é descartada
+            Transaction transaction = validator.validate(request.toEntity());
+            User sender = transaction.getSender();
+            User receiver = transaction.getReceiver();
 
-        log.info("Transaction created successfully with id={}", saved.getId());
+            // Remetente ou destinatário ainda provisórios entram no banco junto com a transação, não antes
+            List<User> newUsers = userService.unstored(List.of(sender, receiver));
 
-        return saved.toResponse();
+            Transaction saved;
+            long start = metrics.start();
+            try {
+                saved = decisionJournal.isEnabled()
+                        ? appendToJournal(transaction, newUsers)
+                        : transactionRepository.save(transaction, newUsers);
+            } catch (RuntimeException e) {
+                receiverWindowCache.evict(receiver.getId());
+                throw e;
+            }
+            metrics.recordStage(Stage.PERSIST, start);
+            userService.stored(asStored(newUsers, List.of(saved)));
+            validator.reassignUsers(saved, sender, receiver);
+            persistBlacklisting(saved);
+
+            metrics.recordDecision(saved);
+
+            log.info("Transaction created successfully with id={}", saved.getId());
+
+            return saved.toResponse();
+        } finally {
+            metrics.validationFinished();
+        }
+    }
+
+    /**
+     * O diário guarda só os ids dos usuários e grava no banco depois: os provisórios precisam estar gravados
+     * antes do registro, ou a gravação (ou a releitura após uma queda) apontaria para usuários inexistentes.
+     */
+    private Transaction appendToJournal(Transaction transaction, List<User> newUsers) {
+        transaction.useStoredUsers(userService.materialize(newUsers));
+        return decisionJournal.append(transaction);
+    }
+
+    /**
+     * Os usuários novos como ficaram no banco: um provisório cuja chave já estava gravada dá lugar ao usuário gravado.
+     */
+    private static List<User> asStored(List<User> newUsers, List<Transaction> saved) {
+        Map<String, User> byKey = new HashMap<>();
+        for (Transaction transaction : saved) {
+            byKey.put(transaction.getSender().getPixKey(), transaction.getSender());
+            byKey.put(transaction.getReceiver().getPixKey(), transaction.getReceiver());
+        }
+        return newUsers.stream().map(user -> byKey.getOrDefault(user.getPixKey(), user)).toList();
+    }
+
+    /**
+     * Grava a blacklist de uma transação já gravada. Uma falha aqui não desfaz a transação: o índice em memória já tem
+     * o destinatário, e a próxima reprovação dele regrava a linha.
+     */
+    private void persistBlacklisting(Transaction transaction) {
+        try {
+            validator.persistBlacklisting(transaction);
+        } catch (RuntimeException e) {
+            log.warn("Blacklist write failed for receiver id={}: {}", transaction.getReceiver().getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Valida e persiste um lote de transações. As chaves PIX são resolvidas com uma única consulta,
+     * as transações e os usuários novos são gravados em uma única transação de banco e as respostas seguem a ordem de entrada.
+     */
+    public List<TransactionResponse> saveBatch(List<TransactionRequest> requests) {
+        // Cada item conta no gauge de validações em andamento, como no envio individual
+        metrics.validationStarted(requests.size());
+        try {
+            List<Transaction> transactions = requests.stream().map(TransactionRequest::toEntity).toList();
+
+            long resolution = metrics.start();
+            Map<String, User> users = userService.resolveUsers(
+                    transactions.stream()
+                            .flatMap(transaction -> Stream.of(transaction.getSender(), transaction.getReceiver()))
+                            .toList());
+            List<User> newUsers = userService.unstored(users.values());
+            metrics.recordStage(Stage.USER_RESOLUTION, resolution);
+
+            for (Transaction transaction : transactions) {
+                transaction.setSender(users.get(transaction.getSender().getPixKey()));
+                transaction.setReceiver(users.get(transaction.getReceiver().getPixKey()));
+                transaction.setCreatedDate(LocalDateTime.now());
+            }
+            List<User> senders = transactions.stream().map(Transaction::getSender).toList();
+            List<User> receivers = transactions.stream().map(Transaction::getReceiver).toList();
+
+            List<Transaction> saved;
+            try {
+                // Registrar antes de gravar permite que os itens seguintes do lote enxerguem os anteriores na janela.
+                // HISTORY é medido uma vez para o lote e RULES por item, dentro de evaluateAll
+                validator.evaluateAll(transactions);
+
+                long start = metrics.start();
+                saved = transactionRepository.saveAll(transactions, newUsers);
+                metrics.recordStage(Stage.PERSIST, start);
+            } catch (RuntimeException e) {
+                receivers.forEach(receiver -> receiverWindowCache.evict(receiver.getId()));
+                throw e;
+            }
+            userService.stored(asStored(newUsers, saved));
+            for (int i = 0; i < saved.size(); i++) {
+                validator.reassignUsers(saved.get(i), senders.get(i), receivers.get(i));
+            }
+            saved.forEach(this::persistBlacklisting);
+            saved.forEach(metrics::recordDecision);
+
+            log.info("Batch of {} transactions created successfully", saved.size());
+
+            return saved.stream().map(Transaction::toResponse).collect(Collectors.toList());
+        } finally {
+            metrics.validationFinished(requests.size());
+        }
     }
 
     public TransactionResponse update(Long id, TransactionRequest request) {
         log.info("Updating transaction with id={}", id);
 
         Transaction existing =
-                transactionRepository
-                        .findById(id)
+                findStored(id)
                         .orElseThrow(
                                 () -> {
                                     log.warn("Update failed: transaction not found for id={}", id);
@@ -60,6 +217,8 @@ public class TransactionService {
         updated.setId(existing.getId());
 
         Transaction saved = transactionRepository.update(updated);
+        receiverWindowCache.evict(existing.getReceiver().getId());
+        receiverWindowCache.evict(saved.getReceiver().getId());
         log.info("Transaction updated successfully with id={}", id);
 
         return saved.toResponse();
@@ -68,27 +227,52 @@ public class TransactionService {
     public void delete(Long id) {
         log.info("Deleting transaction with id={}", id);
 
-        if (transactionRepository.findById(id).isEmpty()) {
-            log.warn("Delete failed: transaction not found for id={}", id);
-            throw new IllegalArgumentException("Transaction not found: " + id);
-        }
+        Transaction existing =
+                findStored(id)
+                        .orElseThrow(
+                                () -> {
+                                    log.warn("Delete failed: transaction not found for id={}", id);
+                                    return new IllegalArgumentException("Transaction not found: " + id);
+                                });
 
         transactionRepository.delete(id);
+        receiverWindowCache.evict(existing.getReceiver().getId());
         log.info("Transaction deleted successfully with id={}", id);
     }
 
-    public List<TransactionResponse> findByStatus(String status) {
-        log.info("Fetching transactions with status={}", status);
-        return transactionRepository.findByStatus(status).stream()
-                .map(Transaction::toResponse)
-                .collect(Collectors.toList());
+    /**
+     * Transação já gravada no banco. Com o diário ligado, uma transação ainda pendente é gravada antes:
+     * alterada só no banco, ela seria sobrescrita (ou recriada, se apagada) pela gravação em segundo plano.
+     */
+    private Optional<Transaction> findStored(Long id) {
+        if (decisionJournal.findPending(id).isPresent()) {
+            decisionJournal.flushPending(id);
+        }
+        return transactionRepository.findById(id);
+    }
+
+    /**
+     * Fila por status, das mais recentes para as mais antigas, paginada por cursor em (createdDate, id).
+     */
+    public TransactionPage findByStatus(TransactionFilter filter, StatusCursor after, int limit) {
+        log.info("Fetching transactions with status={} fraudReason={} from={} to={} limit={}",
+                filter.status(), filter.fraudReason(), filter.from(), filter.to(), limit);
+
+        List<Transaction> page = transactionRepository.findByStatus(filter, after, limit + 1);
+        boolean hasMore = page.size() > limit;
+        List<Transaction> items = hasMore ? page.subList(0, limit) : page;
+        Transaction last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return new TransactionPage(
+                items.stream().map(Transaction::toResponse).collect(Collectors.toList()),
+                hasMore ? new StatusCursor(last.getCreatedDate(), last.getId()).encode() : null);
     }
 
     /**
      * Aprova uma transação (chamado pelo analista).
      */
     public TransactionResponse approveTransaction(Long id) {
-        Transaction tx = transactionRepository.findById(id)
+        Transaction tx = findStored(id)
                 .orElseThrow(() -> new IllegalArgumentException("Transaction not found: " + id));
 
         // Define o status como SUCESSO e limpa a razão da fraude
@@ -105,7 +289,7 @@ public class TransactionService {
      * Rejeita uma transação (chamado pelo analista).
      */
     public TransactionResponse rejectTransaction(Long id) {
-        Transaction tx = transactionRepository.findById(id)
+        Transaction tx = findStored(id)
                 .orElseThrow(() -> new IllegalArgumentException("Transaction not found: " + id));
 
         // Define o status como FALHA; nenhuma razão específica definida (poderia ser um enum adicional)
@@ -3,18 +3,130 @@ package com.validator.service;
 import com.validator.model.User;
 import com.validator.model.enums.PixType;
 import com.validator.repository.UserRepositoryImpl;
+import com.validator.repository.cache.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepositoryImpl userRepository;
+    private final UserCache userCache;
+
+    // Bloco de ids reservado na sequência para os usuários provisórios; ReentrantLock para não prender a thread virtual no I/O
+    private final Lock idLock = new ReentrantLock();
+    private long nextId = 1;
+    private long maxId = 0;
+
+
+    /**
+     * Usuário gravado com a chave PIX da requisição ou, se a chave ainda não existe, um provisório com id reservado.
+     * O provisório não é gravado aqui: ele entra no banco junto com a transação ({@link #materialize}), então
+     * chaves de requisições que falham ou expiram nunca viram linhas em users.
+     */
+    public User resolveUser(User user) {
+        User cached = userCache.getIfPresent(user.getPixKey());
+        if (Objects.nonNull(cached)) {
+            return cached;
+        }
+
+        User placeholder = userCache.getPlaceholder(user.getPixKey());
+        if (Objects.nonNull(placeholder)) {
+            return placeholder;
+        }
 
+        // Carregado fora do cache para não prender a thread (virtual) durante o I/O
+        Optional<User> stored = userRepository.findByPixKey(user.getPixKey());
+        if (stored.isPresent()) {
+            userCache.put(stored.get());
+            return stored.get();
+        }
 
-    public User getOrCreateUser(User user) {
-        return userRepository.findByPixKey(user.getPixKey()).orElseGet(() -> userRepository.save(getNewUser(user)));
+        return userCache.putPlaceholder(getNewUser(user));
+    }
+
+
+    /**
+     * Resolve vários usuários de uma vez: o cache primeiro e uma única consulta para as chaves restantes.
+     * As que faltam recebem provisórios, como em {@link #resolveUser}. O mapa é indexado pela chave PIX.
+     */
+    public Map<String, User> resolveUsers(Collection<User> users) {
+        Map<String, User> requested = users.stream()
+                .collect(Collectors.toMap(User::getPixKey, Function.identity(), (first, second) -> first, LinkedHashMap::new));
+
+        Map<String, User> resolved = new HashMap<>(userCache.getAllPresent(requested.keySet()));
+
+        List<String> uncached = requested.keySet().stream()
+                .filter(key -> !resolved.containsKey(key) && Objects.isNull(userCache.getPlaceholder(key)))
+                .toList();
+        if (!uncached.isEmpty()) {
+            userRepository.findByPixKeys(uncached).forEach(user -> {
+                userCache.put(user);
+                resolved.put(user.getPixKey(), user);
+            });
+        }
+
+        for (User user : requested.values()) {
+            if (!resolved.containsKey(user.getPixKey())) {
+                User placeholder = userCache.getPlaceholder(user.getPixKey());
+                resolved.put(user.getPixKey(),
+                        Objects.nonNull(placeholder) ? placeholder : userCache.putPlaceholder(getNewUser(user)));
+            }
+        }
+
+        return resolved;
+    }
+
+
+    /**
+     * Usuários (sem repetição) que não se sabe se estão gravados: os provisórios e os que já saíram do cache.
+     * Gravá-los com {@link UserRepositoryImpl#insertReserved} não tem efeito para quem já existe.
+     */
+    public List<User> unstored(Collection<User> users) {
+        return users.stream()
+                .filter(Objects::nonNull)
+                .filter(user -> !userCache.isStored(user))
+                .distinct()
+                .toList();
+    }
+
+    public boolean isPlaceholder(User user) {
+        return userCache.isPlaceholder(user);
+    }
+
+    /**
+     * Grava agora os usuários ainda não gravados, em uma transação própria. Devolve, por chave PIX, os que já
+     * estavam gravados com outro id (ver {@link UserRepositoryImpl#insertReserved}); quem chamou deve usá-los no lugar.
+     */
+    public Map<String, User> materialize(Collection<User> users) {
+        List<User> pending = unstored(users);
+        if (pending.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, User> existing = userRepository.insertReserved(pending);
+        stored(pending.stream().map(user -> existing.getOrDefault(user.getPixKey(), user)).toList());
+        return existing;
+    }
+
+    /**
+     * Marca como gravados usuários que entraram no banco junto com uma transação.
+     */
+    public void stored(Collection<User> users) {
+        users.forEach(userCache::put);
     }
 
 
@@ -27,10 +139,24 @@ public class UserService {
             newUser.setCpf("CPF não localizado");
         }
 
+        newUser.setId(reserveId());
         newUser.setName("Usuário não localizado");
         newUser.setPixKey(user.getPixKey());
         newUser.setPixKeyType(user.getPixKeyType());
 
         return newUser;
     }
+
+    private long reserveId() {
+        idLock.lock();
+        try {
+            if (nextId > maxId) {
+                maxId = userRepository.nextUserIdBlock();
+                nextId = maxId - User.ID_ALLOCATION_SIZE + 1;
+            }
+            return nextId++;
+        } finally {
+            idLock.unlock();
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package com.validator.service.backtest;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uma linha do arquivo exportado para o backtest (NDJSON, um objeto por linha), com a decisão gravada na época.
+ */
+public record BacktestRecord(
+        Long id,
+        LocalDateTime createdDate,
+        Long senderId,
+        String senderPixKey,
+        Long receiverId,
+        String receiverPixKey,
+        Double value,
+        String description,
+        TransactionStatus status,
+        FraudReason fraudReason) {
+
+    public Transaction toTransaction() {
+        User sender = new User();
+        sender.setId(senderId);
+        sender.setPixKey(senderPixKey);
+
+        User receiver = new User();
+        receiver.setId(receiverId);
+        receiver.setPixKey(receiverPixKey);
+
+        return new Transaction(id, sender, receiver, value, description, status, fraudReason, createdDate, createdDate);
+    }
+}
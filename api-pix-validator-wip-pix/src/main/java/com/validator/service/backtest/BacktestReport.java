@@ -0,0 +1,21 @@
+package com.validator.service.backtest;
+
+import com.validator.model.enums.FraudReason;
+
+import java.util.List;
+
+/**
+ * Resultado de um backtest: quantas decisões mudaram e, por motivo de fraude, quantas transações tinham esse motivo
+ * gravado, quantas o teriam com a configuração candidata, quantas passaram a tê-lo e quantas deixaram de tê-lo.
+ * O motivo {@code null} agrupa as transações sem motivo (aprovadas, ou decididas pelo analista).
+ */
+public record BacktestReport(
+        long transactions,
+        long receivers,
+        long changed,
+        List<ReasonDiff> reasons,
+        long elapsedMillis) {
+
+    public record ReasonDiff(FraudReason reason, long stored, long candidate, long added, long removed) {
+    }
+}
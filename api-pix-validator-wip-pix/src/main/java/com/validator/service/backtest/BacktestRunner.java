@@ -0,0 +1,57 @@
+package com.validator.service.backtest;
+
+import com.validator.service.validators.rules.ValidationThresholds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Executa um backtest na inicialização quando {@code validator.backtest.enabled=true}.
+ * Os limites candidatos vêm de {@code validator.backtest.candidate.*}; os que não forem informados
+ * ficam iguais aos de produção ({@code validator.rules.*}).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "validator.backtest.enabled", havingValue = "true")
+public class BacktestRunner implements ApplicationRunner {
+
+    private final BacktestService backtestService;
+    private final String file;
+    private final ValidationThresholds candidate;
+
+    public BacktestRunner(
+            BacktestService backtestService,
+            @Value("${validator.backtest.file:}") String file,
+            @Value("${validator.backtest.candidate.max-value:${validator.rules.max-value:10000.0}}") double maxValue,
+            @Value("${validator.backtest.candidate.min-value:${validator.rules.min-value:0.5}}") double minValue,
+            @Value("${validator.backtest.candidate.min-history:${validator.rules.min-history:5}}") int minHistory,
+            @Value("${validator.backtest.candidate.tolerance-factor:${validator.rules.tolerance-factor:4.0}}") double toleranceFactor,
+            @Value("${validator.backtest.candidate.frequency-minutes:${validator.rules.frequency-minutes:5}}") long frequencyMinutes,
+            @Value("${validator.backtest.candidate.max-transactions:${validator.rules.max-transactions:5}}") long maxTransactions) {
+        this.backtestService = backtestService;
+        this.file = file;
+        this.candidate = new ValidationThresholds(
+                maxValue, minValue, minHistory, toleranceFactor, frequencyMinutes, maxTransactions);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        BacktestReport report = file.isBlank()
+                ? backtestService.runFromDatabase(candidate)
+                : backtestService.runFromFile(Path.of(file), candidate);
+
+        log.info("Backtest of {}: {} transactions, {} receivers, {} decisions changed, {} ms",
+                candidate, report.transactions(), report.receivers(), report.changed(), report.elapsedMillis());
+        for (BacktestReport.ReasonDiff diff : report.reasons()) {
+            log.info("  {}: stored={} candidate={} added={} removed={}",
+                    Objects.isNull(diff.reason()) ? "NONE" : diff.reason().name(),
+                    diff.stored(), diff.candidate(), diff.added(), diff.removed());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.validator.service.backtest;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import com.validator.repository.TransactionRepositoryImpl;
+import com.validator.repository.cache.ReceiverWindow;
+import com.validator.repository.cache.ReceiverWindowCache;
+import com.validator.service.BlackListTtl;
+import com.validator.service.validators.TransactionValidator;
+import com.validator.service.validators.rules.FraudRule;
+import com.validator.service.validators.rules.ValidationContext;
+import com.validator.service.validators.rules.ValidationThresholds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Reaplica as regras do {@link TransactionValidator} sobre o histórico de transações com limites candidatos
+ * e compara as decisões com as que foram gravadas.
+ * <p>
+ * As regras dependem apenas do histórico do próprio destinatário, então a entrada vem agrupada por destinatário
+ * (e em ordem cronológica dentro de cada um) e cada grupo é reproduzido em uma tarefa de um {@link ForkJoinPool}.
+ * A leitura é por cursor e o número de transações lidas e ainda não reproduzidas é limitado, então a memória
+ * não cresce com o tamanho do histórico.
+ * <p>
+ * A blacklist é simulada por destinatário: uma reprovação que põe o destinatário na blacklist vale para as transações
+ * seguintes dele até o fim do prazo do motivo ({@link BlackListTtl}), contado da data da transação reprovada e comparado
+ * com a data de cada transação reproduzida. Como na tabela, uma nova reprovação nunca encurta o prazo.
+ * Remetentes postos na blacklist como destinatários em outro grupo não são considerados.
+ * A velocidade por remetente e destinatário ({@code VelocityRule}) e o grafo de contas ({@code MuleNetworkRule})
+ * também não são reproduzidos: eles dependem de todos os grupos ao mesmo tempo.
+ */
+@Slf4j
+@Service
+public class BacktestService {
+
+    private final TransactionRepositoryImpl transactionRepository;
+    private final TransactionValidator validator;
+    private final BlackListTtl blackListTtl;
+    private final ObjectMapper objectMapper;
+    private final int parallelism;
+    private final int fetchSize;
+    private final int maxInFlight;
+
+    public BacktestService(
+            TransactionRepositoryImpl transactionRepository,
+            TransactionValidator validator,
+            BlackListTtl blackListTtl,
+            ObjectMapper objectMapper,
+            @Value("${validator.backtest.parallelism:0}") int parallelism,
+            @Value("${validator.backtest.fetch-size:5000}") int fetchSize,
+            @Value("${validator.backtest.max-in-flight:200000}") int maxInFlight) {
+        this.transactionRepository = transactionRepository;
+        this.validator = validator;
+        this.blackListTtl = blackListTtl;
+        this.objectMapper = objectMapper;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.fetchSize = fetchSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Backtest sobre a tabela transactions, lida por cursor na ordem (destinatário, data).
+     */
+    public BacktestReport runFromDatabase(ValidationThresholds candidate) {
+        log.info("Starting backtest over the database with {}", candidate);
+        return run(candidate, action -> transactionRepository.forEachByReceiver(fetchSize, action));
+    }
+
+    /**
+     * Backtest sobre um arquivo NDJSON de {@link BacktestRecord}, ordenado por destinatário e data.
+     */
+    public BacktestReport runFromFile(Path file, ValidationThresholds candidate) throws IOException {
+        log.info("Starting backtest over {} with {}", file, candidate);
+
+        try (BufferedReader reader = Files.newBufferedReader(file);
+             MappingIterator<BacktestRecord> records = objectMapper.readerFor(BacktestRecord.class).readValues(reader)) {
+            return run(candidate, action -> records.forEachRemaining(record -> action.accept(record.toTransaction())));
+        }
+    }
+
+    BacktestReport run(ValidationThresholds candidate, Consumer<Consumer<Transaction>> source) {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Partitioner partitioner = new Partitioner(pool, candidate);
+
+        try {
+            source.accept(partitioner);
+            partitioner.finish();
+
+            pool.shutdown();
+            if (!pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Backtest did not finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Backtest interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (Objects.nonNull(partitioner.failure.get())) {
+            throw partitioner.failure.get();
+        }
+
+        BacktestReport report = partitioner.total.toReport(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Backtest finished: {} transactions from {} receivers in {} ms, {} decisions changed",
+                report.transactions(), report.receivers(), report.elapsedMillis(), report.changed());
+        return report;
+    }
+
+    /**
+     * Reproduz, em ordem, as transações de um destinatário, como se cada uma chegasse no instante em que foi criada.
+     */
+    private BacktestTally replay(List<Transaction> received, ValidationThresholds candidate) {
+        BacktestTally tally = new BacktestTally();
+        ReceiverWindow window = new ReceiverWindow(ReceiverWindowCache.WINDOW_SIZE);
+        Long receiverId = received.get(0).getReceiver().getId();
+        // Fim do prazo do destinatário na blacklist, em epoch millis (MIN_VALUE = fora dela)
+        AtomicLong blacklistedUntil = new AtomicLong(Long.MIN_VALUE);
+
+        for (Transaction transaction : received) {
+            long now = ReceiverWindowCache.toEpochMillis(transaction.getCreatedDate());
+            ValidationContext context = new ValidationContext(
+                    now,
+                    user -> now < blacklistedUntil.get() && Objects.equals(user.getId(), receiverId),
+                    () -> window,
+                    candidate);
+
+            FraudRule decisive = validator.decide(transaction, context);
+            TransactionStatus status = Objects.isNull(decisive) ? TransactionStatus.SUCCESS : decisive.outcome();
+            FraudReason reason = Objects.isNull(decisive) ? null : decisive.reason();
+            tally.record(transaction.getStatus(), transaction.getFraudReason(), status, reason);
+
+            if (Objects.nonNull(decisive) && decisive.blacklistsReceiver()) {
+                long expiresAt = now + blackListTtl.forReason(decisive.reason()).toMillis();
+                blacklistedUntil.accumulateAndGet(expiresAt, Math::max);
+            }
+            window.add(now, transaction.getValue());
+        }
+
+        tally.receiverDone();
+        return tally;
+    }
+
+    /**
+     * Junta as transações consecutivas do mesmo destinatário e entrega cada grupo completo ao pool.
+     */
+    private class Partitioner implements Consumer<Transaction> {
+
+        private final ForkJoinPool pool;
+        private final ValidationThresholds candidate;
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private final BacktestTally total = new BacktestTally();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        private List<Transaction> group = new ArrayList<>();
+        private Long currentReceiverId;
+
+        Partitioner(ForkJoinPool pool, ValidationThresholds candidate) {
+            this.pool = pool;
+            this.candidate = candidate;
+        }
+
+        @Override
+        public void accept(Transaction transaction) {
+            if (Objects.nonNull(failure.get())) {
+                throw failure.get();
+            }
+            if (Objects.isNull(transaction.getReceiver()) || Objects.isNull(transaction.getReceiver().getId())) {
+                return;
+            }
+
+            Long receiverId = transaction.getReceiver().getId();
+            if (Objects.nonNull(currentReceiverId) && receiverId < currentReceiverId) {
+                throw new IllegalArgumentException(
+                        "Backtest input must be ordered by receiver id, found " + receiverId + " after " + currentReceiverId);
+            }
+            if (!receiverId.equals(currentReceiverId)) {
+                submit();
+                currentReceiverId = receiverId;
+            }
+            group.add(transaction);
+        }
+
+        void finish() {
+            submit();
+        }
+
+        private void submit() {
+            if (group.isEmpty()) {
+                return;
+            }
+
+            List<Transaction> received = group;
+            group = new ArrayList<>();
+
+            // Um destinatário com mais transações que o limite ainda passa, sozinho
+            int permits = Math.min(received.size(), maxInFlight);
+            inFlight.acquireUninterruptibly(permits);
+            pool.execute(() -> {
+                try {
+                    total.merge(replay(received, candidate));
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release(permits);
+                }
+            });
+        }
+    }
+}
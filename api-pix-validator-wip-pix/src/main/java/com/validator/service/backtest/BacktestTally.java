@@ -0,0 +1,69 @@
+package com.validator.service.backtest;
+
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Contadores de um backtest. Cada destinatário é contado em uma instância própria e somado ao total no fim.
+ * A posição 0 dos arrays é a das transações sem motivo; as demais seguem a ordem de {@link FraudReason}.
+ */
+class BacktestTally {
+
+    private static final FraudReason[] REASONS = FraudReason.values();
+
+    private final long[] stored = new long[REASONS.length + 1];
+    private final long[] candidate = new long[REASONS.length + 1];
+    private final long[] added = new long[REASONS.length + 1];
+    private final long[] removed = new long[REASONS.length + 1];
+    private long transactions;
+    private long receivers;
+    private long changed;
+
+    void record(TransactionStatus storedStatus, FraudReason storedReason,
+                TransactionStatus candidateStatus, FraudReason candidateReason) {
+        transactions++;
+        stored[index(storedReason)]++;
+        candidate[index(candidateReason)]++;
+
+        if (storedReason != candidateReason) {
+            added[index(candidateReason)]++;
+            removed[index(storedReason)]++;
+        }
+        if (storedReason != candidateReason || storedStatus != candidateStatus) {
+            changed++;
+        }
+    }
+
+    void receiverDone() {
+        receivers++;
+    }
+
+    synchronized void merge(BacktestTally other) {
+        for (int i = 0; i < stored.length; i++) {
+            stored[i] += other.stored[i];
+            candidate[i] += other.candidate[i];
+            added[i] += other.added[i];
+            removed[i] += other.removed[i];
+        }
+        transactions += other.transactions;
+        receivers += other.receivers;
+        changed += other.changed;
+    }
+
+    synchronized BacktestReport toReport(long elapsedMillis) {
+        List<BacktestReport.ReasonDiff> reasons = new ArrayList<>(stored.length);
+        for (int i = 0; i < stored.length; i++) {
+            reasons.add(new BacktestReport.ReasonDiff(
+                    i == 0 ? null : REASONS[i - 1], stored[i], candidate[i], added[i], removed[i]));
+        }
+        return new BacktestReport(transactions, receivers, changed, reasons, elapsedMillis);
+    }
+
+    private static int index(FraudReason reason) {
+        return Objects.isNull(reason) ? 0 : reason.ordinal() + 1;
+    }
+}
@@ -0,0 +1,324 @@
+package com.validator.service.graph;
+
+import com.validator.model.Transaction;
+import com.validator.util.LongLongHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Grafo remetente → destinatário das transações aceitas, mantido em memória a cada decisão.
+ * <p>
+ * Os componentes conexos ficam em uma union-find (união por tamanho e compressão de caminho), então incluir
+ * uma aresta e consultar o componente de um usuário custam O(α(n)). Cada componente conta quantos usuários
+ * ganhou na janela atual, e cada usuário conta quantos remetentes e destinatários distintos teve nela
+ * (janelas fixas, recomeçadas quando vencem).
+ * <p>
+ * O grafo vive em duas gerações, cada uma em arrays primitivos dimensionados na criação ({@code max-nodes} usuários
+ * e {@code max-edges} arestas distintas), então a memória não cresce. Cada geração começa no início de uma janela,
+ * recebe as arestas de duas janelas seguidas e então é esvaziada e reaproveitada; elas se alternam, uma janela de
+ * defasagem entre si. As consultas usam a mais antiga, que sempre cobre a janela inteira anterior à consulta:
+ * um anel de contas que atravessa a virada de uma janela continua em um só componente, e usuários que sumiram
+ * há duas janelas deixam de ocupar espaço.
+ * <p>
+ * Se a geração consultada enche antes do prazo, a mais nova (só com a janela atual) passa a ser consultada e
+ * o histórico anterior se perde; se nem ela cabe, o grafo recomeça vazio. Cada troca antecipada conta em
+ * {@link #getResets()}: um valor que cresce indica {@code max-nodes}/{@code max-edges} pequenos para o volume, e anéis
+ * formados antes da troca deixam de ser vistos.
+ */
+@Slf4j
+@Component
+public class MuleGraph {
+
+    /** Grafo sem dados, para contextos que não acompanham o grafo (backtest, benchmarks). */
+    public static final MuleGraph DISABLED = new MuleGraph(false, 1, 1, Duration.ofHours(1));
+
+    private static final long MISSING = -1L;
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final boolean enabled;
+    private final long windowMillis;
+
+    // Estado abaixo protegido por lock
+    private Generation older;
+    private Generation newer;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder resets = new LongAdder();
+
+    @Autowired
+    public MuleGraph(
+            @Value("${validator.mule-graph.enabled:true}") boolean enabled,
+            @Value("${validator.mule-graph.max-nodes:250000}") int maxNodes,
+            @Value("${validator.mule-graph.max-edges:1000000}") int maxEdges,
+            @Value("${validator.mule-graph.window:PT1H}") Duration window) {
+        this.enabled = enabled;
+        this.windowMillis = window.toMillis();
+        this.older = new Generation(enabled ? maxNodes : 0, enabled ? maxEdges : 0);
+        this.newer = new Generation(enabled ? maxNodes : 0, enabled ? maxEdges : 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inclui a aresta remetente → destinatário da transação no instante informado.
+     */
+    public void record(Transaction transaction, long nowMillis) {
+        if (!enabled || Objects.isNull(transaction.getSender()) || Objects.isNull(transaction.getReceiver())) {
+            return;
+        }
+
+        Long senderId = transaction.getSender().getId();
+        Long receiverId = transaction.getReceiver().getId();
+        if (Objects.isNull(senderId) || Objects.isNull(receiverId)) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            rotate(nowMillis);
+            // A geração mais nova só tem arestas que a mais antiga também tem: se a mais antiga cabe, as duas cabem
+            if (!older.fits(senderId, receiverId)) {
+                overflow();
+                if (!older.fits(senderId, receiverId)) {
+                    older.clear(newer.start);
+                }
+            }
+
+            older.record(senderId, receiverId, nowMillis);
+            newer.record(senderId, receiverId, nowMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Situação do usuário e do seu componente no instante informado; {@link NodeStats#EMPTY} se ele não está no grafo.
+     */
+    public NodeStats stats(Long userId, long nowMillis) {
+        if (!enabled || Objects.isNull(userId)) {
+            return NodeStats.EMPTY;
+        }
+
+        lock.lock();
+        try {
+            rotate(nowMillis);
+            return older.stats(userId, nowMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Usuários na geração consultada.
+     */
+    public int nodeCount() {
+        lock.lock();
+        try {
+            return older.nodeCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Arestas na geração consultada.
+     */
+    public int edgeCount() {
+        lock.lock();
+        try {
+            return older.edges.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quantas vezes a geração consultada encheu antes do prazo e foi descartada.
+     */
+    public long getResets() {
+        return resets.sum();
+    }
+
+    /**
+     * Alterna as gerações quando começa uma nova janela: a mais antiga é esvaziada e passa a ser a mais nova.
+     * Depois de um intervalo sem transações maior que uma janela, as duas recomeçam vazias.
+     */
+    private void rotate(long nowMillis) {
+        long windowStart = Math.floorDiv(nowMillis, windowMillis) * windowMillis;
+        if (newer.start != NOT_STARTED && newer.start >= windowStart) {
+            return;
+        }
+
+        if (newer.start == windowStart - windowMillis) {
+            Generation expired = older;
+            older = newer;
+            newer = expired;
+            newer.clear(windowStart);
+        } else {
+            older.clear(windowStart - windowMillis);
+            newer.clear(windowStart);
+        }
+    }
+
+    private void overflow() {
+        log.warn("Mule graph generation full ({} users, {} edges) before its window ended; "
+                + "dropping the previous window's history", older.nodeCount, older.edges.size());
+        resets.increment();
+
+        Generation full = older;
+        older = newer;
+        newer = full;
+        newer.clear(older.start);
+    }
+
+    /**
+     * Uma geração do grafo: union-find, graus e crescimento dos componentes das arestas recebidas desde {@link #start}.
+     */
+    private final class Generation {
+
+        private final int maxNodes;
+        private final int maxEdges;
+
+        private final LongLongHashMap nodeIndex;
+        private final LongLongHashMap edges;
+        private final int[] parent;
+        private final int[] componentSize;
+        private final int[] componentGrowth;
+        private final long[] growthStart;
+        private final int[] inDegree;
+        private final int[] outDegree;
+        private final long[] degreeStart;
+        private int nodeCount;
+        private long start = NOT_STARTED;
+
+        private Generation(int maxNodes, int maxEdges) {
+            this.maxNodes = maxNodes;
+            this.maxEdges = maxEdges;
+
+            this.nodeIndex = new LongLongHashMap(maxNodes, MISSING);
+            this.edges = new LongLongHashMap(maxEdges, MISSING);
+            this.parent = new int[maxNodes];
+            this.componentSize = new int[maxNodes];
+            this.componentGrowth = new int[maxNodes];
+            this.growthStart = new long[maxNodes];
+            this.inDegree = new int[maxNodes];
+            this.outDegree = new int[maxNodes];
+            this.degreeStart = new long[maxNodes];
+        }
+
+        private boolean fits(long senderId, long receiverId) {
+            int newNodes = (nodeIndex.get(senderId) == MISSING ? 1 : 0) + (nodeIndex.get(receiverId) == MISSING ? 1 : 0);
+            return nodeCount + newNodes <= maxNodes && edges.size() < maxEdges;
+        }
+
+        private void record(long senderId, long receiverId, long nowMillis) {
+            int from = indexOf(senderId, nowMillis);
+            int to = indexOf(receiverId, nowMillis);
+
+            long lastSeen = edges.put(((long) from << 32) | to, nowMillis);
+            rollDegreeWindow(from, nowMillis);
+            rollDegreeWindow(to, nowMillis);
+            // Conta a contraparte uma vez por janela
+            if (lastSeen < degreeStart[from]) {
+                outDegree[from]++;
+            }
+            if (lastSeen < degreeStart[to]) {
+                inDegree[to]++;
+            }
+
+            union(from, to, nowMillis);
+        }
+
+        private NodeStats stats(long userId, long nowMillis) {
+            long index = nodeIndex.get(userId);
+            if (index == MISSING) {
+                return NodeStats.EMPTY;
+            }
+
+            int node = (int) index;
+            int root = find(node);
+            boolean degreesCurrent = nowMillis - degreeStart[node] < windowMillis;
+            boolean growthCurrent = nowMillis - growthStart[root] < windowMillis;
+
+            return new NodeStats(
+                    componentSize[root],
+                    growthCurrent ? componentGrowth[root] : 0,
+                    degreesCurrent ? inDegree[node] : 0,
+                    degreesCurrent ? outDegree[node] : 0);
+        }
+
+        private void clear(long start) {
+            nodeIndex.clear();
+            edges.clear();
+            nodeCount = 0;
+            this.start = start;
+        }
+
+        private int indexOf(long userId, long nowMillis) {
+            long index = nodeIndex.get(userId);
+            if (index != MISSING) {
+                return (int) index;
+            }
+
+            int node = nodeCount++;
+            nodeIndex.put(userId, node);
+            parent[node] = node;
+            componentSize[node] = 1;
+            componentGrowth[node] = 0;
+            growthStart[node] = nowMillis;
+            inDegree[node] = 0;
+            outDegree[node] = 0;
+            degreeStart[node] = nowMillis;
+            return node;
+        }
+
+        private int find(int node) {
+            // Compressão por divisão: cada nó visitado passa a apontar para o avô
+            while (parent[node] != node) {
+                parent[node] = parent[parent[node]];
+                node = parent[node];
+            }
+            return node;
+        }
+
+        private void union(int a, int b, long nowMillis) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return;
+            }
+
+            if (componentSize[rootA] < componentSize[rootB]) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+
+            // O componente maior absorve o menor; o crescimento é o número de usuários que ele ganhou
+            if (nowMillis - growthStart[rootA] >= windowMillis) {
+                componentGrowth[rootA] = 0;
+                growthStart[rootA] = nowMillis;
+            }
+            parent[rootB] = rootA;
+            componentSize[rootA] += componentSize[rootB];
+            componentGrowth[rootA] += componentSize[rootB];
+        }
+
+        private void rollDegreeWindow(int node, long nowMillis) {
+            if (nowMillis - degreeStart[node] >= windowMillis) {
+                inDegree[node] = 0;
+                outDegree[node] = 0;
+                degreeStart[node] = nowMillis;
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.validator.service.graph;
+
+/**
+ * Quando o destinatário é tratado como possível conta de passagem: o seu componente ganhou pelo menos
+ * {@code minComponentGrowth} usuários na janela e ele recebeu de {@code minInDegree} remetentes distintos
+ * e repassou para {@code minOutDegree} destinatários distintos. Exigir saída separa o repasse de um lojista,
+ * que só recebe.
+ */
+public record MuleGraphLimits(int minComponentGrowth, int minInDegree, int minOutDegree) {
+
+    public static final MuleGraphLimits DEFAULTS = new MuleGraphLimits(20, 3, 2);
+}
@@ -0,0 +1,10 @@
+package com.validator.service.graph;
+
+/**
+ * Situação de um usuário no {@link MuleGraph}: tamanho do seu componente, quantos usuários o componente ganhou
+ * na janela atual e quantos remetentes (entrada) e destinatários (saída) distintos o usuário teve nela.
+ */
+public record NodeStats(int componentSize, int componentGrowth, int inDegree, int outDegree) {
+
+    public static final NodeStats EMPTY = new NodeStats(0, 0, 0, 0);
+}
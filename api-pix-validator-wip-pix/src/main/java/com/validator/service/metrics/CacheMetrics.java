@@ -0,0 +1,33 @@
+package com.validator.service.metrics;
+
+import com.validator.repository.cache.BlackListIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expõe os contadores do índice da blacklist no registro de métricas.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheMetrics implements MeterBinder {
+
+    private final BlackListIndex blackListIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("pix.blacklist.lookups", blackListIndex, BlackListIndex::getHits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("pix.blacklist.lookups", blackListIndex, BlackListIndex::getMisses)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("pix.blacklist.evictions", blackListIndex, BlackListIndex::getEvictions)
+                .register(registry);
+        Gauge.builder("pix.blacklist.size", blackListIndex, BlackListIndex::size)
+                .register(registry);
+    }
+}
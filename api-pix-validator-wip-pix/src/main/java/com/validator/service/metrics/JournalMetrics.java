@@ -0,0 +1,24 @@
+package com.validator.service.metrics;
+
+import com.validator.repository.journal.DecisionJournal;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expõe quantas transações do diário de decisões ainda não chegaram ao banco.
+ */
+@Component
+@RequiredArgsConstructor
+public class JournalMetrics implements MeterBinder {
+
+    private final DecisionJournal decisionJournal;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("pix.journal.pending", decisionJournal, DecisionJournal::pendingCount)
+                .register(registry);
+    }
+}
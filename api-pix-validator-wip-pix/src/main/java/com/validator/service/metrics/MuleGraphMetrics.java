@@ -0,0 +1,31 @@
+package com.validator.service.metrics;
+
+import com.validator.service.graph.MuleGraph;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expõe o tamanho do grafo de remetentes e destinatários e quantas vezes ele encheu antes do prazo.
+ * {@code pix.graph.resets} deve ficar parado: cada incremento descarta o histórico anterior à janela atual, e os
+ * anéis formados antes dele deixam de ser vistos. Vale um alerta sobre a taxa.
+ */
+@Component
+@RequiredArgsConstructor
+public class MuleGraphMetrics implements MeterBinder {
+
+    private final MuleGraph muleGraph;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("pix.graph.nodes", muleGraph, MuleGraph::nodeCount)
+                .register(registry);
+        Gauge.builder("pix.graph.edges", muleGraph, MuleGraph::edgeCount)
+                .register(registry);
+        FunctionCounter.builder("pix.graph.resets", muleGraph, MuleGraph::getResets)
+                .register(registry);
+    }
+}
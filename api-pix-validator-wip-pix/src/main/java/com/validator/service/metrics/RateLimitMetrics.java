@@ -0,0 +1,27 @@
+package com.validator.service.metrics;
+
+import com.validator.service.ratelimit.SenderRateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expõe as rejeições e o número de remetentes acompanhados pelo limite de taxa.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitMetrics implements MeterBinder {
+
+    private final SenderRateLimiter senderRateLimiter;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("pix.ratelimit.rejected", senderRateLimiter, SenderRateLimiter::getRejected)
+                .register(registry);
+        Gauge.builder("pix.ratelimit.senders", senderRateLimiter, SenderRateLimiter::size)
+                .register(registry);
+    }
+}
@@ -0,0 +1,117 @@
+package com.validator.service.metrics;
+
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Métricas da validação: latência por etapa, decisões por status/motivo e validações em andamento.
+ * Todos os medidores são registrados na criação, então o caminho quente só lê o relógio e incrementa.
+ * Os histogramas de percentis são habilitados em {@code management.metrics.distribution.*}.
+ */
+@Component
+public class ValidationMetrics {
+
+    public static final String STAGE_TIMER = "pix.validation.stage";
+    public static final String DECISIONS = "pix.validation.decisions";
+    public static final String IN_FLIGHT = "pix.validation.in_flight";
+
+    private static final String NO_REASON = "NONE";
+
+    public enum Stage {
+        USER_RESOLUTION, HISTORY, RULES, PERSIST
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<TransactionStatus, Map<FraudReason, Counter>> decisions = new EnumMap<>(TransactionStatus.class);
+    private final Map<TransactionStatus, Counter> decisionsWithoutReason = new EnumMap<>(TransactionStatus.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ValidationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, timer(STAGE_TIMER, "stage", stage.name().toLowerCase()));
+        }
+
+        for (TransactionStatus status : TransactionStatus.values()) {
+            Map<FraudReason, Counter> byReason = new EnumMap<>(FraudReason.class);
+            for (FraudReason reason : FraudReason.values()) {
+                byReason.put(reason, decisionCounter(status, reason.getCode()));
+            }
+            decisions.put(status, byReason);
+            decisionsWithoutReason.put(status, decisionCounter(status, NO_REASON));
+        }
+
+        Gauge.builder(IN_FLIGHT, inFlight, AtomicInteger::get)
+                .description("Validações em andamento")
+                .register(registry);
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void recordStage(Stage stage, long startNanos) {
+        stageTimers.get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDecision(Transaction transaction) {
+        if (Objects.isNull(transaction.getStatus())) {
+            return;
+        }
+
+        Counter counter = Objects.isNull(transaction.getFraudReason())
+                ? decisionsWithoutReason.get(transaction.getStatus())
+                : decisions.get(transaction.getStatus()).get(transaction.getFraudReason());
+        counter.increment();
+    }
+
+    public void validationStarted() {
+        validationStarted(1);
+    }
+
+    /**
+     * Várias validações que começam juntas (um lote).
+     */
+    public void validationStarted(int count) {
+        inFlight.addAndGet(count);
+    }
+
+    public void validationFinished() {
+        validationFinished(1);
+    }
+
+    public void validationFinished(int count) {
+        inFlight.addAndGet(-count);
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    private Timer timer(String name, String tag, String value) {
+        return Timer.builder(name)
+                .tag(tag, value)
+                .register(registry);
+    }
+
+    private Counter decisionCounter(TransactionStatus status, String reason) {
+        return Counter.builder(DECISIONS)
+                .tag("status", status.name())
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
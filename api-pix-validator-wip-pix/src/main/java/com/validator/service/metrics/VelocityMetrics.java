@@ -0,0 +1,30 @@
+package com.validator.service.metrics;
+
+import com.validator.service.velocity.VelocityTracker;
+import com.validator.service.velocity.VelocityTracker.Side;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Expõe quantas chaves de cada lado têm contadores exatos de velocidade.
+ */
+@Component
+@RequiredArgsConstructor
+public class VelocityMetrics implements MeterBinder {
+
+    private final VelocityTracker velocityTracker;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Side side : Side.values()) {
+            Gauge.builder("pix.velocity.hot_keys", velocityTracker, tracker -> tracker.hotKeyCount(side))
+                    .tag("side", side.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.validator.service.ratelimit;
+
+/**
+ * Limite de um tipo de chave PIX: até {@code burst} transações seguidas, repostas a {@code refillPerSecond} por segundo.
+ */
+public record RateLimit(int burst, double refillPerSecond) {
+
+    public RateLimit {
+        if (burst < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit needs burst >= 1 and refillPerSecond > 0");
+        }
+    }
+
+    long intervalNanos() {
+        return Math.max(1L, Math.round(1_000_000_000L / refillPerSecond));
+    }
+}
@@ -0,0 +1,71 @@
+package com.validator.service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.validator.controller.requests.UserRequest;
+import com.validator.model.enums.PixType;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite de transações por remetente, aplicado antes de resolver usuários ou consultar o banco.
+ * Cada chave PIX de remetente tem um {@link TokenBucket} com o limite do seu tipo de chave; os baldes ficam
+ * em um cache limitado por tamanho e descartados após um período sem uso (um balde parado já estaria cheio).
+ * <p>
+ * Requisições sem remetente, chave ou tipo passam direto: a validação seguinte é que as rejeita.
+ */
+public class SenderRateLimiter {
+
+    private final boolean enabled;
+    private final Map<PixType, RateLimit> limits;
+    private final Cache<String, TokenBucket> buckets;
+    private final LongSupplier nanoClock;
+    private final LongAdder rejected = new LongAdder();
+
+    public SenderRateLimiter(boolean enabled, long maxSenders, Duration idleTimeout, Map<PixType, RateLimit> limits) {
+        this(enabled, maxSenders, idleTimeout, limits, System::nanoTime);
+    }
+
+    SenderRateLimiter(boolean enabled, long maxSenders, Duration idleTimeout, Map<PixType, RateLimit> limits,
+                      LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.limits = new EnumMap<>(limits);
+        this.buckets = Caffeine.newBuilder().maximumSize(maxSenders).expireAfterAccess(idleTimeout).build();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Consome uma ficha do remetente. Devolve 0 se a transação pode seguir, ou quantos nanossegundos
+     * faltam para a próxima ficha.
+     */
+    public long tryAcquire(UserRequest sender) {
+        if (!enabled || Objects.isNull(sender) || Objects.isNull(sender.getPixKey())) {
+            return 0;
+        }
+
+        RateLimit limit = Objects.isNull(sender.getPixKeyType()) ? null : limits.get(sender.getPixKeyType());
+        if (Objects.isNull(limit)) {
+            return 0;
+        }
+
+        long now = nanoClock.getAsLong();
+        long waitNanos = buckets.get(sender.getPixKey(), key -> new TokenBucket(limit, now)).tryAcquire(now);
+        if (waitNanos > 0) {
+            rejected.increment();
+        }
+        return waitNanos;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,38 @@
+package com.validator.service.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas guardado em um único long: o instante teórico em que o balde volta a ficar cheio (GCRA).
+ * Cada ficha consumida empurra esse instante um intervalo à frente; a requisição passa enquanto ele não
+ * ultrapassar o agora em mais de {@code burst} intervalos. A atualização é um compareAndSet, sem locks.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(RateLimit limit, long nowNanos) {
+        this.intervalNanos = limit.intervalNanos();
+        this.capacityNanos = intervalNanos * limit.burst();
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Consome uma ficha. Devolve 0 se havia ficha, ou quantos nanossegundos faltam para a próxima.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long excess = next - nowNanos - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.validator.service.validators;
+
+import com.validator.model.enums.PixType;
+
+import java.util.Objects;
+
+/**
+ * Valida a chave PIX conforme o tipo e devolve a sua forma canônica, para que variações de formatação da mesma chave
+ * caiam no mesmo usuário (e nas mesmas entradas de cache e de índice):
+ * <ul>
+ *     <li>CPF: 11 dígitos com dígitos verificadores corretos; pontos, hífen e espaços são removidos.</li>
+ *     <li>Telefone: E.164 ({@code +} e até 15 dígitos). Sem {@code +}, 10 ou 11 dígitos são tratados como número
+ *     brasileiro com DDD e ganham {@code +55}.</li>
+ *     <li>E-mail: até 77 caracteres, um {@code @} e domínio com ponto; tudo em minúsculas.</li>
+ *     <li>Aleatória: UUID em hexadecimal minúsculo com hífens (aceita também os 32 dígitos sem hífens).</li>
+ * </ul>
+ * A leitura é feita caractere a caractere sobre o {@link CharSequence}, sem expressões regulares nem strings
+ * intermediárias. Uma chave que já está na forma canônica é devolvida como veio, sem alocar nada.
+ */
+public final class PixKeyNormalizer {
+
+    private static final int MAX_EMAIL_LENGTH = 77;
+    private static final int MAX_PHONE_DIGITS = 15;
+    private static final int UUID_LENGTH = 36;
+
+    private PixKeyNormalizer() {
+    }
+
+    /**
+     * @throws InvalidPixKeyException se o tipo ou a chave faltam, ou a chave não é válida para o tipo
+     */
+    public static String normalize(PixType type, CharSequence key) {
+        if (Objects.isNull(type)) {
+            throw new InvalidPixKeyException("PIX key type is required");
+        }
+        if (Objects.isNull(key)) {
+            throw new InvalidPixKeyException("PIX key is required");
+        }
+
+        // Espaços nas pontas são tolerados em qualquer tipo
+        int start = 0;
+        int end = key.length();
+        while (start < end && key.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && key.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw new InvalidPixKeyException("PIX key is required");
+        }
+
+        return switch (type) {
+            case CPF -> cpf(key, start, end);
+            case PHONE -> phone(key, start, end);
+            case EMAIL -> email(key, start, end);
+            case RANDOM -> random(key, start, end);
+        };
+    }
+
+    private static String cpf(CharSequence key, int start, int end) {
+        boolean canonical = start == 0 && end == key.length();
+        int digits = 0;
+        int firstSum = 0;
+        int secondSum = 0;
+        int firstCheck = 0;
+        int secondCheck = 0;
+        boolean allSame = true;
+        char firstDigit = 0;
+
+        for (int i = start; i < end; i++) {
+            char c = key.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits == 11) {
+                    throw invalid(PixType.CPF, "more than 11 digits");
+                }
+                int d = c - '0';
+                if (digits < 9) {
+                    firstSum += d * (10 - digits);
+                } else if (digits == 9) {
+                    firstCheck = d;
+                } else {
+                    secondCheck = d;
+                }
+                if (digits < 10) {
+                    secondSum += d * (11 - digits);
+                }
+                if (digits == 0) {
+                    firstDigit = c;
+                } else if (c != firstDigit) {
+                    allSame = false;
+                }
+                digits++;
+            } else if (c == '.' || c == '-' || c == ' ') {
+                canonical = false;
+            } else {
+                throw invalid(PixType.CPF, "unexpected character");
+            }
+        }
+
+        if (digits != 11) {
+            throw invalid(PixType.CPF, "expected 11 digits");
+        }
+        // Sequências repetidas passam no cálculo, mas não são CPFs emitidos
+        if (allSame) {
+            throw invalid(PixType.CPF, "repeated digits");
+        }
+        if (checkDigit(firstSum) != firstCheck || checkDigit(secondSum) != secondCheck) {
+            throw invalid(PixType.CPF, "check digits do not match");
+        }
+
+        if (canonical && key instanceof String string) {
+            return string;
+        }
+
+        char[] canonicalKey = new char[11];
+        int position = 0;
+        for (int i = start; i < end; i++) {
+            char c = key.charAt(i);
+            if (c >= '0' && c <= '9') {
+                canonicalKey[position++] = c;
+            }
+        }
+        return new String(canonicalKey);
+    }
+
+    private static int checkDigit(int sum) {
+        int rest = (sum * 10) % 11;
+        return rest == 10 ? 0 : rest;
+    }
+
+    private static String phone(CharSequence key, int start, int end) {
+        boolean plus = key.charAt(start) == '+';
+        boolean canonical = plus && start == 0 && end == key.length();
+        int digits = 0;
+
+        for (int i = plus ? start + 1 : start; i < end; i++) {
+            char c = key.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits == 0 && plus && c == '0') {
+                    throw invalid(PixType.PHONE, "country code cannot start with 0");
+                }
+                digits++;
+            } else if (c == ' ' || c == '-' || c == '(' || c == ')' || c == '.') {
+                canonical = false;
+            } else {
+                throw invalid(PixType.PHONE, "unexpected character");
+            }
+        }
+
+        // Sem +, só o formato nacional brasileiro (DDD + número) é aceito
+        boolean national = !plus && (digits == 10 || digits == 11);
+        if (plus ? digits < 8 || digits > MAX_PHONE_DIGITS : !national) {
+            throw invalid(PixType.PHONE, "expected E.164 format (+ and up to 15 digits)");
+        }
+
+        if (canonical && key instanceof String string) {
+            return string;
+        }
+
+        char[] canonicalKey = new char[1 + (national ? 2 : 0) + digits];
+        int position = 0;
+        canonicalKey[position++] = '+';
+        if (national) {
+            canonicalKey[position++] = '5';
+            canonicalKey[position++] = '5';
+        }
+        for (int i = start; i < end; i++) {
+            char c = key.charAt(i);
+            if (c >= '0' && c <= '9') {
+                canonicalKey[position++] = c;
+            }
+        }
+        return new String(canonicalKey);
+    }
+
+    private static String email(CharSequence key, int start, int end) {
+        int length = end - start;
+        if (length > MAX_EMAIL_LENGTH) {
+            throw invalid(PixType.EMAIL, "longer than " + MAX_EMAIL_LENGTH + " characters");
+        }
+
+        boolean canonical = start == 0 && end == key.length();
+        int at = -1;
+        int lastDot = -1;
+        char previous = 0;
+
+        for (int i = start; i < end; i++) {
+            char c = key.charAt(i);
+            if (c <= ' ' || c >= 127 || c == '(' || c == ')' || c == ',' || c == ':' || c == ';'
+                    || c == '<' || c == '>' || c == '[' || c == ']' || c == '\\' || c == '"') {
+                throw invalid(PixType.EMAIL, "unexpected character");
+            }
+            if (c == '@') {
+                if (at >= 0) {
+                    throw invalid(PixType.EMAIL, "more than one @");
+                }
+                at = i;
+            } else if (c == '.') {
+                if (previous == '.' || previous == '@' || i == start) {
+                    throw invalid(PixType.EMAIL, "misplaced dot");
+                }
+                lastDot = i;
+            } else if (c >= 'A' && c <= 'Z') {
+                canonical = false;
+            }
+            previous = c;
+        }
+
+        if (at <= start || at == end - 1) {
+            throw invalid(PixType.EMAIL, "expected local part and domain around @");
+        }
+        if (lastDot < at || lastDot == end - 1) {
+            throw invalid(PixType.EMAIL, "domain must contain a dot");
+        }
+        if (key.charAt(at - 1) == '.') {
+            throw invalid(PixType.EMAIL, "misplaced dot");
+        }
+
+        if (canonical && key instanceof String string) {
+            return string;
+        }
+
+        char[] canonicalKey = new char[length];
+        for (int i = start; i < end; i++) {
+            char c = key.charAt(i);
+            canonicalKey[i - start] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(canonicalKey);
+    }
+
+    private static String random(CharSequence key, int start, int end) {
+        int length = end - start;
+        boolean hyphenated = length == UUID_LENGTH;
+        if (!hyphenated && length != 32) {
+            throw invalid(PixType.RANDOM, "expected a UUID");
+        }
+
+        boolean canonical = hyphenated && start == 0 && end == key.length();
+        for (int i = start; i < end; i++) {
+            char c = key.charAt(i);
+            int offset = i - start;
+            if (hyphenated && (offset == 8 || offset == 13 || offset == 18 || offset == 23)) {
+                if (c != '-') {
+                    throw invalid(PixType.RANDOM, "expected a UUID");
+                }
+            } else if (c >= 'A' && c <= 'F') {
+                canonical = false;
+            } else if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+                throw invalid(PixType.RANDOM, "expected a UUID");
+            }
+        }
+
+        if (canonical && key instanceof String string) {
+            return string;
+        }
+
+        char[] canonicalKey = new char[UUID_LENGTH];
+        int position = 0;
+        for (int i = start; i < end; i++) {
+            char c = key.charAt(i);
+            if (c == '-') {
+                continue;
+            }
+            if (position == 8 || position == 13 || position == 18 || position == 23) {
+                canonicalKey[position++] = '-';
+            }
+            canonicalKey[position++] = c >= 'A' && c <= 'F' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(canonicalKey);
+    }
+
+    private static InvalidPixKeyException invalid(PixType type, String reason) {
+        return new InvalidPixKeyException("Invalid " + type + " PIX key: " + reason);
+    }
+}
@@ -0,0 +1,141 @@
+package com.validator.service.validators;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Executores de uma thread só, um por fatia de destinatários (estilo ator). Todas as decisões de um mesmo destinatário
+ * passam pela mesma thread, uma de cada vez, então a leitura da janela, as regras e o registro da decisão na janela
+ * não se intercalam com os de outra transação para o mesmo destinatário, sem locks nem SELECT FOR UPDATE.
+ * Destinatários diferentes se espalham pelas fatias e usam todos os núcleos.
+ * <p>
+ * As tarefas só mexem em memória: uma consulta lenta dentro de uma fatia seguraria todos os destinatários dela,
+ * então o que depende do banco é lido antes de a tarefa ser enviada.
+ * <p>
+ * Desligado ({@code validator.sharding.enabled=false}), as tarefas rodam na própria thread que as chama.
+ */
+@Component
+public class ReceiverShardExecutor {
+
+    private final ExecutorService[] shards;
+    private final Duration timeout;
+
+    public ReceiverShardExecutor(
+            @Value("${validator.sharding.enabled:true}") boolean enabled,
+            @Value("${validator.sharding.shards:0}") int shards,
+            @Value("${validator.sharding.timeout:PT2S}") Duration timeout) {
+        int count = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        this.shards = new ExecutorService[enabled ? count : 0];
+        this.timeout = timeout;
+
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i] = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("receiver-shard-" + i).daemon().factory());
+        }
+    }
+
+    /**
+     * Executa a tarefa na fatia do destinatário e espera o resultado.
+     */
+    public <T> T call(Long receiverId, Supplier<T> task) {
+        if (shards.length == 0 || Objects.isNull(receiverId)) {
+            return task.get();
+        }
+
+        return await(shards[shardOf(receiverId)].submit(task::get));
+    }
+
+    /**
+     * Executa a ação para cada item na fatia do seu destinatário. Itens do mesmo destinatário são processados
+     * na ordem da lista; fatias diferentes trabalham em paralelo.
+     */
+    public <T> void forEach(List<T> items, Function<T, Long> receiverIdOf, Consumer<T> action) {
+        if (shards.length == 0) {
+            items.forEach(action);
+            return;
+        }
+
+        Map<Integer, List<T>> byShard = new LinkedHashMap<>();
+        for (T item : items) {
+            Long receiverId = receiverIdOf.apply(item);
+            int shard = Objects.isNull(receiverId) ? 0 : shardOf(receiverId);
+            byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(item);
+        }
+
+        List<Future<?>> futures = new ArrayList<>(byShard.size());
+        byShard.forEach((shard, shardItems) -> futures.add(shards[shard].submit(() -> shardItems.forEach(action))));
+
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                await(future);
+            } catch (RuntimeException e) {
+                failure = Objects.isNull(failure) ? e : failure;
+            }
+        }
+        if (Objects.nonNull(failure)) {
+            throw failure;
+        }
+    }
+
+    int shardOf(long receiverId) {
+        // Espalha ids sequenciais (blocos da sequência pooled) uniformemente entre as fatias
+        long mixed = receiverId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(mixed ^ (mixed >>> 32), (long) shards.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    /**
+     * Espera a tarefa até o prazo. Se ela ainda não começou, é descartada. Se já começou, ela termina (uma decisão
+     * interrompida no meio deixaria a janela do destinatário pela metade), mas a espera pelo fim também tem prazo:
+     * a tarefa só mexe em memória, e uma que passa de um segundo prazo indica uma fatia travada.
+     */
+    private <T> T await(Future<T> future) {
+        try {
+            try {
+                return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (future.cancel(false)) {
+                    throw new ValidationTimeoutException("Receiver shard did not pick up the validation in time");
+                }
+                return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            throw new ValidationTimeoutException("Receiver shard did not finish the validation in time");
+        } catch (CancellationException e) {
+            throw new ValidationTimeoutException("Receiver shard did not pick up the validation in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationTimeoutException("Validation was interrupted while waiting for its receiver shard");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
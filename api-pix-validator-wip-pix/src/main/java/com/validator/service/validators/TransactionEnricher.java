@@ -0,0 +1,156 @@
+package com.validator.service.validators;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.repository.cache.ReceiverWindow;
+import com.validator.repository.cache.ReceiverWindowCache;
+import com.validator.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Resolve remetente e destinatário e prepara o histórico do destinatário antes das regras.
+ * Chaves ainda desconhecidas viram usuários provisórios ({@link UserService#resolveUser}), gravados só com a transação.
+ * <p>
+ * No modo concorrente, as duas resoluções rodam em paralelo em threads virtuais e o histórico é
+ * buscado assim que o destinatário é conhecido, tudo sob um mesmo prazo. Se o prazo vencer, uma resolução
+ * falhar ou a decisão sair sem o histórico, as buscas pendentes são canceladas com interrupção da thread:
+ * uma consulta bloqueada no socket é abortada e a conexão volta ao pool (descartada, se ficou inutilizável).
+ */
+@Component
+public class TransactionEnricher {
+
+    private final UserService userService;
+    private final ReceiverWindowCache receiverWindowCache;
+    private final ExecutorService executor;
+    private final boolean concurrent;
+    private final Duration timeout;
+
+    public TransactionEnricher(
+            UserService userService,
+            ReceiverWindowCache receiverWindowCache,
+            ExecutorService validationExecutor,
+            @Value("${validator.enrichment.concurrent:true}") boolean concurrent,
+            @Value("${validator.enrichment.timeout:PT2S}") Duration timeout) {
+        this.userService = userService;
+        this.receiverWindowCache = receiverWindowCache;
+        this.executor = validationExecutor;
+        this.concurrent = concurrent;
+        this.timeout = timeout;
+    }
+
+    public record Enrichment(Supplier<ReceiverWindow> receiverWindow, Runnable cancel) {
+    }
+
+    /**
+     * Substitui remetente e destinatário da transação pelos usuários resolvidos.
+     */
+    public Enrichment enrich(Transaction transaction) {
+        if (!concurrent) {
+            transaction.setSender(userService.resolveUser(transaction.getSender()));
+            transaction.setReceiver(userService.resolveUser(transaction.getReceiver()));
+            return new Enrichment(() -> receiverWindow(transaction.getReceiver()), () -> { });
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        // A busca da janela roda na mesma tarefa do destinatário: cancel(true) interrompe a thread virtual que a executa
+        CompletableFuture<User> receiver = new CompletableFuture<>();
+        Future<User> sender = executor.submit(() -> userService.resolveUser(transaction.getSender()));
+        Future<ReceiverWindow> window = executor.submit(() -> {
+            User resolved;
+            try {
+                resolved = userService.resolveUser(transaction.getReceiver());
+            } catch (RuntimeException e) {
+                receiver.completeExceptionally(e);
+                throw e;
+            }
+            receiver.complete(resolved);
+            return receiverWindow(resolved);
+        });
+
+        try {
+            transaction.setSender(await(sender, deadline));
+            transaction.setReceiver(await(receiver, deadline));
+        } catch (RuntimeException e) {
+            Stream.of(sender, window).forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        return new Enrichment(() -> await(window, deadline), () -> window.cancel(true));
+    }
+
+    /**
+     * Lê as janelas dos destinatários de um lote, uma vez por destinatário (em paralelo no modo concorrente)
+     * e sob o mesmo prazo do enriquecimento.
+     */
+    public Map<Long, ReceiverWindow> receiverWindows(List<User> receivers) {
+        Map<Long, User> distinct = new LinkedHashMap<>();
+        receivers.stream()
+                .filter(receiver -> Objects.nonNull(receiver.getId()))
+                .forEach(receiver -> distinct.putIfAbsent(receiver.getId(), receiver));
+
+        Map<Long, ReceiverWindow> windows = new HashMap<>();
+        if (!concurrent) {
+            distinct.forEach((receiverId, receiver) -> windows.put(receiverId, receiverWindow(receiver)));
+            return windows;
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Map<Long, Future<ReceiverWindow>> futures = new LinkedHashMap<>();
+        distinct.forEach((receiverId, receiver) -> futures.put(receiverId, executor.submit(() -> receiverWindow(receiver))));
+
+        try {
+            futures.forEach((receiverId, future) -> windows.put(receiverId, await(future, deadline)));
+        } catch (RuntimeException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        return windows;
+    }
+
+    /**
+     * Um destinatário provisório ainda não tem linhas no banco: a janela começa vazia, sem consultas.
+     * A de um destinatário gravado é lida sem entrar no cache; quem a usa na decisão é que a guarda
+     * ({@link ReceiverWindowCache#install}).
+     */
+    private ReceiverWindow receiverWindow(User receiver) {
+        return userService.isPlaceholder(receiver)
+                ? receiverWindowCache.getNew(receiver.getId())
+                : receiverWindowCache.fetch(receiver.getId());
+    }
+
+    private static <T> T await(Future<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ValidationTimeoutException("Validation enrichment exceeded its deadline");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ValidationTimeoutException("Validation enrichment was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,159 +1,331 @@
 package com.validator.service.validators;
 
-import com.validator.model.BlackList;
 import com.validator.model.Transaction;
 import com.validator.model.User;
 import com.validator.model.enums.FraudReason;
 import com.validator.model.enums.TransactionStatus;
-import com.validator.repository.BlackListRepositoryImpl;
-import com.validator.repository.TransactionRepositoryImpl;
-import com.validator.repository.UserRepositoryImpl;
-import com.validator.service.UserService;
-import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.BooleanUtils;
+import com.validator.repository.cache.ReceiverWindow;
+import com.validator.repository.cache.ReceiverWindowCache;
+import com.validator.service.BlackListService;
+import com.validator.service.graph.MuleGraph;
+import com.validator.service.metrics.ValidationMetrics;
+import com.validator.service.metrics.ValidationMetrics.Stage;
+import com.validator.service.validators.TransactionEnricher.Enrichment;
+import com.validator.service.validators.rules.FraudRule;
+import com.validator.service.validators.rules.ValidationContext;
+import com.validator.service.validators.rules.ValidationThresholds;
+import com.validator.service.velocity.VelocityTracker;
+import com.validator.service.velocity.VelocityTracker.Side;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Component
-@RequiredArgsConstructor
 public class TransactionValidator {
 
-    private static final List<String> DANGEROUS_TERMS = List.of("golpe", "fraude", "fake", "urgente");
-
-    private final TransactionRepositoryImpl transactionRepository;
-    private final BlackListRepositoryImpl blackListRepository;
-    private final UserService userService;
+    private final TransactionEnricher enricher;
+    private final ReceiverShardExecutor shardExecutor;
+    private final BlackListService blackListService;
+    private final ReceiverWindowCache receiverWindowCache;
+    private final VelocityTracker velocityTracker;
+    private final MuleGraph muleGraph;
+    private final ValidationMetrics metrics;
+    private final ValidationThresholds thresholds;
+    private final List<FraudRule> rules;
+    private final Set<FraudReason> blacklistingReasons = EnumSet.noneOf(FraudReason.class);
+
+    public TransactionValidator(
+            TransactionEnricher enricher,
+            ReceiverShardExecutor shardExecutor,
+            BlackListService blackListService,
+            ReceiverWindowCache receiverWindowCache,
+            VelocityTracker velocityTracker,
+            MuleGraph muleGraph,
+            ValidationMetrics metrics,
+            ValidationThresholds thresholds,
+            List<FraudRule> rules) {
+        this.enricher = enricher;
+        this.shardExecutor = shardExecutor;
+        this.blackListService = blackListService;
+        this.receiverWindowCache = receiverWindowCache;
+        this.velocityTracker = velocityTracker;
+        this.muleGraph = muleGraph;
+        this.metrics = metrics;
+        this.thresholds = thresholds;
+        this.rules = rules.stream()
+                .sorted(Comparator.comparing(FraudRule::costClass).thenComparingInt(FraudRule::order))
+                .toList();
+        this.rules.stream()
+                .filter(FraudRule::blacklistsReceiver)
+                .forEach(rule -> blacklistingReasons.add(rule.reason()));
+    }
 
 
+    /**
+     * Resolve os usuários, decide a transação e a registra na janela do destinatário.
+     * A decisão e o registro rodam na fatia do destinatário ({@link ReceiverShardExecutor}): duas transações
+     * simultâneas para o mesmo destinatário não leem a mesma janela antes de uma delas ser registrada.
+     * Se a gravação falhar depois, quem chamou deve descartar a janela ({@link ReceiverWindowCache#evict}).
+     * <p>
+     * Na fatia só rodam a decisão e as atualizações em memória; ela nunca espera o banco. A primeira tentativa usa a
+     * janela que já estiver em memória. Se uma regra precisar da janela e ela não estiver, a tentativa é abandonada sem
+     * efeitos, a janela buscada pelo {@link TransactionEnricher} é esperada fora da fatia e a decisão roda de novo.
+     * A gravação na blacklist também fica para quem chamou, depois de gravar a transação ({@link #persistBlacklisting}).
+     */
     public Transaction validate(Transaction transaction) {
-        transaction.setSender(userService.getOrCreateUser(transaction.getSender()));
-        transaction.setReceiver(userService.getOrCreateUser(transaction.getReceiver()));
-
-        if (runAndCheck(() -> validateUserBlacklist(transaction), transaction)) return transaction;
-        if (runAndCheck(() -> validateTransactionValue(transaction), transaction)) return transaction;
-
-        List<Transaction> lastTransactions = transactionRepository.findReceiverLast15Transactions(transaction.getReceiver().getId());
-
-        if (runAndCheck(() -> validateHighFrequency(transaction, lastTransactions), transaction)) return transaction;
-        if (runAndCheck(() -> validateOutOfAverageValue(transaction, lastTransactions), transaction)) return transaction;
-        if (runAndCheck(() -> validateDangerousDescription(transaction), transaction)) return transaction;
-        if (runAndCheck(() -> validateDangerousKeys(transaction), transaction)) return transaction;
-
-        transaction.setStatus(TransactionStatus.SUCCESS);
-        transaction.setFraudReason(null);
+        long start = metrics.start();
+        Enrichment enrichment = enricher.enrich(transaction);
+        metrics.recordStage(Stage.USER_RESOLUTION, start);
+
+        Long receiverId = transaction.getReceiver().getId();
+        try {
+            boolean decided = shardExecutor.call(receiverId, () -> decideAndRecord(transaction, null));
+            if (!decided) {
+                ReceiverWindow window = loadReceiverWindow(enrichment.receiverWindow());
+                shardExecutor.call(receiverId, () -> decideAndRecord(transaction, window));
+            }
+        } catch (ValidationTimeoutException e) {
+            // A tarefa pode terminar depois do prazo e registrar na janela uma transação que não será gravada
+            receiverWindowCache.evict(receiverId);
+            throw e;
+        } finally {
+            // Sem efeito se o histórico já foi usado; interrompe a busca se a decisão não precisou dele
+            enrichment.cancel().run();
+        }
 
         return transaction;
     }
 
+    /**
+     * Decide e registra na janela um lote de transações já resolvidas, cada uma na fatia do seu destinatário.
+     * Transações do mesmo destinatário são decididas na ordem do lote, e cada uma enxerga as anteriores.
+     * As janelas são lidas antes, fora das fatias, uma vez por destinatário.
+     */
+    public void evaluateAll(List<Transaction> transactions) {
+        long start = metrics.start();
+        Map<Long, ReceiverWindow> windows =
+                enricher.receiverWindows(transactions.stream().map(Transaction::getReceiver).toList());
+        metrics.recordStage(Stage.HISTORY, start);
+
+        shardExecutor.forEach(transactions, transaction -> transaction.getReceiver().getId(), transaction -> {
+            Long receiverId = transaction.getReceiver().getId();
+            evaluate(transaction, () -> windowOnShard(receiverId, windows.get(receiverId)));
+            recordDecision(transaction);
+        });
+    }
 
-    private void validateUserBlacklist(Transaction transaction) {
-        List<User> users = List.of(transaction.getSender(), transaction.getReceiver());
-
-        if (users.stream().anyMatch(this::isBlacklisted)) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transaction.setFraudReason(FraudReason.USER_IN_BLACKLIST);
+    /**
+     * Grava na tabela da blacklist o destinatário de uma transação reprovada por uma regra que o pune.
+     * O índice em memória já foi atualizado na decisão; aqui fica só o I/O, fora da fatia do destinatário.
+     * Chamado depois de a transação ser gravada, quando o destinatário já existe em users.
+     */
+    public void persistBlacklisting(Transaction transaction) {
+        if (isBlacklisting(transaction)) {
+            blackListService.addUserToBlackList(transaction.getReceiver(), transaction.getFraudReason());
         }
     }
 
-    public void validateTransactionValue(Transaction transaction) {
-        double TRANSACTION_MAX_VALUE = 10000.0;
-        double TRANSACTION_MIN_VALUE = 0.5;
+    /**
+     * Corrige o estado em memória de uma transação decidida com o id provisório de um usuário cuja chave já estava
+     * gravada (por outra requisição ou instância) e que foi gravada com o id da linha existente
+     * ({@link com.validator.repository.UserRepositoryImpl#insertReserved}). A transação passa a contar para o id
+     * gravado na velocidade, no grafo e na blacklist; as janelas dos dois ids são descartadas e relidas do banco.
+     * O id provisório não volta a ser usado, e o que ficou nele envelhece com as janelas.
+     */
+    public void reassignUsers(Transaction transaction, User previousSender, User previousReceiver) {
+        boolean senderChanged = !Objects.equals(previousSender.getId(), transaction.getSender().getId());
+        boolean receiverChanged = !Objects.equals(previousReceiver.getId(), transaction.getReceiver().getId());
+        if (!senderChanged && !receiverChanged) {
+            return;
+        }
 
-        if (transaction.getValue() > TRANSACTION_MAX_VALUE || transaction.getValue() < TRANSACTION_MIN_VALUE) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transaction.setFraudReason(FraudReason.STRANGE_VALUE);
-            addUserToBlackList(transaction.getReceiver());
+        long createdAt = ReceiverWindowCache.toEpochMillis(transaction.getCreatedDate());
+        double value = Objects.isNull(transaction.getValue()) ? 0.0 : transaction.getValue();
+        if (senderChanged) {
+            velocityTracker.record(Side.SENDER, transaction.getSender().getId(), value, createdAt);
+        }
+        if (receiverChanged) {
+            velocityTracker.record(Side.RECEIVER, transaction.getReceiver().getId(), value, createdAt);
+            receiverWindowCache.evict(previousReceiver.getId());
+            receiverWindowCache.evict(transaction.getReceiver().getId());
+            if (isBlacklisting(transaction)) {
+                blackListService.unmark(previousReceiver);
+                blackListService.mark(transaction.getReceiver(), transaction.getFraudReason());
+            }
+        }
+        if (transaction.getStatus() != TransactionStatus.FAILED) {
+            muleGraph.record(transaction, createdAt);
         }
     }
 
-    public void validateDangerousDescription(Transaction transaction) {
-        String normalizedDescription = transaction.getDescription().toLowerCase(Locale.ROOT);
-        List<String> foundTerms = DANGEROUS_TERMS.stream().filter(normalizedDescription::contains).toList();
+    private boolean isBlacklisting(Transaction transaction) {
+        return TransactionStatus.FAILED.equals(transaction.getStatus())
+                && blacklistingReasons.contains(transaction.getFraudReason());
+    }
+
+    /**
+     * Roda na fatia do destinatário. Sem {@code loaded}, decide só com a janela em memória e devolve {@code false},
+     * sem alterar nada, se uma regra precisar de uma janela que não está em memória.
+     */
+    private boolean decideAndRecord(Transaction transaction, ReceiverWindow loaded) {
+        if (Objects.isNull(transaction.getCreatedDate())) {
+            transaction.setCreatedDate(LocalDateTime.now());
+        }
 
-        if (BooleanUtils.isFalse(foundTerms.isEmpty())) {
-            transaction.setStatus(TransactionStatus.PENDING_REVIEW);
-            transaction.setFraudReason(FraudReason.SUSPICIOUS_DESCRIPTION);
+        Long receiverId = transaction.getReceiver().getId();
+        try {
+            evaluate(transaction, () -> windowOnShard(receiverId, loaded));
+        } catch (MissingReceiverWindow e) {
+            return false;
         }
+        recordDecision(transaction);
+        return true;
     }
 
-    public void validateDangerousKeys(Transaction transaction) {
-        if (transaction == null || transaction.getSender() == null || transaction.getReceiver() == null) {
-            return;
+    /**
+     * Janela usada na fatia: a que está em memória ou, se ela ainda não estiver, a lida antes da fatia, que passa a ficar
+     * em memória. Nenhum dos casos faz I/O.
+     */
+    private ReceiverWindow windowOnShard(Long receiverId, ReceiverWindow loaded) {
+        ReceiverWindow cached = receiverWindowCache.getIfPresent(receiverId);
+        if (Objects.nonNull(cached)) {
+            return cached;
+        }
+        if (Objects.isNull(loaded)) {
+            if (Objects.isNull(receiverId)) {
+                return receiverWindowCache.fetch(null);
+            }
+            throw MissingReceiverWindow.INSTANCE;
         }
+        return receiverWindowCache.install(receiverId, loaded);
+    }
 
-        List<String> dangerousTerms = List.of("golpe", "fraude", "fake", "urgente");
+    /**
+     * Conta a transação nos contadores de velocidade, inclui a aresta no grafo se ela não foi reprovada
+     * e registra a decisão na janela do destinatário, se ela estiver em memória. Uma janela fora da memória
+     * não é hidratada aqui: a fatia não faz I/O, e a próxima hidratação lê esta transação do banco.
+     */
+    private void recordDecision(Transaction transaction) {
+        long createdAt = ReceiverWindowCache.toEpochMillis(transaction.getCreatedDate());
+        velocityTracker.record(transaction, createdAt);
+        if (transaction.getStatus() != TransactionStatus.FAILED) {
+            muleGraph.record(transaction, createdAt);
+        }
+        receiverWindowCache.record(transaction);
+    }
 
-        String senderKey = Optional.ofNullable(transaction.getSender().getPixKey()).orElse("").toLowerCase(Locale.ROOT);
-        String receiverKey = Optional.ofNullable(transaction.getReceiver().getPixKey()).orElse("").toLowerCase(Locale.ROOT);
+    /**
+     * Aplica as regras a uma transação cujos remetente e destinatário já foram resolvidos.
+     * As regras rodam da mais barata para a mais cara; o histórico do destinatário só é
+     * carregado se alguma regra ainda precisar dele.
+     */
+    public Transaction evaluate(Transaction transaction) {
+        return evaluate(transaction, () -> loadReceiverWindow(() -> receiverWindowCache.get(transaction.getReceiver().getId())));
+    }
 
-        boolean foundDangerous =
-                dangerousTerms.stream().anyMatch(senderKey::contains) ||
-                        dangerousTerms.stream().anyMatch(receiverKey::contains);
+    private Transaction evaluate(Transaction transaction, Supplier<ReceiverWindow> receiverWindow) {
+        long start = metrics.start();
+        FraudRule decisive = runRules(transaction, receiverWindow);
+        metrics.recordStage(Stage.RULES, start);
 
-        if (foundDangerous) {
-            transaction.setStatus(TransactionStatus.PENDING_REVIEW);
-            transaction.setFraudReason(FraudReason.SUSPICIOUS_PIX_KEY);
+        if (Objects.nonNull(decisive)) {
+            return apply(decisive, transaction);
         }
+
+        transaction.setStatus(TransactionStatus.SUCCESS);
+        transaction.setFraudReason(null);
+
+        return transaction;
     }
 
-    public void validateHighFrequency(Transaction transaction, List<Transaction> recentTransactions) {
-        long frequencyInMinutes = 5;
+    private FraudRule runRules(Transaction transaction, Supplier<ReceiverWindow> receiverWindow) {
+        ValidationContext context = new ValidationContext(
+                System.currentTimeMillis(),
+                blackListService::isBlacklisted,
+                receiverWindow,
+                thresholds,
+                velocityTracker,
+                muleGraph);
 
-        long foundTransactions = recentTransactions.stream()
-                .filter(t -> t.getCreatedDate() != null && Duration.between(t.getCreatedDate(), LocalDateTime.now()).toMinutes() <= frequencyInMinutes)
-                .count();
+        return decide(transaction, context);
+    }
 
-        if (foundTransactions >= 5) {
-            transaction.setStatus(TransactionStatus.FAILED);
-            transaction.setFraudReason(FraudReason.HIGH_FREQUENCY);
-            addUserToBlackList(transaction.getReceiver());
+    /**
+     * Regra que decide a transação (a primeira que reprova ou, se nenhuma reprovar, a primeira que manda para revisão),
+     * ou {@code null} se nenhuma disparar. Não altera a transação nem a blacklist.
+     * <p>
+     * Uma reprovação que põe o destinatário na blacklist só vale se nenhuma reprovação sem esse efeito também
+     * disparar: com o remetente já na blacklist e um valor fora da faixa, a decisão é {@code USER_IN_BLACKLIST}
+     * e o destinatário não é punido. As regras de custo mais alto que também punem o destinatário não rodam mais.
+     */
+    public FraudRule decide(Transaction transaction, ValidationContext context) {
+        FraudRule pendingReview = null;
+        FraudRule blacklisting = null;
+
+        for (FraudRule rule : rules) {
+            boolean failsWithoutSideEffect = TransactionStatus.FAILED.equals(rule.outcome()) && !rule.blacklistsReceiver();
+            boolean canStillDecide = Objects.nonNull(blacklisting)
+                    ? failsWithoutSideEffect
+                    : Objects.isNull(pendingReview) || TransactionStatus.FAILED.equals(rule.outcome());
+            if (!canStillDecide) {
+                continue;
+            }
+
+            if (rule.matches(transaction, context)) {
+                if (failsWithoutSideEffect) {
+                    return rule;
+                }
+                if (TransactionStatus.FAILED.equals(rule.outcome())) {
+                    blacklisting = rule;
+                    continue;
+                }
+                pendingReview = Objects.isNull(pendingReview) ? rule : pendingReview;
+            }
         }
-    }
 
-    public void validateOutOfAverageValue(Transaction transaction, List<Transaction> lastTransactions) {
-    if (lastTransactions == null || lastTransactions.isEmpty() || lastTransactions.size() < 5) {
-        return;
+        return Objects.nonNull(blacklisting) ? blacklisting : pendingReview;
     }
 
-    double average = lastTransactions.stream()
-            .mapToDouble(Transaction::getValue)
-            .average()
-            .orElse(0.0);
+    private ReceiverWindow loadReceiverWindow(Supplier<ReceiverWindow> receiverWindow) {
+        long start = metrics.start();
+        ReceiverWindow window = receiverWindow.get();
+        metrics.recordStage(Stage.HISTORY, start);
+        return window;
+    }
 
-    double toleranceFactor = 4.0;
-    double upperLimit = average * toleranceFactor;
-    double lowerLimit = average / toleranceFactor;
+    /**
+     * Uma regra precisou da janela do destinatário na fatia, mas ela não estava em memória.
+     */
+    private static final class MissingReceiverWindow extends RuntimeException {
 
-    if (transaction.getValue() > upperLimit || transaction.getValue() < lowerLimit) {
-        transaction.setStatus(TransactionStatus.FAILED);
-        transaction.setFraudReason(FraudReason.OUT_OF_AVERAGE_VALUE);
+        private static final MissingReceiverWindow INSTANCE = new MissingReceiverWindow();
 
-        // ADICIONE ESTA LINHA (A SUGESTÃO)
-        addUserToBlackList(transaction.getReceiver());
+        private MissingReceiverWindow() {
+            super(null, null, false, false);
+        }
     }
-}
 
-    public boolean isBlacklisted(User user) {
-    if (Objects.isNull(user.getId())) {
-        return false; // Não podemos checar um usuário que nem existe no banco
+    public List<FraudRule> getRules() {
+        return rules;
     }
-    
-    return blackListRepository.findByUserId(user.getId()).isPresent();
-}
 
-    public void addUserToBlackList(User user) {
-        blackListRepository.save(new BlackList(null, user, LocalDateTime.now()));
-    }
+    private Transaction apply(FraudRule rule, Transaction transaction) {
+        transaction.setStatus(rule.outcome());
+        transaction.setFraudReason(rule.reason());
+
+        if (rule.blacklistsReceiver()) {
+            // Só em memória: as próximas decisões já enxergam o destinatário na blacklist
+            blackListService.mark(transaction.getReceiver(), rule.reason());
+        }
 
-    private boolean runAndCheck(Runnable validator, Transaction transaction) {
-        validator.run();
-        return transaction.getStatus() != null;
+        return transaction;
     }
 
 }
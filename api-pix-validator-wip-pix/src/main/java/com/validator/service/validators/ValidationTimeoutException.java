@@ -0,0 +1,12 @@
+package com.validator.service.validators;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ValidationTimeoutException extends RuntimeException {
+
+    public ValidationTimeoutException(String message) {
+        super(message);
+    }
+}
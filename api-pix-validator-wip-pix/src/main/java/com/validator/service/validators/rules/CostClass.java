@@ -0,0 +1,17 @@
+package com.validator.service.validators.rules;
+
+/**
+ * Custo de avaliação de uma regra. O pipeline executa as classes mais baratas primeiro.
+ */
+public enum CostClass {
+
+    /** Apenas CPU sobre os dados da própria transação. */
+    CPU,
+
+    /** Consulta a estruturas em memória (índices e caches). */
+    CACHE,
+
+    /** Pode precisar de I/O no banco (por exemplo, hidratar o histórico do destinatário). */
+    DB
+
+}
@@ -0,0 +1,40 @@
+package com.validator.service.validators.rules;
+
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import com.validator.service.validators.terms.DangerousTermDictionary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class DangerousDescriptionRule implements FraudRule {
+
+    private final DangerousTermDictionary dangerousTermDictionary;
+
+    @Override
+    public CostClass costClass() {
+        return CostClass.CPU;
+    }
+
+    @Override
+    public int order() {
+        return 20;
+    }
+
+    @Override
+    public TransactionStatus outcome() {
+        return TransactionStatus.PENDING_REVIEW;
+    }
+
+    @Override
+    public FraudReason reason() {
+        return FraudReason.SUSPICIOUS_DESCRIPTION;
+    }
+
+    @Override
+    public boolean matches(Transaction transaction, ValidationContext context) {
+        return dangerousTermDictionary.matcher().containsAny(transaction.getDescription());
+    }
+}
@@ -0,0 +1,48 @@
+package com.validator.service.validators.rules;
+
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import com.validator.service.validators.terms.DangerousTermMatcher;
+import com.validator.service.validators.terms.DangerousTermDictionary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class DangerousKeysRule implements FraudRule {
+
+    private final DangerousTermDictionary dangerousTermDictionary;
+
+    @Override
+    public CostClass costClass() {
+        return CostClass.CPU;
+    }
+
+    @Override
+    public int order() {
+        return 30;
+    }
+
+    @Override
+    public TransactionStatus outcome() {
+        return TransactionStatus.PENDING_REVIEW;
+    }
+
+    @Override
+    public FraudReason reason() {
+        return FraudReason.SUSPICIOUS_PIX_KEY;
+    }
+
+    @Override
+    public boolean matches(Transaction transaction, ValidationContext context) {
+        if (transaction == null || transaction.getSender() == null || transaction.getReceiver() == null) {
+            return false;
+        }
+
+        DangerousTermMatcher matcher = dangerousTermDictionary.matcher();
+
+        return matcher.containsAny(transaction.getSender().getPixKey()) ||
+                matcher.containsAny(transaction.getReceiver().getPixKey());
+    }
+}
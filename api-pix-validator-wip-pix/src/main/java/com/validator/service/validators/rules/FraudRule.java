@@ -0,0 +1,33 @@
+package com.validator.service.validators.rules;
+
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+
+/**
+ * Regra antifraude avaliada pelo {@link com.validator.service.validators.TransactionValidator}.
+ * <p>
+ * Uma regra que dispara com {@link TransactionStatus#FAILED} encerra o pipeline. Uma regra que dispara com
+ * {@link TransactionStatus#PENDING_REVIEW} é provisória: a primeira delas é guardada e apenas as regras que ainda
+ * podem reprovar a transação continuam sendo avaliadas. Novas regras entram no pipeline apenas sendo registradas
+ * como beans.
+ */
+public interface FraudRule {
+
+    CostClass costClass();
+
+    /** Desempate entre regras da mesma classe de custo (menor primeiro). */
+    int order();
+
+    TransactionStatus outcome();
+
+    FraudReason reason();
+
+    /** Se o destinatário deve entrar na blacklist quando a regra dispara. */
+    default boolean blacklistsReceiver() {
+        return false;
+    }
+
+    boolean matches(Transaction transaction, ValidationContext context);
+
+}
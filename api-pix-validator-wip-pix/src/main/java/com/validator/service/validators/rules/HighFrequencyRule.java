@@ -0,0 +1,43 @@
+package com.validator.service.validators.rules;
+
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import org.springframework.stereotype.Component;
+
+@Component
+public class HighFrequencyRule implements FraudRule {
+
+    @Override
+    public CostClass costClass() {
+        return CostClass.DB;
+    }
+
+    @Override
+    public int order() {
+        return 10;
+    }
+
+    @Override
+    public TransactionStatus outcome() {
+        return TransactionStatus.FAILED;
+    }
+
+    @Override
+    public FraudReason reason() {
+        return FraudReason.HIGH_FREQUENCY;
+    }
+
+    @Override
+    public boolean blacklistsReceiver() {
+        return true;
+    }
+
+    @Override
+    public boolean matches(Transaction transaction, ValidationContext context) {
+        ValidationThresholds thresholds = context.thresholds();
+        long foundTransactions =
+                context.receiverWindow().countWithinMinutes(context.nowMillis(), thresholds.frequencyMinutes());
+        return foundTransactions >= thresholds.maxTransactions();
+    }
+}
@@ -0,0 +1,57 @@
+package com.validator.service.validators.rules;
+
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import com.validator.service.graph.MuleGraph;
+import com.validator.service.graph.MuleGraphLimits;
+import com.validator.service.graph.NodeStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Destinatário que recebe de vários remetentes e repassa para vários destinatários dentro de um grupo de contas
+ * que cresceu rápido: padrão de rede de contas de passagem (laranjas). O grafo não prova a fraude, então a
+ * transação vai para revisão.
+ */
+@Component
+@RequiredArgsConstructor
+public class MuleNetworkRule implements FraudRule {
+
+    private final MuleGraphLimits limits;
+
+    @Override
+    public CostClass costClass() {
+        return CostClass.CACHE;
+    }
+
+    @Override
+    public int order() {
+        return 30;
+    }
+
+    @Override
+    public TransactionStatus outcome() {
+        return TransactionStatus.PENDING_REVIEW;
+    }
+
+    @Override
+    public FraudReason reason() {
+        return FraudReason.MULE_NETWORK;
+    }
+
+    @Override
+    public boolean matches(Transaction transaction, ValidationContext context) {
+        MuleGraph graph = context.graph();
+        if (!graph.isEnabled() || Objects.isNull(transaction.getReceiver())) {
+            return false;
+        }
+
+        NodeStats receiver = graph.stats(transaction.getReceiver().getId(), context.nowMillis());
+        return receiver.componentGrowth() >= limits.minComponentGrowth()
+                && receiver.inDegree() >= limits.minInDegree()
+                && receiver.outDegree() >= limits.minOutDegree();
+    }
+}
@@ -0,0 +1,51 @@
+package com.validator.service.validators.rules;
+
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import com.validator.repository.cache.ReceiverWindow;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OutOfAverageValueRule implements FraudRule {
+
+    @Override
+    public CostClass costClass() {
+        return CostClass.DB;
+    }
+
+    @Override
+    public int order() {
+        return 20;
+    }
+
+    @Override
+    public TransactionStatus outcome() {
+        return TransactionStatus.FAILED;
+    }
+
+    @Override
+    public FraudReason reason() {
+        return FraudReason.OUT_OF_AVERAGE_VALUE;
+    }
+
+    @Override
+    public boolean blacklistsReceiver() {
+        return true;
+    }
+
+    @Override
+    public boolean matches(Transaction transaction, ValidationContext context) {
+        ValidationThresholds thresholds = context.thresholds();
+        ReceiverWindow receiverWindow = context.receiverWindow();
+        if (receiverWindow.size() < thresholds.minHistory()) {
+            return false;
+        }
+
+        double average = receiverWindow.average();
+        double upperLimit = average * thresholds.toleranceFactor();
+        double lowerLimit = average / thresholds.toleranceFactor();
+
+        return transaction.getValue() > upperLimit || transaction.getValue() < lowerLimit;
+    }
+}
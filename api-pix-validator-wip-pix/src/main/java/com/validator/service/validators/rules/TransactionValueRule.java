@@ -0,0 +1,41 @@
+package com.validator.service.validators.rules;
+
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TransactionValueRule implements FraudRule {
+
+    @Override
+    public CostClass costClass() {
+        return CostClass.CPU;
+    }
+
+    @Override
+    public int order() {
+        return 10;
+    }
+
+    @Override
+    public TransactionStatus outcome() {
+        return TransactionStatus.FAILED;
+    }
+
+    @Override
+    public FraudReason reason() {
+        return FraudReason.STRANGE_VALUE;
+    }
+
+    @Override
+    public boolean blacklistsReceiver() {
+        return true;
+    }
+
+    @Override
+    public boolean matches(Transaction transaction, ValidationContext context) {
+        ValidationThresholds thresholds = context.thresholds();
+        return transaction.getValue() > thresholds.maxValue() || transaction.getValue() < thresholds.minValue();
+    }
+}
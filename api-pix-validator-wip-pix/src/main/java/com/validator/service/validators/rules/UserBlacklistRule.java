@@ -0,0 +1,35 @@
+package com.validator.service.validators.rules;
+
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserBlacklistRule implements FraudRule {
+
+    @Override
+    public CostClass costClass() {
+        return CostClass.CACHE;
+    }
+
+    @Override
+    public int order() {
+        return 10;
+    }
+
+    @Override
+    public TransactionStatus outcome() {
+        return TransactionStatus.FAILED;
+    }
+
+    @Override
+    public FraudReason reason() {
+        return FraudReason.USER_IN_BLACKLIST;
+    }
+
+    @Override
+    public boolean matches(Transaction transaction, ValidationContext context) {
+        return context.isBlacklisted(transaction.getSender()) || context.isBlacklisted(transaction.getReceiver());
+    }
+}
@@ -0,0 +1,83 @@
+package com.validator.service.validators.rules;
+
+import com.validator.model.User;
+import com.validator.repository.cache.ReceiverWindow;
+import com.validator.service.graph.MuleGraph;
+import com.validator.service.velocity.VelocityTracker;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Dados compartilhados pelas regras durante a validação de uma transação.
+ * O histórico do destinatário só é buscado quando alguma regra o solicita.
+ */
+public class ValidationContext {
+
+    private final long nowMillis;
+    private final Predicate<User> blacklist;
+    private final Supplier<ReceiverWindow> receiverWindowLoader;
+    private final ValidationThresholds thresholds;
+    private final VelocityTracker velocity;
+    private final MuleGraph graph;
+
+    private ReceiverWindow receiverWindow;
+
+    /**
+     * Contexto sem contadores de velocidade nem grafo (a {@code VelocityRule} e a {@code MuleNetworkRule} não disparam).
+     */
+    public ValidationContext(
+            long nowMillis,
+            Predicate<User> blacklist,
+            Supplier<ReceiverWindow> receiverWindowLoader,
+            ValidationThresholds thresholds) {
+        this(nowMillis, blacklist, receiverWindowLoader, thresholds, VelocityTracker.DISABLED, MuleGraph.DISABLED);
+    }
+
+    public ValidationContext(
+            long nowMillis,
+            Predicate<User> blacklist,
+            Supplier<ReceiverWindow> receiverWindowLoader,
+            ValidationThresholds thresholds,
+            VelocityTracker velocity,
+            MuleGraph graph) {
+        this.nowMillis = nowMillis;
+        this.blacklist = blacklist;
+        this.receiverWindowLoader = receiverWindowLoader;
+        this.thresholds = thresholds;
+        this.velocity = velocity;
+        this.graph = graph;
+    }
+
+    public long nowMillis() {
+        return nowMillis;
+    }
+
+    public ValidationThresholds thresholds() {
+        return thresholds;
+    }
+
+    public VelocityTracker velocity() {
+        return velocity;
+    }
+
+    public MuleGraph graph() {
+        return graph;
+    }
+
+    public boolean isBlacklisted(User user) {
+        return blacklist.test(user);
+    }
+
+    public ReceiverWindow receiverWindow() {
+        if (Objects.isNull(receiverWindow)) {
+            receiverWindow = receiverWindowLoader.get();
+        }
+        return receiverWindow;
+    }
+
+    public boolean isReceiverWindowLoaded() {
+        return Objects.nonNull(receiverWindow);
+    }
+}
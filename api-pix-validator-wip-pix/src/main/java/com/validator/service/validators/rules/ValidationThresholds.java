@@ -0,0 +1,23 @@
+package com.validator.service.validators.rules;
+
+/**
+ * Limites usados pelas regras de valor e de frequência. Os valores em produção vêm de {@code validator.rules.*};
+ * o backtest roda as mesmas regras com um conjunto candidato.
+ *
+ * @param maxValue          valor acima do qual a transação é reprovada
+ * @param minValue          valor abaixo do qual a transação é reprovada
+ * @param minHistory        transações no histórico para a regra da média valer
+ * @param toleranceFactor   quantas vezes acima (ou abaixo) da média o valor é aceito
+ * @param frequencyMinutes  janela, em minutos, da regra de frequência
+ * @param maxTransactions   transações recebidas na janela a partir das quais a regra de frequência dispara
+ */
+public record ValidationThresholds(
+        double maxValue,
+        double minValue,
+        int minHistory,
+        double toleranceFactor,
+        long frequencyMinutes,
+        long maxTransactions) {
+
+    public static final ValidationThresholds DEFAULTS = new ValidationThresholds(10000.0, 0.5, 5, 4.0, 5, 5);
+}
@@ -0,0 +1,77 @@
+package com.validator.service.validators.rules;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import com.validator.service.velocity.VelocityLimits;
+import com.validator.service.velocity.VelocityTracker;
+import com.validator.service.velocity.VelocityTracker.Side;
+import com.validator.service.velocity.VelocityWindow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Volume do remetente ou do destinatário, contando esta transação, acima do limite de quantidade ou de valor
+ * em alguma janela de 1 min, 5 min, 1 h ou 24 h. As contagens das chaves pouco frequentes são estimativas que
+ * podem passar do real, por isso a transação vai para revisão em vez de ser reprovada.
+ */
+@Component
+@RequiredArgsConstructor
+public class VelocityRule implements FraudRule {
+
+    private final VelocityLimits limits;
+
+    @Override
+    public CostClass costClass() {
+        return CostClass.CACHE;
+    }
+
+    @Override
+    public int order() {
+        return 20;
+    }
+
+    @Override
+    public TransactionStatus outcome() {
+        return TransactionStatus.PENDING_REVIEW;
+    }
+
+    @Override
+    public FraudReason reason() {
+        return FraudReason.HIGH_VELOCITY;
+    }
+
+    @Override
+    public boolean matches(Transaction transaction, ValidationContext context) {
+        VelocityTracker velocity = context.velocity();
+        if (!velocity.isEnabled()) {
+            return false;
+        }
+
+        double value = Objects.isNull(transaction.getValue()) ? 0.0 : transaction.getValue();
+        for (VelocityWindow window : VelocityWindow.values()) {
+            if (exceeds(velocity, Side.SENDER, transaction.getSender(), window, value, context.nowMillis())
+                    || exceeds(velocity, Side.RECEIVER, transaction.getReceiver(), window, value, context.nowMillis())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean exceeds(VelocityTracker velocity, Side side, User user, VelocityWindow window, double value, long now) {
+        if (Objects.isNull(user) || Objects.isNull(user.getId())) {
+            return false;
+        }
+
+        long maxCount = limits.maxCount(side, window);
+        if (maxCount > 0 && velocity.count(side, user.getId(), window, now) + 1 > maxCount) {
+            return true;
+        }
+
+        double maxSum = limits.maxSum(side, window);
+        return maxSum > 0 && velocity.sum(side, user.getId(), window, now) + value > maxSum;
+    }
+}
@@ -0,0 +1,62 @@
+package com.validator.service.validators.terms;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Dicionário de termos perigosos usado nas regras de descrição e de chave PIX.
+ * O autômato é recompilado por inteiro e trocado atomicamente a cada recarga.
+ */
+@Slf4j
+@Component
+public class DangerousTermDictionary {
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+
+    private volatile DangerousTermMatcher matcher = DangerousTermMatcher.compile(List.of());
+
+    public DangerousTermDictionary(
+            ResourceLoader resourceLoader,
+            @Value("${validator.dangerous-terms.location:classpath:dangerous-terms.txt}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+    }
+
+    public DangerousTermMatcher matcher() {
+        return matcher;
+    }
+
+    /**
+     * Recarrega os termos do arquivo configurado (um termo por linha, linhas com '#' são comentários).
+     */
+    @PostConstruct
+    public void reload() {
+        Resource resource = resourceLoader.getResource(location);
+
+        try (BufferedReader reader =
+                new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            reload(reader.lines().filter(line -> !line.strip().startsWith("#")).toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load dangerous terms from " + location, e);
+        }
+    }
+
+    public void reload(Collection<String> terms) {
+        DangerousTermMatcher compiled = DangerousTermMatcher.compile(terms);
+        matcher = compiled;
+        log.info("Dangerous term dictionary reloaded with {} terms", compiled.getTerms().size());
+    }
+}
@@ -0,0 +1,197 @@
+package com.validator.service.validators.terms;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Autômato de Aho-Corasick compilado em uma tabela de transições (DFA).
+ * Encontra todos os termos de uma só passada sobre o texto, ignorando caixa e acentos
+ * sem criar cópias do texto. Instâncias são imutáveis e podem ser compartilhadas entre threads.
+ */
+public final class DangerousTermMatcher {
+
+    private static final int FOLD_TABLE_SIZE = 0x180;
+    private static final char[] FOLD = new char[FOLD_TABLE_SIZE];
+
+    static {
+        for (char c = 0; c < FOLD_TABLE_SIZE; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            FOLD[c] = Character.toLowerCase(decomposed.charAt(0));
+        }
+    }
+
+    private final List<String> terms;
+    private final short[] symbolOf;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    private DangerousTermMatcher(List<String> terms, short[] symbolOf, int alphabetSize, int[] transitions, int[][] outputs) {
+        this.terms = terms;
+        this.symbolOf = symbolOf;
+        this.alphabetSize = alphabetSize;
+        this.transitions = transitions;
+        this.outputs = outputs;
+    }
+
+    public static char fold(char c) {
+        return c < FOLD_TABLE_SIZE ? FOLD[c] : Character.toLowerCase(c);
+    }
+
+    public static DangerousTermMatcher compile(Collection<String> rawTerms) {
+        List<String> terms = normalizeTerms(rawTerms);
+
+        // O símbolo 0 representa qualquer caractere que não aparece nos termos
+        short[] symbolOf = new short[Character.MAX_VALUE + 1];
+        int alphabetSize = 1;
+        for (String term : terms) {
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                if (symbolOf[c] == 0) {
+                    symbolOf[c] = (short) alphabetSize++;
+                }
+            }
+        }
+
+        // 1. Trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> termsEndingAt = new ArrayList<>();
+        trie.add(newRow(alphabetSize));
+        termsEndingAt.add(new ArrayList<>());
+
+        for (int t = 0; t < terms.size(); t++) {
+            String term = terms.get(t);
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                int symbol = symbolOf[term.charAt(i)];
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newRow(alphabetSize));
+                    termsEndingAt.add(new ArrayList<>());
+                }
+                state = trie.get(state)[symbol];
+            }
+            termsEndingAt.get(state).add(t);
+        }
+
+        // 2. Links de falha em largura, já resolvendo as transições ausentes (DFA completo)
+        int stateCount = trie.size();
+        int[] transitions = new int[stateCount * alphabetSize];
+        int[] failure = new int[stateCount];
+        int[][] outputs = new int[stateCount][];
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        outputs[0] = toArray(termsEndingAt.get(0));
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int child = trie.get(0)[symbol];
+            if (child < 0) {
+                transitions[symbol] = 0;
+            } else {
+                transitions[symbol] = child;
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+
+            Set<Integer> stateOutputs = new LinkedHashSet<>(termsEndingAt.get(state));
+            for (int term : outputs[failure[state]]) {
+                stateOutputs.add(term);
+            }
+            outputs[state] = toArray(stateOutputs);
+
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int child = trie.get(state)[symbol];
+                int fallback = transitions[failure[state] * alphabetSize + symbol];
+                if (child < 0) {
+                    transitions[state * alphabetSize + symbol] = fallback;
+                } else {
+                    transitions[state * alphabetSize + symbol] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+
+        return new DangerousTermMatcher(List.copyOf(terms), symbolOf, alphabetSize, transitions, outputs);
+    }
+
+    public boolean containsAny(CharSequence text) {
+        if (Objects.isNull(text) || terms.isEmpty()) {
+            return false;
+        }
+
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            if (outputs[state].length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Todos os termos encontrados no texto, na ordem em que terminam.
+     */
+    public List<String> findAll(CharSequence text) {
+        if (Objects.isNull(text) || terms.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> found = new LinkedHashSet<>();
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            for (int term : outputs[state]) {
+                found.add(terms.get(term));
+            }
+        }
+        return List.copyOf(found);
+    }
+
+    public List<String> getTerms() {
+        return terms;
+    }
+
+    private int next(int state, char c) {
+        return transitions[state * alphabetSize + symbolOf[fold(c)]];
+    }
+
+    private static List<String> normalizeTerms(Collection<String> rawTerms) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String raw : rawTerms) {
+            if (Objects.isNull(raw) || raw.isBlank()) {
+                continue;
+            }
+
+            String trimmed = raw.strip();
+            StringBuilder folded = new StringBuilder(trimmed.length());
+            for (int i = 0; i < trimmed.length(); i++) {
+                folded.append(fold(trimmed.charAt(i)));
+            }
+            normalized.add(folded.toString());
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    private static int[] newRow(int alphabetSize) {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] toArray(Collection<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
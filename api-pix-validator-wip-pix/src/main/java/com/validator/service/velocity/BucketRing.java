@@ -0,0 +1,61 @@
+package com.validator.service.velocity;
+
+import java.util.Arrays;
+
+/**
+ * Contagem e soma exatas de uma chave em uma janela, em baldes circulares: o balde da vez é zerado quando
+ * o relógio volta a ele em uma nova volta. Não é thread-safe.
+ */
+final class BucketRing {
+
+    private final long bucketMillis;
+    private final long[] buckets;
+    private final int[] counts;
+    private final double[] sums;
+
+    BucketRing(VelocityWindow window) {
+        this.bucketMillis = window.bucketMillis();
+        this.buckets = new long[window.buckets()];
+        this.counts = new int[window.buckets()];
+        this.sums = new double[window.buckets()];
+        Arrays.fill(buckets, Long.MIN_VALUE);
+    }
+
+    void add(long nowMillis, double value) {
+        long bucket = nowMillis / bucketMillis;
+        int slot = (int) Math.floorMod(bucket, (long) buckets.length);
+        if (buckets[slot] != bucket) {
+            buckets[slot] = bucket;
+            counts[slot] = 0;
+            sums[slot] = 0.0;
+        }
+        counts[slot]++;
+        sums[slot] += value;
+    }
+
+    long count(long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        long count = 0;
+        for (int slot = 0; slot < buckets.length; slot++) {
+            if (inWindow(buckets[slot], current)) {
+                count += counts[slot];
+            }
+        }
+        return count;
+    }
+
+    double sum(long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        double sum = 0.0;
+        for (int slot = 0; slot < buckets.length; slot++) {
+            if (inWindow(buckets[slot], current)) {
+                sum += sums[slot];
+            }
+        }
+        return sum;
+    }
+
+    private boolean inWindow(long bucket, long current) {
+        return bucket <= current && bucket > current - buckets.length;
+    }
+}
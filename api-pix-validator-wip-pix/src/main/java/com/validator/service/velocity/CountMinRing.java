@@ -0,0 +1,113 @@
+package com.validator.service.velocity;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch por balde de tempo de uma janela, para as chaves que não têm contadores próprios.
+ * A memória é fixa (baldes × profundidade × largura) e não depende do número de chaves; a estimativa
+ * nunca fica abaixo do valor real e pode ficar acima quando chaves colidem em todas as linhas.
+ * <p>
+ * As células são atômicas; o balde da vez é zerado por quem chega primeiro a ele em uma nova volta.
+ */
+final class CountMinRing {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL
+    };
+
+    private final long bucketMillis;
+    private final int depth;
+    private final int width;
+    private final Slot[] slots;
+
+    CountMinRing(VelocityWindow window, int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException(
+                    "Sketch depth must be between 1 and " + SEEDS.length + " and width a power of two");
+        }
+        this.bucketMillis = window.bucketMillis();
+        this.depth = depth;
+        this.width = width;
+        this.slots = new Slot[window.buckets()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot(depth * width);
+        }
+    }
+
+    void add(long key, long nowMillis, long cents) {
+        Slot slot = slotFor(nowMillis / bucketMillis);
+        for (int row = 0; row < depth; row++) {
+            int cell = cell(key, row);
+            slot.counts.incrementAndGet(cell);
+            slot.cents.addAndGet(cell, cents);
+        }
+    }
+
+    long estimateCount(long key, long nowMillis) {
+        return estimate(key, nowMillis, true);
+    }
+
+    long estimateCents(long key, long nowMillis) {
+        return estimate(key, nowMillis, false);
+    }
+
+    /**
+     * Soma, balde a balde, o menor valor entre as linhas: cada mínimo já é um limite superior do balde,
+     * e a soma deles é mais justa que o mínimo das somas.
+     */
+    private long estimate(long key, long nowMillis, boolean counts) {
+        long current = nowMillis / bucketMillis;
+        long total = 0;
+        for (Slot slot : slots) {
+            long bucket = slot.bucket;
+            if (bucket > current || bucket <= current - slots.length) {
+                continue;
+            }
+
+            AtomicLongArray cells = counts ? slot.counts : slot.cents;
+            long min = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                min = Math.min(min, cells.get(cell(key, row)));
+            }
+            total += min;
+        }
+        return total;
+    }
+
+    private Slot slotFor(long bucket) {
+        Slot slot = slots[(int) Math.floorMod(bucket, (long) slots.length)];
+        if (slot.bucket < bucket) {
+            synchronized (slot) {
+                if (slot.bucket < bucket) {
+                    for (int i = 0; i < slot.counts.length(); i++) {
+                        slot.counts.set(i, 0);
+                        slot.cents.set(i, 0);
+                    }
+                    slot.bucket = bucket;
+                }
+            }
+        }
+        return slot;
+    }
+
+    private int cell(long key, int row) {
+        long h = key * SEEDS[row];
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 32;
+        return row * width + ((int) h & (width - 1));
+    }
+
+    private static final class Slot {
+
+        private volatile long bucket = Long.MIN_VALUE;
+        private final AtomicLongArray counts;
+        private final AtomicLongArray cents;
+
+        Slot(int cells) {
+            this.counts = new AtomicLongArray(cells);
+            this.cents = new AtomicLongArray(cells);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.validator.service.velocity;
+
+/**
+ * Contadores exatos de uma chave frequente, um {@link BucketRing} por janela. Só valem para janelas que começam
+ * depois da promoção da chave; antes disso a chave era contada apenas no sketch.
+ */
+final class KeyVelocity {
+
+    private final long promotedAtMillis;
+    private final BucketRing[] rings = new BucketRing[VelocityWindow.values().length];
+
+    KeyVelocity(long promotedAtMillis) {
+        this.promotedAtMillis = promotedAtMillis;
+        for (VelocityWindow window : VelocityWindow.values()) {
+            rings[window.ordinal()] = new BucketRing(window);
+        }
+    }
+
+    boolean covers(VelocityWindow window, long nowMillis) {
+        return promotedAtMillis <= nowMillis - window.millis();
+    }
+
+    synchronized void add(long nowMillis, double value) {
+        for (BucketRing ring : rings) {
+            ring.add(nowMillis, value);
+        }
+    }
+
+    synchronized long count(VelocityWindow window, long nowMillis) {
+        return rings[window.ordinal()].count(nowMillis);
+    }
+
+    synchronized double sum(VelocityWindow window, long nowMillis) {
+        return rings[window.ordinal()].sum(nowMillis);
+    }
+}
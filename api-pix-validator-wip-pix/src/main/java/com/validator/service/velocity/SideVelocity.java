@@ -0,0 +1,66 @@
+package com.validator.service.velocity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Velocidade de um dos lados da transação (remetente ou destinatário). Toda chave entra nos sketches;
+ * quando a estimativa de um minuto de uma chave chega ao limite de promoção, ela ganha contadores exatos
+ * em um cache limitado por tamanho.
+ */
+final class SideVelocity {
+
+    private final CountMinRing[] sketches = new CountMinRing[VelocityWindow.values().length];
+    private final Cache<Long, KeyVelocity> hotKeys;
+    private final long hotThreshold;
+
+    SideVelocity(int sketchDepth, int sketchWidth, long hotThreshold, long maxHotKeys) {
+        for (VelocityWindow window : VelocityWindow.values()) {
+            sketches[window.ordinal()] = new CountMinRing(window, sketchDepth, sketchWidth);
+        }
+        this.hotKeys = Caffeine.newBuilder()
+                .maximumSize(maxHotKeys)
+                .expireAfterAccess(Duration.ofMillis(VelocityWindow.ONE_DAY.millis()))
+                .build();
+        this.hotThreshold = hotThreshold;
+    }
+
+    void record(long key, long nowMillis, double value) {
+        long cents = Math.round(value * 100);
+        for (CountMinRing sketch : sketches) {
+            sketch.add(key, nowMillis, cents);
+        }
+
+        KeyVelocity hot = hotKeys.getIfPresent(key);
+        if (Objects.isNull(hot)
+                && sketches[VelocityWindow.ONE_MINUTE.ordinal()].estimateCount(key, nowMillis) >= hotThreshold) {
+            hot = hotKeys.get(key, k -> new KeyVelocity(nowMillis));
+        }
+        if (Objects.nonNull(hot)) {
+            hot.add(nowMillis, value);
+        }
+    }
+
+    long count(long key, VelocityWindow window, long nowMillis) {
+        KeyVelocity hot = hotKeys.getIfPresent(key);
+        if (Objects.nonNull(hot) && hot.covers(window, nowMillis)) {
+            return hot.count(window, nowMillis);
+        }
+        return sketches[window.ordinal()].estimateCount(key, nowMillis);
+    }
+
+    double sum(long key, VelocityWindow window, long nowMillis) {
+        KeyVelocity hot = hotKeys.getIfPresent(key);
+        if (Objects.nonNull(hot) && hot.covers(window, nowMillis)) {
+            return hot.sum(window, nowMillis);
+        }
+        return sketches[window.ordinal()].estimateCents(key, nowMillis) / 100.0;
+    }
+
+    long hotKeyCount() {
+        return hotKeys.estimatedSize();
+    }
+}
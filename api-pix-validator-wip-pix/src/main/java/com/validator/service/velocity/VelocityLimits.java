@@ -0,0 +1,36 @@
+package com.validator.service.velocity;
+
+import com.validator.service.velocity.VelocityTracker.Side;
+
+/**
+ * Máximo de transações e de valor somado por janela ({@link VelocityWindow}, na ordem da enum), para remetentes
+ * e para destinatários. Um limite zero ou negativo desliga a verificação daquela janela.
+ */
+public record VelocityLimits(long[] senderMaxCount, double[] senderMaxSum, long[] receiverMaxCount, double[] receiverMaxSum) {
+
+    public static final VelocityLimits DEFAULTS = new VelocityLimits(
+            new long[]{10, 30, 200, 1000},
+            new double[]{20000.0, 50000.0, 200000.0, 1000000.0},
+            new long[]{0, 0, 3000, 30000},
+            new double[]{1000000.0, 2000000.0, 10000000.0, 50000000.0});
+
+    public VelocityLimits {
+        int windows = VelocityWindow.values().length;
+        if (senderMaxCount.length != windows || senderMaxSum.length != windows
+                || receiverMaxCount.length != windows || receiverMaxSum.length != windows) {
+            throw new IllegalArgumentException("Velocity limits need one value per window (" + windows + ")");
+        }
+        senderMaxCount = senderMaxCount.clone();
+        senderMaxSum = senderMaxSum.clone();
+        receiverMaxCount = receiverMaxCount.clone();
+        receiverMaxSum = receiverMaxSum.clone();
+    }
+
+    public long maxCount(Side side, VelocityWindow window) {
+        return (side == Side.SENDER ? senderMaxCount : receiverMaxCount)[window.ordinal()];
+    }
+
+    public double maxSum(Side side, VelocityWindow window) {
+        return (side == Side.SENDER ? senderMaxSum : receiverMaxSum)[window.ordinal()];
+    }
+}
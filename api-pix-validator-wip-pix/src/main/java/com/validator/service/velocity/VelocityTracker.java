@@ -0,0 +1,94 @@
+package com.validator.service.velocity;
+
+import com.validator.model.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Quantidade e soma das transações de cada remetente e de cada destinatário em janelas de 1 min, 5 min, 1 h e 24 h.
+ * Chaves frequentes têm contadores exatos em baldes circulares; as demais são estimadas por count-min sketches
+ * (nunca abaixo do real). A memória é fixa: sketches de tamanho configurado e um número máximo de chaves frequentes.
+ * As consultas só leem memória e podem ser feitas por qualquer thread.
+ */
+@Component
+public class VelocityTracker {
+
+    /** Rastreador sem dados, para contextos que não acompanham velocidade (backtest, benchmarks). */
+    public static final VelocityTracker DISABLED = new VelocityTracker(false, 1, 1, 1, 0);
+
+    public enum Side {
+        SENDER, RECEIVER
+    }
+
+    private final boolean enabled;
+    private final Map<Side, SideVelocity> sides = new EnumMap<>(Side.class);
+
+    @Autowired
+    public VelocityTracker(
+            @Value("${validator.velocity.enabled:true}") boolean enabled,
+            @Value("${validator.velocity.sketch-depth:4}") int sketchDepth,
+            @Value("${validator.velocity.sketch-width:1024}") int sketchWidth,
+            @Value("${validator.velocity.hot-threshold:5}") long hotThreshold,
+            @Value("${validator.velocity.max-hot-keys:10000}") long maxHotKeys) {
+        this.enabled = enabled;
+        if (enabled) {
+            for (Side side : Side.values()) {
+                sides.put(side, new SideVelocity(sketchDepth, sketchWidth, hotThreshold, maxHotKeys));
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Conta a transação para o remetente e para o destinatário no instante informado.
+     */
+    public void record(Transaction transaction, long nowMillis) {
+        if (!enabled) {
+            return;
+        }
+
+        double value = Objects.isNull(transaction.getValue()) ? 0.0 : transaction.getValue();
+        if (Objects.nonNull(transaction.getSender())) {
+            record(Side.SENDER, transaction.getSender().getId(), value, nowMillis);
+        }
+        if (Objects.nonNull(transaction.getReceiver())) {
+            record(Side.RECEIVER, transaction.getReceiver().getId(), value, nowMillis);
+        }
+    }
+
+    /**
+     * Conta um valor só para um lado, por exemplo para o id definitivo de um usuário que era provisório.
+     */
+    public void record(Side side, Long userId, double value, long nowMillis) {
+        if (!enabled || Objects.isNull(userId)) {
+            return;
+        }
+        sides.get(side).record(userId, nowMillis, value);
+    }
+
+    public long count(Side side, Long userId, VelocityWindow window, long nowMillis) {
+        if (!enabled || Objects.isNull(userId)) {
+            return 0;
+        }
+        return sides.get(side).count(userId, window, nowMillis);
+    }
+
+    public double sum(Side side, Long userId, VelocityWindow window, long nowMillis) {
+        if (!enabled || Objects.isNull(userId)) {
+            return 0.0;
+        }
+        return sides.get(side).sum(userId, window, nowMillis);
+    }
+
+    public long hotKeyCount(Side side) {
+        return enabled ? sides.get(side).hotKeyCount() : 0;
+    }
+}
@@ -0,0 +1,35 @@
+package com.validator.service.velocity;
+
+import java.time.Duration;
+
+/**
+ * Janelas acompanhadas pelo {@link VelocityTracker}. Cada uma é dividida em baldes de tempo iguais; a contagem
+ * considera os baldes que começaram dentro da janela, então a precisão é de um balde.
+ */
+public enum VelocityWindow {
+
+    ONE_MINUTE(Duration.ofMinutes(1), 12),
+    FIVE_MINUTES(Duration.ofMinutes(5), 10),
+    ONE_HOUR(Duration.ofHours(1), 12),
+    ONE_DAY(Duration.ofDays(1), 24);
+
+    private final long millis;
+    private final int buckets;
+
+    VelocityWindow(Duration length, int buckets) {
+        this.millis = length.toMillis();
+        this.buckets = buckets;
+    }
+
+    public long millis() {
+        return millis;
+    }
+
+    int buckets() {
+        return buckets;
+    }
+
+    long bucketMillis() {
+        return millis / buckets;
+    }
+}
@@ -0,0 +1,165 @@
+package com.validator.util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de {@code long} para {@code long} com endereçamento aberto (sondagem linear).
+ * Evita o boxing de {@code Long} e mantém a memória previsível. A remoção desloca as chaves seguintes
+ * para trás, então não há marcadores de remoção e a busca continua parando no primeiro espaço vazio.
+ * Não é thread-safe.
+ */
+public class LongLongHashMap {
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final long missingValue;
+
+    private long[] keys;
+    private long[] values;
+    private boolean containsZero;
+    private long zeroValue;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * @param missingValue valor devolvido por {@link #get} e {@link #remove} quando a chave não está no mapa
+     */
+    public LongLongHashMap(int expectedSize, long missingValue) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+        this.missingValue = missingValue;
+    }
+
+    /**
+     * @return o valor anterior, ou o valor ausente se a chave era nova
+     */
+    public long put(long key, long value) {
+        if (key == EMPTY) {
+            long previous = containsZero ? zeroValue : missingValue;
+            if (!containsZero) size++;
+            containsZero = true;
+            zeroValue = value;
+            return previous;
+        }
+
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                long previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return missingValue;
+    }
+
+    public long get(long key) {
+        if (key == EMPTY) {
+            return containsZero ? zeroValue : missingValue;
+        }
+
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+
+        return missingValue;
+    }
+
+    /**
+     * @return o valor removido, ou o valor ausente se a chave não estava no mapa
+     */
+    public long remove(long key) {
+        if (key == EMPTY) {
+            if (!containsZero) {
+                return missingValue;
+            }
+            containsZero = false;
+            size--;
+            return zeroValue;
+        }
+
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+
+        while (keys[index] != key) {
+            if (keys[index] == EMPTY) {
+                return missingValue;
+            }
+            index = (index + 1) & mask;
+        }
+
+        long removed = values[index];
+        size--;
+
+        // Puxa para o buraco as chaves seguintes da mesma sequência que não estejam já na posição ideal
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int ideal = mix(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        values[hole] = 0L;
+
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, 0L);
+        containsZero = false;
+        size = 0;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[newCapacity];
+        values = new long[newCapacity];
+        resizeThreshold = (int) (newCapacity * LOAD_FACTOR);
+
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = mix(oldKeys[i]) & mask;
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
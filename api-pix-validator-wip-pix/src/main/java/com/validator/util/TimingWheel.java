@@ -0,0 +1,145 @@
+package com.validator.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Roda de tempo hierárquica para prazos de ids {@code long}. São quatro níveis de 64 posições: o primeiro avança
+ * um tique por posição, e cada nível seguinte cobre a volta inteira do anterior em cada posição (com tique de 1 s,
+ * cerca de 64 s, 68 min, 73 h e 194 dias). Agendar custa O(1); ao virar uma posição de um nível alto, os prazos dela
+ * descem para o nível de baixo, e os que chegam ao primeiro nível vencem quando o tique alcança a posição.
+ * Prazos além do último nível esperam em uma lista à parte e são reagendados a cada volta completa.
+ * <p>
+ * Um id pode ser agendado mais de uma vez; quem consome os vencidos decide se o prazo ainda vale. Não é thread-safe.
+ */
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final List<Entry>[][] wheels;
+    private List<Entry> overflow = new ArrayList<>();
+    private List<Entry> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Timing wheel tick must be at least 1 ms");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        this.wheels = new List[LEVELS][SLOTS];
+    }
+
+    /**
+     * Agenda o id para vencer no primeiro tique a partir de {@code deadlineMillis}.
+     */
+    public void schedule(long id, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis, tickMillis) + (Math.floorMod(deadlineMillis, tickMillis) == 0 ? 0 : 1);
+        place(new Entry(id, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Avança até {@code nowMillis} entregando cada id vencido ao consumidor.
+     *
+     * @return quantos ids venceram
+     */
+    public int advance(long nowMillis, LongConsumer expired) {
+        int count = drainDue(expired);
+
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            for (int level = LEVELS; level >= 1; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+
+            List<Entry> slot = wheels[0][slotOf(currentTick, 0)];
+            if (slot != null && !slot.isEmpty()) {
+                wheels[0][slotOf(currentTick, 0)] = null;
+                for (Entry entry : slot) {
+                    expired.accept(entry.id());
+                }
+                count += slot.size();
+                size -= slot.size();
+            }
+
+            count += drainDue(expired);
+        }
+
+        return count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reagenda as entradas da posição atual do nível (ou as da lista à parte, ao completar a volta do último nível).
+     */
+    private void cascade(int level) {
+        List<Entry> entries;
+        if (level == LEVELS) {
+            entries = overflow;
+            overflow = new ArrayList<>();
+        } else {
+            int index = slotOf(currentTick, level);
+            entries = wheels[level][index];
+            wheels[level][index] = null;
+        }
+
+        if (entries != null) {
+            entries.forEach(this::place);
+        }
+    }
+
+    private void place(Entry entry) {
+        if (entry.deadlineTick() <= currentTick) {
+            due.add(entry);
+            return;
+        }
+
+        // Nível mais baixo em que prazo e tique atual caem no mesmo bloco do nível acima
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if ((entry.deadlineTick() >>> shift) == (currentTick >>> shift)) {
+                int index = slotOf(entry.deadlineTick(), level);
+                if (wheels[level][index] == null) {
+                    wheels[level][index] = new ArrayList<>();
+                }
+                wheels[level][index].add(entry);
+                return;
+            }
+        }
+
+        overflow.add(entry);
+    }
+
+    private int drainDue(LongConsumer expired) {
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<Entry> drained = due;
+        due = new ArrayList<>();
+        drained.forEach(entry -> expired.accept(entry.id()));
+        size -= drained.size();
+        return drained.size();
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+
+    private record Entry(long id, long deadlineTick) {
+    }
+}
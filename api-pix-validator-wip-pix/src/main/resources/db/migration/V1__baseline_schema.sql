@@ -0,0 +1,39 @@
+-- Esquema inicial, equivalente ao que o Hibernate criava com ddl-auto=update.
+-- Bancos já existentes recebem baseline na versão 0, então este script também roda neles:
+-- por isso tudo é IF NOT EXISTS.
+
+CREATE TABLE IF NOT EXISTS users (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    cpf          VARCHAR(255),
+    name         VARCHAR(255),
+    pix_key_type VARCHAR(255),
+    pix_key      VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sender_id         BIGINT REFERENCES users (id),
+    receiver_id       BIGINT REFERENCES users (id),
+    value             DOUBLE PRECISION,
+    description       VARCHAR(255),
+    status            VARCHAR(255),
+    fraud_reason      VARCHAR(255),
+    created_date      TIMESTAMP(6),
+    last_updated_date TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS blacklist (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT REFERENCES users (id),
+    create_time TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS receiver_stats (
+    receiver_id          BIGINT PRIMARY KEY REFERENCES users (id),
+    transaction_count    BIGINT           NOT NULL DEFAULT 0,
+    value_sum            DOUBLE PRECISION NOT NULL DEFAULT 0,
+    value_sum_of_squares DOUBLE PRECISION NOT NULL DEFAULT 0,
+    ewma                 DOUBLE PRECISION NOT NULL DEFAULT 0,
+    window_times         BIGINT[]         NOT NULL DEFAULT '{}',
+    window_values        DOUBLE PRECISION[] NOT NULL DEFAULT '{}'
+);
@@ -0,0 +1,35 @@
+-- Índices e restrições usados pelo caminho quente da validação.
+
+-- 1. Chave PIX única. Bancos criados antes da restrição podem ter usuários repetidos:
+--    transações e blacklist passam a apontar para o usuário mais antigo de cada chave e os demais são removidos.
+CREATE TEMPORARY TABLE duplicated_users ON COMMIT DROP AS
+SELECT u.id, keeper.id AS keeper_id
+FROM users u
+JOIN (SELECT pix_key, MIN(id) AS id FROM users WHERE pix_key IS NOT NULL GROUP BY pix_key HAVING COUNT(*) > 1) keeper
+  ON keeper.pix_key = u.pix_key AND u.id <> keeper.id;
+
+UPDATE transactions t SET sender_id = d.keeper_id FROM duplicated_users d WHERE t.sender_id = d.id;
+UPDATE transactions t SET receiver_id = d.keeper_id FROM duplicated_users d WHERE t.receiver_id = d.id;
+UPDATE blacklist b SET user_id = d.keeper_id FROM duplicated_users d WHERE b.user_id = d.id;
+DELETE FROM receiver_stats s USING duplicated_users d WHERE s.receiver_id IN (d.id, d.keeper_id);
+DELETE FROM users u USING duplicated_users d WHERE u.id = d.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_pix_key ON users (pix_key);
+
+-- 2. Histórico do destinatário (findReceiverLast15Transactions e regras de frequência/média)
+CREATE INDEX IF NOT EXISTS idx_transactions_receiver_created ON transactions (receiver_id, created_date DESC);
+
+-- 3. Fila por status, com e sem filtro por motivo de fraude
+CREATE INDEX IF NOT EXISTS idx_transactions_status_created
+    ON transactions (status, created_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_status_reason_created
+    ON transactions (status, fraud_reason, created_date DESC, id DESC);
+
+-- 4. Carga do índice de blacklist e buscas por usuário
+CREATE INDEX IF NOT EXISTS idx_blacklist_user ON blacklist (user_id);
+
+-- 5. O ddl-auto=update criava CHECKs com os valores dos enums da época; novos valores seriam recusados.
+--    A validação dos valores fica com a aplicação.
+ALTER TABLE transactions DROP CONSTRAINT IF EXISTS transactions_status_check;
+ALTER TABLE transactions DROP CONSTRAINT IF EXISTS transactions_fraud_reason_check;
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_pix_key_type_check;
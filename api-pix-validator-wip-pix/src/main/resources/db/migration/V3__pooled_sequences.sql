@@ -0,0 +1,28 @@
+-- Ids passam a vir de sequências com incremento 50 (otimizador pooled do Hibernate): a aplicação reserva 50 ids
+-- por ida ao banco e as inserções deixam de precisar do id gerado na hora, o que libera o batch de JDBC.
+-- As colunas deixam de ser IDENTITY e usam a mesma sequência como default (o upsert nativo de usuários depende disso).
+
+DO $$
+DECLARE
+    entity RECORD;
+    max_id BIGINT;
+BEGIN
+    FOR entity IN SELECT * FROM (VALUES ('users', 'users_seq'),
+                                        ('transactions', 'transactions_seq'),
+                                        ('blacklist', 'blacklist_seq')) AS t (table_name, sequence_name)
+    LOOP
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', entity.table_name) INTO max_id;
+
+        -- Começa um bloco inteiro acima do maior id já usado: o Hibernate usa os 50 ids até o valor lido
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50 START WITH %s',
+                       entity.sequence_name, max_id + 51);
+
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', entity.table_name);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', entity.table_name, entity.sequence_name);
+        EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', entity.sequence_name, entity.table_name);
+    END LOOP;
+END;
+$$;
+
+-- Sequência antiga da tabela particionada (db/partitioning), substituída por transactions_seq
+DROP SEQUENCE IF EXISTS transactions_id_seq;
@@ -0,0 +1,19 @@
+-- Blacklist com uma linha por usuário e prazo de expiração.
+
+-- 1. Motivo da inclusão e fim do prazo (NULL = sem prazo)
+ALTER TABLE blacklist ADD COLUMN IF NOT EXISTS reason VARCHAR(255);
+ALTER TABLE blacklist ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP(6);
+
+-- 2. Cada reprovação gravava uma nova linha: fica a inclusão mais recente de cada usuário
+DELETE FROM blacklist b
+USING (SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY create_time DESC NULLS LAST, id DESC) AS position
+       FROM blacklist) ranked
+WHERE b.id = ranked.id AND ranked.position > 1;
+
+-- 3. Linhas antigas não têm motivo: recebem o prazo padrão (validator.blacklist.ttl.default) a partir da inclusão
+UPDATE blacklist SET expires_at = COALESCE(create_time, NOW()) + INTERVAL '30 days' WHERE expires_at IS NULL;
+
+-- 4. Usuário único (alvo do upsert), substituindo o índice simples da V2, e varredura por prazo
+DROP INDEX IF EXISTS idx_blacklist_user;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_blacklist_user ON blacklist (user_id);
+CREATE INDEX IF NOT EXISTS idx_blacklist_expires_at ON blacklist (expires_at);
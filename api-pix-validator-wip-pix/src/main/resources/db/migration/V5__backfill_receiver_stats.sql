@@ -0,0 +1,28 @@
+-- Uma linha de receiver_stats para todo destinatário que já recebeu transações.
+-- A gravação passa a somar cada lote à linha do destinatário com um upsert, sem reler o histórico: um destinatário
+-- antigo sem linha começaria do zero. Linhas que já existem não mudam.
+
+WITH ranked AS (
+    SELECT receiver_id,
+           COALESCE(value, 0) AS value,
+           -- Mesmo instante que ReceiverWindowCache.toEpochMillis (fuso da sessão, o mesmo da aplicação)
+           FLOOR(EXTRACT(EPOCH FROM COALESCE(created_date, last_updated_date)::TIMESTAMPTZ) * 1000)::BIGINT AS epoch_millis,
+           ROW_NUMBER() OVER (PARTITION BY receiver_id ORDER BY created_date DESC NULLS LAST, id DESC) - 1 AS age,
+           COUNT(*) OVER (PARTITION BY receiver_id) AS total
+    FROM transactions
+    WHERE receiver_id IS NOT NULL
+)
+INSERT INTO receiver_stats
+    (receiver_id, transaction_count, value_sum, value_sum_of_squares, ewma, window_times, window_values)
+SELECT receiver_id,
+       MAX(total),
+       SUM(value),
+       SUM(value * value),
+       -- Média móvel exponencial (alfa 0,2) só sobre a janela das últimas 15, começando pela mais antiga dela
+       SUM(CASE WHEN age = LEAST(total, 15) - 1 THEN power(0.8, age) ELSE 0.2 * power(0.8, age) END * value)
+           FILTER (WHERE age < 15),
+       COALESCE(array_agg(COALESCE(epoch_millis, 0) ORDER BY age DESC) FILTER (WHERE age < 15), '{}'),
+       COALESCE(array_agg(value ORDER BY age DESC) FILTER (WHERE age < 15), '{}')
+FROM ranked
+GROUP BY receiver_id
+ON CONFLICT (receiver_id) DO NOTHING;
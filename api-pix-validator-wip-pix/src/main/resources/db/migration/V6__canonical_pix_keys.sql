@@ -0,0 +1,88 @@
+-- Chaves PIX na forma canônica do PixKeyNormalizer. As requisições passaram a chegar normalizadas, então uma chave
+-- gravada antes com outra formatação ("529.982.247-25", "(11) 98765-4321", "Foo@Bar.com") não seria mais encontrada
+-- e a mesma chave ganharia um segundo usuário.
+
+-- 1. Forma canônica de cada chave. Chaves inválidas para o tipo ficam como estão (a aplicação já as recusa na entrada).
+CREATE TEMPORARY TABLE canonical_keys ON COMMIT DROP AS
+SELECT id,
+       pix_key,
+       COALESCE(CASE pix_key_type
+                    WHEN 'CPF' THEN
+                        CASE WHEN regexp_replace(trimmed, '[. -]', '', 'g') ~ '^[0-9]{11}$'
+                             THEN regexp_replace(trimmed, '[. -]', '', 'g') END
+                    WHEN 'PHONE' THEN
+                        CASE WHEN regexp_replace(trimmed, '[ ().-]', '', 'g') ~ '^\+[1-9][0-9]{7,14}$'
+                             THEN regexp_replace(trimmed, '[ ().-]', '', 'g')
+                             -- Sem +, 10 ou 11 dígitos são número brasileiro com DDD
+                             WHEN regexp_replace(trimmed, '[ ().-]', '', 'g') ~ '^[0-9]{10,11}$'
+                             THEN '+55' || regexp_replace(trimmed, '[ ().-]', '', 'g') END
+                    WHEN 'EMAIL' THEN lower(trimmed)
+                    WHEN 'RANDOM' THEN
+                        CASE WHEN trimmed ~ '^[0-9A-Fa-f]{8}-[0-9A-Fa-f]{4}-[0-9A-Fa-f]{4}-[0-9A-Fa-f]{4}-[0-9A-Fa-f]{12}$'
+                             THEN lower(trimmed)
+                             WHEN trimmed ~ '^[0-9A-Fa-f]{32}$'
+                             THEN lower(regexp_replace(trimmed, '^(.{8})(.{4})(.{4})(.{4})(.{12})$', '\1-\2-\3-\4-\5')) END
+                END, pix_key) AS canonical
+FROM (SELECT id, pix_key, pix_key_type, btrim(pix_key) AS trimmed FROM users WHERE pix_key IS NOT NULL) keys;
+
+-- 2. Chaves que viraram a mesma: como na V2, fica o usuário mais antigo e os demais são removidos
+CREATE TEMPORARY TABLE merged_users ON COMMIT DROP AS
+SELECT k.id, keeper.id AS keeper_id
+FROM canonical_keys k
+JOIN (SELECT canonical, MIN(id) AS id FROM canonical_keys GROUP BY canonical HAVING COUNT(*) > 1) keeper
+  ON keeper.canonical = k.canonical AND k.id <> keeper.id;
+
+-- 3. Uma linha de blacklist por usuário (uk_blacklist_user): fica a de prazo mais longo do grupo
+DELETE FROM blacklist b
+USING (SELECT b.id,
+              ROW_NUMBER() OVER (PARTITION BY COALESCE(m.keeper_id, b.user_id)
+                                 ORDER BY b.expires_at DESC NULLS FIRST, b.id DESC) AS position
+       FROM blacklist b
+       LEFT JOIN merged_users m ON m.id = b.user_id
+       WHERE b.user_id IN (SELECT id FROM merged_users UNION SELECT keeper_id FROM merged_users)) ranked
+WHERE b.id = ranked.id AND ranked.position > 1;
+
+UPDATE blacklist b SET user_id = m.keeper_id FROM merged_users m WHERE b.user_id = m.id;
+UPDATE transactions t SET sender_id = m.keeper_id FROM merged_users m WHERE t.sender_id = m.id;
+UPDATE transactions t SET receiver_id = m.keeper_id FROM merged_users m WHERE t.receiver_id = m.id;
+
+-- 4. As estatísticas dos usuários que sobraram são refeitas a partir das transações, como na V5
+DELETE FROM receiver_stats s USING merged_users m WHERE s.receiver_id IN (m.id, m.keeper_id);
+
+WITH ranked AS (
+    SELECT receiver_id,
+           COALESCE(value, 0) AS value,
+           FLOOR(EXTRACT(EPOCH FROM COALESCE(created_date, last_updated_date)::TIMESTAMPTZ) * 1000)::BIGINT AS epoch_millis,
+           ROW_NUMBER() OVER (PARTITION BY receiver_id ORDER BY created_date DESC NULLS LAST, id DESC) - 1 AS age,
+           COUNT(*) OVER (PARTITION BY receiver_id) AS total
+    FROM transactions
+    WHERE receiver_id IN (SELECT keeper_id FROM merged_users)
+)
+INSERT INTO receiver_stats
+    (receiver_id, transaction_count, value_sum, value_sum_of_squares, ewma, window_times, window_values)
+SELECT receiver_id,
+       MAX(total),
+       SUM(value),
+       SUM(value * value),
+       SUM(CASE WHEN age = LEAST(total, 15) - 1 THEN power(0.8, age) ELSE 0.2 * power(0.8, age) END * value)
+           FILTER (WHERE age < 15),
+       COALESCE(array_agg(COALESCE(epoch_millis, 0) ORDER BY age DESC) FILTER (WHERE age < 15), '{}'),
+       COALESCE(array_agg(value ORDER BY age DESC) FILTER (WHERE age < 15), '{}')
+FROM ranked
+GROUP BY receiver_id
+ON CONFLICT (receiver_id) DO NOTHING;
+
+DELETE FROM users u USING merged_users m WHERE u.id = m.id;
+
+-- 5. Grava as chaves canônicas. O índice único sai durante a troca: uma linha pode receber a chave que outra
+--    ainda tem na forma antiga (um PHONE "52998224725" e um CPF "529.982.247-25", por exemplo).
+DROP INDEX IF EXISTS uk_users_pix_key;
+
+UPDATE users u
+SET pix_key = k.canonical,
+    -- Usuários provisórios de CPF guardam a chave também em cpf
+    cpf     = CASE WHEN u.pix_key_type = 'CPF' AND u.cpf = u.pix_key THEN k.canonical ELSE u.cpf END
+FROM canonical_keys k
+WHERE u.id = k.id AND u.pix_key <> k.canonical;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_pix_key ON users (pix_key);
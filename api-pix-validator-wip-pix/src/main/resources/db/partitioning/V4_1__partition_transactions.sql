@@ -0,0 +1,86 @@
+-- Opcional: particiona transactions por mês de created_date (PostgreSQL 11+).
+-- Só roda se classpath:db/partitioning estiver em spring.flyway.locations; ative antes das migrações seguintes.
+-- Numerada logo depois da V4: bancos migrados até a V4 a aplicam normalmente. Em um banco que já aplicou uma versão
+-- maior, o Flyway só a aceita com spring.flyway.out-of-order=true.
+-- Consultas por destinatário e pela fila de status com intervalo de datas passam a ler só as partições do período.
+
+CREATE TABLE transactions_partitioned (
+    id                BIGINT       NOT NULL DEFAULT nextval('transactions_seq'),
+    sender_id         BIGINT REFERENCES users (id),
+    receiver_id       BIGINT REFERENCES users (id),
+    value             DOUBLE PRECISION,
+    description       VARCHAR(255),
+    status            VARCHAR(255),
+    fraud_reason      VARCHAR(255),
+    created_date      TIMESTAMP(6) NOT NULL,
+    last_updated_date TIMESTAMP(6),
+    -- A chave de partição precisa fazer parte da chave primária
+    PRIMARY KEY (id, created_date)
+) PARTITION BY RANGE (created_date);
+
+-- Linhas sem partição mensal (meses ainda não criados) caem aqui
+CREATE TABLE transactions_default PARTITION OF transactions_partitioned DEFAULT;
+
+-- Uma partição por mês, do mês da transação mais antiga até 12 meses à frente, criadas antes da cópia
+DO $$
+DECLARE
+    month DATE;
+BEGIN
+    FOR month IN SELECT generate_series(
+                        date_trunc('month', COALESCE((SELECT MIN(created_date) FROM transactions), now())),
+                        date_trunc('month', now()) + INTERVAL '12 months',
+                        INTERVAL '1 month')::DATE
+    LOOP
+        EXECUTE format(
+                'CREATE TABLE %I PARTITION OF transactions_partitioned FOR VALUES FROM (%L) TO (%L)',
+                'transactions_' || to_char(month, 'YYYY_MM'), month, (month + INTERVAL '1 month')::DATE);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO transactions_partitioned
+    (id, sender_id, receiver_id, value, description, status, fraud_reason, created_date, last_updated_date)
+SELECT id, sender_id, receiver_id, value, description, status, fraud_reason,
+       COALESCE(created_date, last_updated_date, now()), last_updated_date
+FROM transactions;
+
+-- transactions_seq (V3) já está acima do maior id; ela pertence à tabela antiga e cairia junto com ela
+ALTER SEQUENCE transactions_seq OWNED BY NONE;
+DROP TABLE transactions;
+ALTER TABLE transactions_partitioned RENAME TO transactions;
+ALTER SEQUENCE transactions_seq OWNED BY transactions.id;
+ALTER INDEX transactions_partitioned_pkey RENAME TO transactions_pkey;
+
+-- Cria (se ainda não existir) a partição do mês de uma data. Deve ser agendada para os meses além dos 12 já criados
+-- (ex.: pg_cron), com folga. Se o agendamento atrasar, as linhas do mês vão para transactions_default e as gravações
+-- continuam; a partição padrão, porém, impediria criar o mês depois. Nesse caso a função tira a partição padrão,
+-- cria o mês, move para ele as linhas do período e devolve a padrão, tudo na mesma transação: as gravações em
+-- transactions esperam o lock durante a cópia, mas nenhuma falha nem fica no lugar errado.
+CREATE OR REPLACE FUNCTION create_transactions_partition(month DATE) RETURNS VOID AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month)::DATE;
+    next_month DATE := (date_trunc('month', month) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'transactions_' || to_char(date_trunc('month', month), 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM transactions_default WHERE created_date >= first_day AND created_date < next_month) THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, first_day, next_month);
+        RETURN;
+    END IF;
+
+    ALTER TABLE transactions DETACH PARTITION transactions_default;
+    EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, first_day, next_month);
+    INSERT INTO transactions SELECT * FROM transactions_default WHERE created_date >= first_day AND created_date < next_month;
+    DELETE FROM transactions_default WHERE created_date >= first_day AND created_date < next_month;
+    ALTER TABLE transactions ATTACH PARTITION transactions_default DEFAULT;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE INDEX idx_transactions_receiver_created ON transactions (receiver_id, created_date DESC);
+CREATE INDEX idx_transactions_status_created ON transactions (status, created_date DESC, id DESC);
+CREATE INDEX idx_transactions_status_reason_created ON transactions (status, fraud_reason, created_date DESC, id DESC);
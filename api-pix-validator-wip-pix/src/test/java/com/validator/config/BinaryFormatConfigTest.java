@@ -0,0 +1,68 @@
+package com.validator.config;
+
+import com.validator.controller.responses.TransactionResponse;
+import com.validator.controller.responses.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryFormatConfigTest {
+
+    private final BinaryFormatConfig config = new BinaryFormatConfig();
+
+    @Test
+    void testConverters_RoundTripResponseInBinaryFormats() throws IOException {
+        TransactionResponse response = response();
+
+        for (AbstractJackson2HttpMessageConverter converter : List.of(
+                config.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder()),
+                config.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder()))) {
+            MockHttpOutputMessage output = new MockHttpOutputMessage();
+            converter.write(response, converter.getSupportedMediaTypes().get(0), output);
+
+            TransactionResponse read = (TransactionResponse) converter.read(
+                    TransactionResponse.class, new MockHttpInputMessage(output.getBodyAsBytes()));
+            assertEquals(response, read);
+        }
+    }
+
+    @Test
+    void testConverters_JsonStaysTheDefaultWithoutAccept() {
+        HttpMessageConverters converters = new HttpMessageConverters(
+                config.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder()),
+                config.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder()));
+
+        List<Class<?>> jacksonConverters = new ArrayList<>();
+        for (HttpMessageConverter<?> converter : converters.getConverters()) {
+            if (converter instanceof AbstractJackson2HttpMessageConverter
+                    && converter.canWrite(TransactionResponse.class, MediaType.ALL)) {
+                jacksonConverters.add(converter.getClass());
+            }
+        }
+
+        assertEquals(MappingJackson2HttpMessageConverter.class, jacksonConverters.get(0));
+        assertTrue(jacksonConverters.contains(MappingJackson2CborHttpMessageConverter.class));
+        assertTrue(jacksonConverters.contains(MappingJackson2SmileHttpMessageConverter.class));
+    }
+
+    private static TransactionResponse response() {
+        UserResponse sender = new UserResponse(1L, "CPF não localizado", "Usuário não localizado", "a@b.com", "EMAIL");
+        UserResponse receiver = new UserResponse(2L, "CPF não localizado", "Usuário não localizado", "c@d.com", "EMAIL");
+        return new TransactionResponse(10L, sender, receiver, 120.0, "pagamento", "FAILED", "STRANGE_VALUE",
+                "Valor fora do padrão");
+    }
+}
@@ -0,0 +1,35 @@
+package com.validator.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiverStatsTest {
+
+    @Test
+    void testAdd_KeepsRunningTotalsAndLastWindow() {
+        ReceiverStats stats = new ReceiverStats(1L);
+
+        for (int i = 1; i <= 20; i++) {
+            stats.add(i, i);
+        }
+
+        assertEquals(20, stats.getTransactionCount());
+        assertEquals(10.5, stats.mean(), 1e-9);
+        assertEquals(33.25, stats.variance(), 1e-9);
+        assertEquals(ReceiverStats.WINDOW_SIZE, stats.getWindowValues().length);
+        assertEquals(6.0, stats.getWindowValues()[0]);
+        assertEquals(20L, stats.getWindowTimes()[ReceiverStats.WINDOW_SIZE - 1]);
+    }
+
+    @Test
+    void testAdd_EwmaStartsAtFirstValue() {
+        ReceiverStats stats = new ReceiverStats(1L);
+
+        stats.add(0, 100.0);
+        assertEquals(100.0, stats.getEwma());
+
+        stats.add(1, 200.0);
+        assertEquals(120.0, stats.getEwma(), 1e-9);
+    }
+}
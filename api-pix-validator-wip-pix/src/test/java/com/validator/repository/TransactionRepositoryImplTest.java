@@ -0,0 +1,142 @@
+package com.validator.repository;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.PixType;
+import com.validator.model.enums.TransactionStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        // "value" é palavra reservada no H2
+        "spring.datasource.url=jdbc:h2:mem:transactions;NON_KEYWORDS=VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // As migrações são específicas do PostgreSQL; no H2 o esquema vem das entidades
+        "spring.flyway.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TransactionRepositoryImpl.class, UserRepositoryImpl.class})
+class TransactionRepositoryImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionRepositoryImpl transactionRepository;
+
+    private static final TransactionFilter SUCCESS = new TransactionFilter(TransactionStatus.SUCCESS, null, null, null);
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testFindAll_SingleStatementRegardlessOfSize() {
+        persistTransactions(3);
+        assertEquals(1, statementsFor(() -> assertEquals(3, transactionRepository.findAll().size())));
+
+        persistTransactions(20);
+        assertEquals(1, statementsFor(() -> assertEquals(23, transactionRepository.findAll().size())));
+    }
+
+    @Test
+    void testFindByStatus_SingleStatementRegardlessOfSize() {
+        persistTransactions(2);
+        long small = statementsFor(() -> transactionRepository.findByStatus(SUCCESS, null, 100));
+
+        persistTransactions(12);
+        long large = statementsFor(() -> transactionRepository.findByStatus(SUCCESS, null, 100));
+
+        assertEquals(1, small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void testFindPage_SingleStatementAndUsersLoaded() {
+        persistTransactions(10);
+
+        long statements = statementsFor(() -> transactionRepository.findPage(null, 5)
+                .forEach(transaction -> assertNotNull(transaction.toResponse().getSender().getPixKey())));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void testFindByStatus_KeysetWalksAllRowsWithEqualDates() {
+        LocalDateTime sameInstant = LocalDateTime.of(2025, 1, 1, 12, 0);
+        persistTransactions(5, sameInstant, FraudReason.SUSPICIOUS_DESCRIPTION);
+        persistTransactions(2, sameInstant, FraudReason.SUSPICIOUS_PIX_KEY);
+        TransactionFilter filter = new TransactionFilter(
+                TransactionStatus.PENDING_REVIEW, FraudReason.SUSPICIOUS_DESCRIPTION, sameInstant, sameInstant.plusDays(1));
+
+        List<Long> seen = new ArrayList<>();
+        StatusCursor cursor = null;
+        do {
+            List<Transaction> page = transactionRepository.findByStatus(filter, cursor, 2);
+            page.forEach(transaction -> seen.add(transaction.getId()));
+            Transaction last = page.isEmpty() ? null : page.get(page.size() - 1);
+            cursor = page.size() < 2 ? null : new StatusCursor(last.getCreatedDate(), last.getId());
+        } while (Objects.nonNull(cursor));
+
+        assertEquals(5, seen.size());
+        assertEquals(seen.stream().sorted(Comparator.reverseOrder()).toList(), seen);
+    }
+
+    private long statementsFor(Runnable query) {
+        entityManager.clear();
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void persistTransactions(int count) {
+        persistTransactions(count, LocalDateTime.now(), null);
+    }
+
+    private void persistTransactions(int count, LocalDateTime createdDate, FraudReason fraudReason) {
+        for (int i = 0; i < count; i++) {
+            // Remetente e destinatário distintos por transação: o pior caso para N+1
+            User sender = entityManager.persist(new User(null, null, "Sender", PixType.EMAIL, "sender" + System.nanoTime() + "@example.com"));
+            User receiver = entityManager.persist(new User(null, null, "Receiver", PixType.EMAIL, "receiver" + System.nanoTime() + "@example.com"));
+
+            Transaction transaction = new Transaction();
+            transaction.setSender(sender);
+            transaction.setReceiver(receiver);
+            transaction.setValue(100.0);
+            transaction.setStatus(Objects.isNull(fraudReason) ? TransactionStatus.SUCCESS : TransactionStatus.PENDING_REVIEW);
+            transaction.setFraudReason(fraudReason);
+            transaction.setCreatedDate(createdDate);
+            entityManager.persist(transaction);
+        }
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,150 @@
+package com.validator.repository.cache;
+
+import com.validator.repository.BlackListExpiry;
+import com.validator.repository.BlackListRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class BlackListIndexTest {
+
+    private BlackListRepositoryImpl blackListRepository;
+    private AtomicLong clock;
+    private BlackListIndex blackListIndex;
+
+    @BeforeEach
+    void setup() {
+        blackListRepository = mock(BlackListRepositoryImpl.class);
+        clock = new AtomicLong(Instant.parse("2025-01-01T10:00:00Z").toEpochMilli());
+        blackListIndex = new BlackListIndex(blackListRepository, Duration.ofSeconds(1), 2, clock::get);
+    }
+
+    @Test
+    void testLoad_IndexesActiveUsersAndPurgesExpired() {
+        when(blackListRepository.findActive(any())).thenReturn(Arrays.asList(
+                new BlackListExpiry(1L, null), new BlackListExpiry(2L, at(60)), new BlackListExpiry(null, null),
+                new BlackListExpiry(3L, at(3600))));
+
+        blackListIndex.load();
+
+        assertEquals(3, blackListIndex.size());
+        assertTrue(blackListIndex.contains(2L));
+        assertFalse(blackListIndex.contains(4L));
+        verify(blackListRepository).deleteAllExpired(at(0));
+    }
+
+    @Test
+    void testContains_CountsHitsAndMisses() {
+        blackListIndex.add(10L);
+
+        blackListIndex.contains(10L);
+        blackListIndex.contains(10L);
+        blackListIndex.contains(11L);
+
+        assertEquals(2, blackListIndex.getHits());
+        assertEquals(1, blackListIndex.getMisses());
+        verify(blackListRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    void testAdd_GrowsBeyondInitialCapacity() {
+        for (long id = 1; id <= 5000; id++) {
+            blackListIndex.add(id);
+        }
+
+        assertEquals(5000, blackListIndex.size());
+        assertTrue(blackListIndex.contains(4999L));
+        assertFalse(blackListIndex.contains(5001L));
+    }
+
+    @Test
+    void testContains_NullIdIsNeverBlacklisted() {
+        when(blackListRepository.findActive(any())).thenReturn(List.of());
+        blackListIndex.load();
+
+        assertFalse(blackListIndex.contains(null));
+    }
+
+    @Test
+    void testContains_StopsCountingOnceExpiredEvenBeforeSweep() {
+        blackListIndex.add(7L, at(30));
+
+        clock.addAndGet(29_000);
+        assertTrue(blackListIndex.contains(7L));
+
+        clock.addAndGet(1_000);
+        assertFalse(blackListIndex.contains(7L));
+    }
+
+    @Test
+    void testSweep_EvictsExpiredUsersAndDeletesThemInBatches() {
+        blackListIndex.add(1L, at(10));
+        blackListIndex.add(2L, at(20));
+        blackListIndex.add(3L, at(20));
+        blackListIndex.add(4L, at(5000));
+        blackListIndex.add(5L);
+
+        clock.addAndGet(25_000);
+        assertEquals(3, blackListIndex.sweep());
+
+        assertEquals(2, blackListIndex.size());
+        assertTrue(blackListIndex.contains(4L));
+        assertEquals(3, blackListIndex.getEvictions());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(blackListRepository, times(2)).deleteExpired(batches.capture(), any());
+        assertEquals(List.of(1L, 2L, 3L), batches.getAllValues().stream().flatMap(Collection::stream).sorted().toList());
+    }
+
+    @Test
+    void testSweep_KeepsUserRenewedBeforeFirstDeadline() {
+        blackListIndex.add(1L, at(10));
+        blackListIndex.add(1L, at(100_000));
+
+        clock.addAndGet(20_000);
+        assertEquals(0, blackListIndex.sweep());
+
+        assertTrue(blackListIndex.contains(1L));
+        verify(blackListRepository, never()).deleteExpired(anyCollection(), any());
+
+        // Prazo de mais de um dia: passa pelos níveis altos da roda e vence no tique certo
+        clock.addAndGet(Duration.ofSeconds(100_000 - 20 - 1).toMillis());
+        assertEquals(0, blackListIndex.sweep());
+        clock.addAndGet(1_000);
+        assertEquals(1, blackListIndex.sweep());
+    }
+
+    @Test
+    void testExtend_NeverShortensExistingDeadline() {
+        blackListIndex.add(1L, at(100));
+        blackListIndex.extend(1L, at(10));
+        blackListIndex.extend(2L, at(10));
+
+        clock.addAndGet(20_000);
+
+        assertTrue(blackListIndex.contains(1L));
+        assertFalse(blackListIndex.contains(2L));
+        verify(blackListRepository, never()).upsert(any());
+    }
+
+    private LocalDateTime at(long secondsFromStart) {
+        return LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(Instant.parse("2025-01-01T10:00:00Z").toEpochMilli() + secondsFromStart * 1000),
+                ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,104 @@
+package com.validator.repository.cache;
+
+import com.validator.model.ReceiverStats;
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.repository.TransactionRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReceiverWindowCacheTest {
+
+    private TransactionRepositoryImpl transactionRepository;
+    private ReceiverWindowCache receiverWindowCache;
+    private User receiver;
+
+    @BeforeEach
+    void setup() {
+        transactionRepository = mock(TransactionRepositoryImpl.class);
+        receiverWindowCache = new ReceiverWindowCache(transactionRepository, 1000);
+
+        receiver = new User();
+        receiver.setId(2L);
+    }
+
+    @Test
+    void testGet_HydratesOnlyOnce() {
+        when(transactionRepository.findReceiverLast15Transactions(2L))
+                .thenReturn(List.of(createTx(100.0, 1), createTx(300.0, 2)));
+
+        ReceiverWindow first = receiverWindowCache.get(2L);
+        ReceiverWindow second = receiverWindowCache.get(2L);
+
+        assertSame(first, second);
+        assertEquals(2, first.size());
+        assertEquals(200.0, first.average());
+        verify(transactionRepository, times(1)).findReceiverLast15Transactions(2L);
+    }
+
+    @Test
+    void testGet_HydratesFromReceiverStats() {
+        ReceiverStats stats = new ReceiverStats(2L);
+        for (int i = 1; i <= 20; i++) {
+            stats.add(System.currentTimeMillis(), i);
+        }
+        when(transactionRepository.findReceiverStats(2L)).thenReturn(Optional.of(stats));
+
+        ReceiverWindow window = receiverWindowCache.get(2L);
+
+        assertEquals(ReceiverWindowCache.WINDOW_SIZE, window.size());
+        assertEquals(13.0, window.average());
+        verify(transactionRepository, never()).findReceiverLast15Transactions(any());
+    }
+
+    @Test
+    void testRecord_UpdatesCachedWindow() {
+        when(transactionRepository.findReceiverLast15Transactions(2L)).thenReturn(List.of());
+        receiverWindowCache.get(2L);
+
+        receiverWindowCache.record(createTx(50.0, 0));
+
+        ReceiverWindow window = receiverWindowCache.get(2L);
+        assertEquals(1, window.size());
+        assertEquals(1, window.countWithinMinutes(System.currentTimeMillis(), 5));
+        verify(transactionRepository, times(1)).findReceiverLast15Transactions(2L);
+    }
+
+    @Test
+    void testEvict_RehydratesFromDatabase() {
+        when(transactionRepository.findReceiverLast15Transactions(2L)).thenReturn(List.of());
+        receiverWindowCache.get(2L);
+
+        receiverWindowCache.evict(2L);
+        receiverWindowCache.get(2L);
+
+        verify(transactionRepository, times(2)).findReceiverLast15Transactions(2L);
+    }
+
+    @Test
+    void testWindow_KeepsOnlyLastEntries() {
+        ReceiverWindow window = new ReceiverWindow(ReceiverWindowCache.WINDOW_SIZE);
+
+        for (int i = 1; i <= 20; i++) {
+            window.add(System.currentTimeMillis(), i);
+        }
+
+        assertEquals(ReceiverWindowCache.WINDOW_SIZE, window.size());
+        assertEquals(13.0, window.average());
+    }
+
+    private Transaction createTx(double value, int minutesAgo) {
+        Transaction t = new Transaction();
+        t.setReceiver(receiver);
+        t.setValue(value);
+        t.setCreatedDate(LocalDateTime.now().minusMinutes(minutesAgo));
+        return t;
+    }
+}
@@ -0,0 +1,238 @@
+package com.validator.repository.journal;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import com.validator.repository.TransactionRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class DecisionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private TransactionRepositoryImpl transactionRepository;
+    private List<DecisionJournal> journals;
+
+    @BeforeEach
+    void setup() {
+        transactionRepository = mock(TransactionRepositoryImpl.class);
+        when(transactionRepository.nextTransactionIdBlock()).thenReturn(50L, 100L, 150L);
+        journals = new ArrayList<>();
+    }
+
+    @AfterEach
+    void teardown() throws InterruptedException {
+        for (DecisionJournal journal : journals) {
+            journal.stop();
+        }
+    }
+
+    @Test
+    void testAppend_AssignsIdsFromSequenceBlocks() throws IOException {
+        DecisionJournal journal = start(DataSize.ofKilobytes(64));
+
+        assertEquals(1L, journal.append(transaction(10.0)).getId());
+        assertEquals(2L, journal.append(transaction(20.0)).getId());
+        assertEquals(2, journal.pendingCount());
+        assertTrue(journal.findPending(2L).isPresent());
+    }
+
+    @Test
+    void testAppend_KeepsTheDecisionInstant() throws IOException {
+        DecisionJournal journal = start(DataSize.ofKilobytes(64));
+        Transaction decided = transaction(10.0);
+        LocalDateTime decidedAt = LocalDateTime.now().minusSeconds(1);
+        decided.setCreatedDate(decidedAt);
+
+        journal.append(decided);
+
+        assertEquals(decidedAt, journal.findPending(decided.getId()).orElseThrow().getCreatedDate());
+        assertTrue(decided.getLastUpdatedDate().isAfter(decidedAt));
+    }
+
+    @Test
+    void testStart_ReplaysUnflushedRecords() throws IOException, InterruptedException {
+        doThrow(new IllegalStateException("db down")).when(transactionRepository).insertJournaled(anyList());
+
+        DecisionJournal first = start(DataSize.ofKilobytes(64));
+        Transaction original = transaction(42.5);
+        original.setFraudReason(FraudReason.STRANGE_VALUE);
+        first.append(original);
+        first.append(transaction(7.0));
+        first.stop();
+        journals.remove(first);
+
+        reset(transactionRepository);
+        DecisionJournal second = start(DataSize.ofKilobytes(64));
+
+        ArgumentCaptor<List<Transaction>> flushed = ArgumentCaptor.captor();
+        verify(transactionRepository).insertJournaled(flushed.capture());
+        Transaction replayed = flushed.getValue().get(0);
+        assertEquals(2, flushed.getValue().size());
+        assertEquals(original.getId(), replayed.getId());
+        assertEquals(42.5, replayed.getValue());
+        assertEquals(FraudReason.STRANGE_VALUE, replayed.getFraudReason());
+        assertEquals(2L, replayed.getReceiver().getId());
+        assertEquals(original.getCreatedDate(), replayed.getCreatedDate());
+        assertEquals(0, second.pendingCount());
+    }
+
+    @Test
+    void testStart_SkipsRecordsAlreadyFlushedBeforeACrash() throws IOException {
+        DecisionJournal first = start(DataSize.ofKilobytes(64));
+        first.append(transaction(1.0));
+        first.append(transaction(2.0));
+        first.flushQuietly();
+
+        doThrow(new IllegalStateException("db down")).when(transactionRepository).insertJournaled(anyList());
+        Transaction unflushed = first.append(transaction(3.0));
+        first.flushQuietly();
+
+        // Queda: sem stop, o arquivo fica aberto e sem selo; as duas primeiras linhas já estão no banco
+        reset(transactionRepository);
+        start(DataSize.ofKilobytes(64));
+
+        ArgumentCaptor<List<Transaction>> flushed = ArgumentCaptor.captor();
+        verify(transactionRepository).insertJournaled(flushed.capture());
+        assertEquals(List.of(unflushed.getId()), flushed.getValue().stream().map(Transaction::getId).toList());
+    }
+
+    @Test
+    void testFlushPending_WritesTheTransactionBeforeReturning() throws IOException {
+        DecisionJournal journal = start(DataSize.ofKilobytes(64));
+        Transaction transaction = journal.append(transaction(5.0));
+
+        journal.flushPending(transaction.getId());
+
+        assertTrue(journal.findPending(transaction.getId()).isEmpty());
+        verify(transactionRepository).insertJournaled(List.of(transaction));
+    }
+
+    @Test
+    void testAppend_ConcurrentWritersWithFsyncAllBecomeDurable() throws Exception {
+        DecisionJournal journal = new DecisionJournal(
+                transactionRepository, true, directory, DataSize.ofKilobytes(64), true, Duration.ofHours(1), 500);
+        journal.start();
+        journals.add(journal);
+
+        Set<Long> ids = new HashSet<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Transaction>> appends = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                double value = i;
+                appends.add(executor.submit(() -> journal.append(transaction(value))));
+            }
+            for (Future<Transaction> append : appends) {
+                ids.add(append.get().getId());
+            }
+        }
+
+        assertEquals(40, ids.size());
+        assertEquals(40, journal.pendingCount());
+        verify(transactionRepository, times(1)).nextTransactionIdBlock();
+    }
+
+    @Test
+    void testStart_StopsReplayAtCorruptedRecord() throws IOException, InterruptedException {
+        doThrow(new IllegalStateException("db down")).when(transactionRepository).insertJournaled(anyList());
+
+        DecisionJournal first = start(DataSize.ofKilobytes(64));
+        first.append(transaction(1.0));
+        first.append(transaction(2.0));
+        first.stop();
+        journals.remove(first);
+
+        // Um byte trocado no conteúdo do segundo registro invalida o checksum
+        Path segment = segments().get(0);
+        int firstRecordSize = 8 + DecisionJournal.encode(withIds(transaction(1.0))).length;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(firstRecordSize + 8 + 3);
+            file.write(0x7F);
+        }
+
+        reset(transactionRepository);
+        start(DataSize.ofKilobytes(64));
+
+        ArgumentCaptor<List<Transaction>> flushed = ArgumentCaptor.captor();
+        verify(transactionRepository).insertJournaled(flushed.capture());
+        assertEquals(1, flushed.getValue().size());
+    }
+
+    @Test
+    void testFlush_DeletesRotatedSegmentsOnceWritten() throws IOException {
+        DecisionJournal journal = start(DataSize.ofBytes(256));
+
+        for (int i = 0; i < 10; i++) {
+            journal.append(transaction(i));
+        }
+        assertTrue(segments().size() > 1);
+
+        journal.flushQuietly();
+
+        assertEquals(0, journal.pendingCount());
+        assertEquals(1, segments().size());
+        verify(transactionRepository, atLeastOnce()).insertJournaled(anyList());
+    }
+
+    private DecisionJournal start(DataSize segmentSize) throws IOException {
+        DecisionJournal journal = new DecisionJournal(
+                transactionRepository, true, directory, segmentSize, false, Duration.ofHours(1), 500);
+        journal.start();
+        journals.add(journal);
+        return journal;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalSegment::isSegment).sorted().toList();
+        }
+    }
+
+    private static Transaction transaction(double value) {
+        User sender = new User();
+        sender.setId(1L);
+        User receiver = new User();
+        receiver.setId(2L);
+
+        Transaction transaction = new Transaction();
+        transaction.setSender(sender);
+        transaction.setReceiver(receiver);
+        transaction.setValue(value);
+        transaction.setDescription("pagamento");
+        transaction.setStatus(TransactionStatus.FAILED);
+        return transaction;
+    }
+
+    private static Transaction withIds(Transaction transaction) {
+        transaction.setId(1L);
+        transaction.setCreatedDate(LocalDateTime.now());
+        transaction.setLastUpdatedDate(transaction.getCreatedDate());
+        return transaction;
+    }
+}
@@ -0,0 +1,74 @@
+package com.validator.service;
+
+import com.validator.model.BlackList;
+import com.validator.model.User;
+import com.validator.model.enums.FraudReason;
+import com.validator.repository.BlackListRepositoryImpl;
+import com.validator.repository.cache.BlackListIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BlackListServiceTest {
+
+    private BlackListRepositoryImpl blackListRepository;
+    private BlackListIndex blackListIndex;
+    private BlackListService blackListService;
+
+    private User sender;
+    private User receiver;
+
+    @BeforeEach
+    void setup() {
+        blackListRepository = mock(BlackListRepositoryImpl.class);
+        blackListIndex = new BlackListIndex(blackListRepository, Duration.ofSeconds(1), 500);
+        blackListService = new BlackListService(blackListRepository, blackListIndex, BlackListTtl.DEFAULTS);
+        when(blackListRepository.upsert(any())).thenAnswer(invocation -> invocation.getArgument(0, BlackList.class).getExpiresAt());
+
+        sender = new User();
+        sender.setId(1L);
+
+        receiver = new User();
+        receiver.setId(2L);
+    }
+
+    @Test
+    void testIsBlacklisted_TrueWhenFound() {
+        blackListIndex.add(1L);
+        assertTrue(blackListService.isBlacklisted(sender));
+        verify(blackListRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    void testIsBlacklisted_FalseWhenNotFound() {
+        assertFalse(blackListService.isBlacklisted(sender));
+        verify(blackListRepository, never()).findByUserId(any());
+    }
+
+    @Test
+    void testIsBlacklisted_NullId() {
+        sender.setId(null);
+        assertFalse(blackListService.isBlacklisted(sender));
+    }
+
+    @Test
+    void testAddUserToBlackList_UpsertsWithExpirationOfReason() {
+        ArgumentCaptor<BlackList> captor = ArgumentCaptor.forClass(BlackList.class);
+
+        blackListService.addUserToBlackList(receiver, FraudReason.HIGH_FREQUENCY);
+        verify(blackListRepository).upsert(captor.capture());
+
+        BlackList saved = captor.getValue();
+        assertEquals(receiver, saved.getUser());
+        assertEquals(FraudReason.HIGH_FREQUENCY, saved.getReason());
+        assertEquals(saved.getCreateTime().plusHours(24), saved.getExpiresAt());
+        assertTrue(blackListService.isBlacklisted(receiver));
+        verify(blackListRepository, never()).save(any());
+    }
+}
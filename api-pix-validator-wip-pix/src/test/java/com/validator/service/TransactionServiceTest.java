@@ -2,21 +2,30 @@ package com.validator.service;
 
 import com.validator.controller.requests.TransactionRequest;
 import com.validator.controller.requests.UserRequest;
+import com.validator.controller.responses.TransactionPage;
 import com.validator.controller.responses.TransactionResponse;
 import com.validator.model.Transaction;
 import com.validator.model.User;
 import com.validator.model.enums.PixType;
 import com.validator.model.enums.TransactionStatus;
+import com.validator.repository.StatusCursor;
+import com.validator.repository.TransactionFilter;
 import com.validator.repository.TransactionRepositoryImpl;
+import com.validator.repository.cache.ReceiverWindowCache;
+import com.validator.repository.journal.DecisionJournal;
+import com.validator.service.metrics.ValidationMetrics;
+import com.validator.service.metrics.ValidationMetrics.Stage;
 import com.validator.service.validators.TransactionValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +40,18 @@ class TransactionServiceTest {
     @Mock
     private TransactionValidator validator;
 
+    @Mock
+    private ReceiverWindowCache receiverWindowCache;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ValidationMetrics metrics;
+
+    @Mock
+    private DecisionJournal decisionJournal;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -43,7 +64,7 @@ class TransactionServiceTest {
     void setup() {
         MockitoAnnotations.openMocks(this);
 
-        sender = new User(1L, "11111111111", "Alice", PixType.CPF, "11111111111");
+        sender = new User(1L, "52998224725", "Alice", PixType.CPF, "52998224725");
         receiver = new User(2L, "22222222222", "Bob", PixType.EMAIL, "bob@example.com");
 
         transaction = new Transaction();
@@ -56,7 +77,7 @@ class TransactionServiceTest {
         transaction.setCreatedDate(LocalDateTime.now());
 
         UserRequest senderReq = new UserRequest();
-        senderReq.setPixKey("11111111111");
+        senderReq.setPixKey("52998224725");
         senderReq.setPixKeyType(PixType.CPF);
 
         UserRequest receiverReq = new UserRequest();
@@ -81,6 +102,28 @@ class TransactionServiceTest {
         verify(transactionRepository, times(1)).findAll();
     }
 
+    @Test
+    void testFindPage_ReturnsNextCursorWhenMoreRowsExist() {
+        Transaction second = new Transaction(2L, sender, receiver, 50.0, "x", TransactionStatus.SUCCESS, null, null, null);
+        Transaction third = new Transaction(3L, sender, receiver, 50.0, "x", TransactionStatus.SUCCESS, null, null, null);
+        when(transactionRepository.findPage(null, 3)).thenReturn(List.of(transaction, second, third));
+
+        TransactionPage page = transactionService.findPage(null, 2);
+
+        assertEquals(List.of(1L, 2L), page.getItems().stream().map(TransactionResponse::getId).toList());
+        assertEquals("2", page.getNextCursor());
+    }
+
+    @Test
+    void testFindPage_LastPageHasNoCursor() {
+        when(transactionRepository.findPage(1L, 3)).thenReturn(List.of(transaction));
+
+        TransactionPage page = transactionService.findPage(1L, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
     @Test
     void testFindById() {
         when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
@@ -95,13 +138,165 @@ class TransactionServiceTest {
     @Test
     void testSave() {
         when(validator.validate(any(Transaction.class))).thenReturn(transaction);
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
+        when(transactionRepository.save(any(Transaction.class), anyList())).thenReturn(transaction);
 
         TransactionResponse result = transactionService.save(transactionRequest);
 
         assertNotNull(result);
         assertEquals(transaction.getId(), result.getId());
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(transactionRepository, times(1)).save(any(Transaction.class), anyList());
+        verify(receiverWindowCache, never()).evict(any());
+        verify(metrics, times(1)).recordDecision(transaction);
+        verify(metrics, times(1)).validationFinished();
+    }
+
+    @Test
+    void testSave_WithJournalSkipsDatabase() {
+        when(decisionJournal.isEnabled()).thenReturn(true);
+        when(validator.validate(any(Transaction.class))).thenReturn(transaction);
+        when(decisionJournal.append(transaction)).thenReturn(transaction);
+
+        TransactionResponse result = transactionService.save(transactionRequest);
+
+        assertEquals(transaction.getId(), result.getId());
+        verify(transactionRepository, never()).save(any(Transaction.class), anyList());
+    }
+
+    @Test
+    void testSave_EvictsWindowWhenPersistFails() {
+        when(validator.validate(any(Transaction.class))).thenReturn(transaction);
+        when(transactionRepository.save(any(Transaction.class), anyList())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> transactionService.save(transactionRequest));
+        verify(receiverWindowCache, times(1)).evict(receiver.getId());
+        verify(metrics, times(1)).validationFinished();
+    }
+
+    @Test
+    void testSave_WritesNewUsersWithTheTransaction() {
+        when(validator.validate(any(Transaction.class))).thenReturn(transaction);
+        when(userService.unstored(anyList())).thenReturn(List.of(receiver));
+        when(transactionRepository.save(any(Transaction.class), anyList())).thenReturn(transaction);
+
+        transactionService.save(transactionRequest);
+
+        verify(transactionRepository, times(1)).save(transaction, List.of(receiver));
+        verify(userService, times(1)).stored(List.of(receiver));
+        verify(userService, never()).materialize(any());
+    }
+
+    @Test
+    void testSave_NewUsersStayUnstoredWhenPersistFails() {
+        when(validator.validate(any(Transaction.class))).thenReturn(transaction);
+        when(userService.unstored(anyList())).thenReturn(List.of(receiver));
+        when(transactionRepository.save(any(Transaction.class), anyList())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> transactionService.save(transactionRequest));
+        verify(userService, never()).stored(any());
+    }
+
+    @Test
+    void testSave_WithJournalWritesNewUsersBeforeAppending() {
+        when(decisionJournal.isEnabled()).thenReturn(true);
+        when(validator.validate(any(Transaction.class))).thenReturn(transaction);
+        when(userService.unstored(anyList())).thenReturn(List.of(receiver));
+        when(decisionJournal.append(transaction)).thenReturn(transaction);
+
+        transactionService.save(transactionRequest);
+
+        InOrder inOrder = inOrder(userService, decisionJournal);
+        inOrder.verify(userService).materialize(List.of(receiver));
+        inOrder.verify(decisionJournal).append(transaction);
+    }
+
+    @Test
+    void testSave_WritesBlacklistAfterTheTransaction() {
+        when(validator.validate(any(Transaction.class))).thenReturn(transaction);
+        when(transactionRepository.save(any(Transaction.class), anyList())).thenReturn(transaction);
+
+        transactionService.save(transactionRequest);
+
+        InOrder inOrder = inOrder(transactionRepository, validator);
+        inOrder.verify(transactionRepository).save(any(Transaction.class), anyList());
+        inOrder.verify(validator).persistBlacklisting(transaction);
+    }
+
+    @Test
+    void testSave_ReassignsPlaceholderReplacedByStoredUser() {
+        User storedReceiver = new User(7L, receiver.getCpf(), receiver.getName(), receiver.getPixKeyType(), receiver.getPixKey());
+        when(validator.validate(any(Transaction.class))).thenReturn(transaction);
+        when(userService.unstored(anyList())).thenReturn(List.of(receiver));
+        when(transactionRepository.save(any(Transaction.class), anyList())).thenAnswer(invocation -> {
+            // Outra requisição gravou a mesma chave antes: o repositório troca o provisório pela linha existente
+            transaction.setReceiver(storedReceiver);
+            return transaction;
+        });
+
+        transactionService.save(transactionRequest);
+
+        verify(userService).stored(List.of(storedReceiver));
+        verify(validator).reassignUsers(transaction, sender, receiver);
+    }
+
+    @Test
+    void testSave_BlacklistWriteFailureKeepsTheTransaction() {
+        when(validator.validate(any(Transaction.class))).thenReturn(transaction);
+        when(transactionRepository.save(any(Transaction.class), anyList())).thenReturn(transaction);
+        doThrow(new IllegalStateException("db down")).when(validator).persistBlacklisting(transaction);
+
+        TransactionResponse result = transactionService.save(transactionRequest);
+
+        assertEquals(transaction.getId(), result.getId());
+        verify(receiverWindowCache, never()).evict(any());
+    }
+
+    @Test
+    void testFindById_FallsBackToPendingJournalEntry() {
+        when(transactionRepository.findById(1L)).thenReturn(Optional.empty());
+        when(decisionJournal.findPending(1L)).thenReturn(Optional.of(transaction));
+
+        assertTrue(transactionService.findById(1L).isPresent());
+    }
+
+    @Test
+    void testSaveBatch_ResolvesUsersOnceAndKeepsOrder() {
+        TransactionRequest second = new TransactionRequest(
+                null, transactionRequest.getReceiver(), transactionRequest.getSender(), 300.0, "Second");
+
+        when(userService.resolveUsers(anyList()))
+                .thenReturn(Map.of(sender.getPixKey(), sender, receiver.getPixKey(), receiver));
+        doAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            transactions.forEach(t -> t.setStatus(TransactionStatus.SUCCESS));
+            return null;
+        }).when(validator).evaluateAll(anyList());
+        when(transactionRepository.saveAll(anyList(), anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TransactionResponse> result = transactionService.saveBatch(List.of(transactionRequest, second));
+
+        assertEquals(2, result.size());
+        assertEquals("Payment test", result.get(0).getDescription());
+        assertEquals("Second", result.get(1).getDescription());
+        assertEquals(receiver.getId(), result.get(1).getSender().getId());
+        verify(userService, times(1)).resolveUsers(anyList());
+        verify(transactionRepository, times(1)).saveAll(anyList(), anyList());
+        verify(transactionRepository, never()).save(any(Transaction.class), anyList());
+        verify(validator, times(1)).evaluateAll(anyList());
+        verify(metrics, times(1)).validationStarted(2);
+        verify(metrics, times(1)).recordStage(eq(Stage.USER_RESOLUTION), anyLong());
+        verify(metrics, times(1)).recordStage(eq(Stage.PERSIST), anyLong());
+        verify(metrics, times(1)).validationFinished(2);
+    }
+
+    @Test
+    void testSaveBatch_EvictsWindowsWhenPersistFails() {
+        when(userService.resolveUsers(anyList()))
+                .thenReturn(Map.of(sender.getPixKey(), sender, receiver.getPixKey(), receiver));
+        when(transactionRepository.saveAll(anyList(), anyList())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> transactionService.saveBatch(List.of(transactionRequest)));
+        verify(receiverWindowCache, times(1)).evict(receiver.getId());
+        verify(metrics, times(1)).validationFinished(1);
     }
 
     @Test
@@ -133,6 +328,7 @@ class TransactionServiceTest {
         transactionService.delete(1L);
 
         verify(transactionRepository, times(1)).delete(1L);
+        verify(receiverWindowCache, times(1)).evict(receiver.getId());
     }
 
     @Test
@@ -143,14 +339,67 @@ class TransactionServiceTest {
         verify(transactionRepository, never()).delete(anyLong());
     }
 
+    @Test
+    void testApprove_FlushesPendingJournalEntryFirst() {
+        transaction.setStatus(TransactionStatus.PENDING_REVIEW);
+        when(decisionJournal.findPending(1L)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.save(transaction)).thenReturn(transaction);
+
+        TransactionResponse result = transactionService.approveTransaction(1L);
+
+        assertEquals(TransactionStatus.SUCCESS.name(), result.getStatus());
+        InOrder inOrder = inOrder(decisionJournal, transactionRepository);
+        inOrder.verify(decisionJournal).flushPending(1L);
+        inOrder.verify(transactionRepository).findById(1L);
+        inOrder.verify(transactionRepository).save(transaction);
+    }
+
+    @Test
+    void testDelete_FlushesPendingJournalEntryFirst() {
+        when(decisionJournal.findPending(1L)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
+
+        transactionService.delete(1L);
+
+        InOrder inOrder = inOrder(decisionJournal, transactionRepository);
+        inOrder.verify(decisionJournal).flushPending(1L);
+        inOrder.verify(transactionRepository).delete(1L);
+    }
+
+    @Test
+    void testUpdate_StoredTransactionDoesNotFlushJournal() {
+        when(decisionJournal.findPending(1L)).thenReturn(Optional.empty());
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
+        when(transactionRepository.update(any(Transaction.class))).thenReturn(transaction);
+
+        transactionService.update(1L, transactionRequest);
+
+        verify(decisionJournal, never()).flushPending(anyLong());
+    }
+
     @Test
     void testFindByStatus() {
-        when(transactionRepository.findByStatus("SUCCESS")).thenReturn(List.of(transaction));
+        TransactionFilter filter = new TransactionFilter(TransactionStatus.SUCCESS, null, null, null);
+        when(transactionRepository.findByStatus(filter, null, 16)).thenReturn(List.of(transaction));
 
-        List<TransactionResponse> result = transactionService.findByStatus("SUCCESS");
+        TransactionPage result = transactionService.findByStatus(filter, null, 15);
 
-        assertEquals(1, result.size());
-        assertEquals(transaction.getId(), result.get(0).getId());
-        verify(transactionRepository, times(1)).findByStatus("SUCCESS");
+        assertEquals(1, result.getItems().size());
+        assertEquals(transaction.getId(), result.getItems().get(0).getId());
+        assertNull(result.getNextCursor());
+        verify(transactionRepository, times(1)).findByStatus(filter, null, 16);
+    }
+
+    @Test
+    void testFindByStatus_CursorPointsAtLastItem() {
+        TransactionFilter filter = new TransactionFilter(TransactionStatus.SUCCESS, null, null, null);
+        Transaction older = new Transaction(5L, sender, receiver, 50.0, "x", TransactionStatus.SUCCESS, null,
+                transaction.getCreatedDate().minusMinutes(1), null);
+        when(transactionRepository.findByStatus(filter, null, 2)).thenReturn(List.of(transaction, older));
+
+        TransactionPage result = transactionService.findByStatus(filter, null, 1);
+
+        assertEquals(new StatusCursor(transaction.getCreatedDate(), 1L), StatusCursor.decode(result.getNextCursor()));
     }
 }
@@ -3,12 +3,15 @@ package com.validator.service;
 import com.validator.model.User;
 import com.validator.model.enums.PixType;
 import com.validator.repository.UserRepositoryImpl;
+import com.validator.repository.cache.UserCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,7 +23,6 @@ class UserServiceTest {
     @Mock
     private UserRepositoryImpl userRepository;
 
-    @InjectMocks
     private UserService userService;
 
     private User existingUser;
@@ -29,6 +31,7 @@ class UserServiceTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        userService = new UserService(userRepository, new UserCache(1000, Duration.ofMinutes(10)));
 
         existingUser = new User();
         existingUser.setId(1L);
@@ -43,53 +46,147 @@ class UserServiceTest {
     }
 
     @Test
-    void testGetOrCreateUser_UserExists() {
+    void testResolveUser_UserExists() {
         when(userRepository.findByPixKey("11111111111")).thenReturn(Optional.of(existingUser));
 
-        User result = userService.getOrCreateUser(existingUser);
+        User result = userService.resolveUser(existingUser);
 
         assertNotNull(result);
         assertEquals(existingUser.getPixKey(), result.getPixKey());
         assertEquals("Alice", result.getName());
+        assertFalse(userService.isPlaceholder(result));
         verify(userRepository, times(1)).findByPixKey("11111111111");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).nextUserIdBlock();
     }
 
     @Test
-    void testGetOrCreateUser_UserDoesNotExist_CPFType() {
+    void testResolveUser_UserDoesNotExist_CPFTypeGetsUnsavedPlaceholder() {
         when(userRepository.findByPixKey("22222222222")).thenReturn(Optional.empty());
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.nextUserIdBlock()).thenReturn(100L);
 
-        User result = userService.getOrCreateUser(newUser);
+        User result = userService.resolveUser(newUser);
 
-        assertNotNull(result);
+        assertEquals(51L, result.getId());
         assertEquals("22222222222", result.getPixKey());
         assertEquals(PixType.CPF, result.getPixKeyType());
         assertEquals("22222222222", result.getCpf());
         assertEquals("Usuário não localizado", result.getName());
+        assertTrue(userService.isPlaceholder(result));
 
         verify(userRepository, times(1)).findByPixKey("22222222222");
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, never()).insertReserved(any());
     }
 
     @Test
-    void testGetOrCreateUser_UserDoesNotExist_NonCPFType() {
+    void testResolveUser_UserDoesNotExist_NonCPFType() {
         User emailUser = new User();
         emailUser.setPixKey("bob@example.com");
         emailUser.setPixKeyType(PixType.EMAIL);
 
         when(userRepository.findByPixKey("bob@example.com")).thenReturn(Optional.empty());
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.nextUserIdBlock()).thenReturn(100L);
 
-        User result = userService.getOrCreateUser(emailUser);
+        User result = userService.resolveUser(emailUser);
 
-        assertNotNull(result);
         assertEquals("bob@example.com", result.getPixKey());
         assertEquals(PixType.EMAIL, result.getPixKeyType());
         assertEquals("CPF não localizado", result.getCpf());
         assertEquals("Usuário não localizado", result.getName());
+        verify(userRepository, never()).insertReserved(any());
+    }
+
+    @Test
+    void testResolveUser_SameUnknownKeyGetsSamePlaceholderAndIdsComeFromOneBlock() {
+        User other = new User();
+        other.setPixKey("33333333333");
+        other.setPixKeyType(PixType.CPF);
+
+        when(userRepository.findByPixKey(any())).thenReturn(Optional.empty());
+        when(userRepository.nextUserIdBlock()).thenReturn(100L);
+
+        User first = userService.resolveUser(newUser);
+        User again = userService.resolveUser(newUser);
+        User second = userService.resolveUser(other);
+
+        assertSame(first, again);
+        assertEquals(52L, second.getId());
+        verify(userRepository, times(1)).findByPixKey("22222222222");
+        verify(userRepository, times(1)).nextUserIdBlock();
+    }
+
+    @Test
+    void testMaterialize_WritesOnlyPlaceholdersOnce() {
+        when(userRepository.findByPixKey("11111111111")).thenReturn(Optional.of(existingUser));
+        when(userRepository.findByPixKey("22222222222")).thenReturn(Optional.empty());
+        when(userRepository.nextUserIdBlock()).thenReturn(100L);
+        User stored = userService.resolveUser(existingUser);
+        User placeholder = userService.resolveUser(newUser);
+
+        userService.materialize(List.of(stored, placeholder));
+        userService.materialize(List.of(stored, placeholder));
+
+        verify(userRepository, times(1)).insertReserved(List.of(placeholder));
+        assertFalse(userService.isPlaceholder(placeholder));
+        assertSame(placeholder, userService.resolveUser(newUser));
+    }
+
+    @Test
+    void testMaterialize_KeyStoredElsewhereReplacesThePlaceholder() {
+        when(userRepository.findByPixKey("22222222222")).thenReturn(Optional.empty());
+        when(userRepository.nextUserIdBlock()).thenReturn(100L);
+        User placeholder = userService.resolveUser(newUser);
+        Long placeholderId = placeholder.getId();
+        User storedElsewhere = new User(7L, "22222222222", "Bob", PixType.CPF, "22222222222");
+        when(userRepository.insertReserved(List.of(placeholder))).thenReturn(Map.of("22222222222", storedElsewhere));
+
+        Map<String, User> existing = userService.materialize(List.of(placeholder));
+
+        assertSame(storedElsewhere, existing.get("22222222222"));
+        assertEquals(placeholderId, placeholder.getId());
+        assertSame(storedElsewhere, userService.resolveUser(newUser));
+    }
+
+    @Test
+    void testResolveUsers_SingleLookupAndPlaceholdersForMissing() {
+        User duplicate = new User();
+        duplicate.setPixKey("11111111111");
+        duplicate.setPixKeyType(PixType.CPF);
+
+        when(userRepository.findByPixKeys(any())).thenReturn(List.of(existingUser));
+        when(userRepository.nextUserIdBlock()).thenReturn(100L);
+
+        Map<String, User> result = userService.resolveUsers(List.of(existingUser, newUser, duplicate));
+
+        assertEquals(2, result.size());
+        assertSame(existingUser, result.get("11111111111"));
+        assertEquals("Usuário não localizado", result.get("22222222222").getName());
+        assertEquals(List.of(result.get("22222222222")), userService.unstored(result.values()));
+        verify(userRepository, times(1)).findByPixKeys(any());
+        verify(userRepository, never()).findByPixKey(any());
+        verify(userRepository, never()).insertReserved(any());
+    }
+
+    @Test
+    void testResolveUser_SecondLookupServedFromCache() {
+        when(userRepository.findByPixKey("11111111111")).thenReturn(Optional.of(existingUser));
+
+        userService.resolveUser(existingUser);
+        User result = userService.resolveUser(existingUser);
+
+        assertSame(existingUser, result);
+        verify(userRepository, times(1)).findByPixKey("11111111111");
+    }
+
+    @Test
+    void testResolveUsers_UsesCachedUsers() {
+        when(userRepository.findByPixKey("11111111111")).thenReturn(Optional.of(existingUser));
+        when(userRepository.findByPixKeys(any())).thenReturn(List.of());
+        when(userRepository.nextUserIdBlock()).thenReturn(100L);
+        userService.resolveUser(existingUser);
+
+        Map<String, User> result = userService.resolveUsers(List.of(existingUser, newUser));
 
-        verify(userRepository, times(1)).findByPixKey("bob@example.com");
-        verify(userRepository, times(1)).save(any(User.class));
+        assertSame(existingUser, result.get("11111111111"));
+        verify(userRepository, times(1)).findByPixKeys(List.of("22222222222"));
     }
 }
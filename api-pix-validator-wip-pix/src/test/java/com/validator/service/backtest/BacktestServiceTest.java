@@ -0,0 +1,164 @@
+package com.validator.service.backtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import com.validator.repository.BlackListRepositoryImpl;
+import com.validator.repository.TransactionRepositoryImpl;
+import com.validator.repository.cache.BlackListIndex;
+import com.validator.repository.cache.ReceiverWindowCache;
+import com.validator.service.BlackListService;
+import com.validator.service.BlackListTtl;
+import com.validator.service.graph.MuleGraph;
+import com.validator.service.metrics.ValidationMetrics;
+import com.validator.service.validators.ReceiverShardExecutor;
+import com.validator.service.validators.TransactionEnricher;
+import com.validator.service.validators.TransactionValidator;
+import com.validator.service.validators.rules.*;
+import com.validator.service.velocity.VelocityTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class BacktestServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private TransactionRepositoryImpl transactionRepository;
+    private BacktestService backtestService;
+
+    @BeforeEach
+    void setup() {
+        transactionRepository = mock(TransactionRepositoryImpl.class);
+        BlackListRepositoryImpl blackListRepository = mock(BlackListRepositoryImpl.class);
+        ReceiverWindowCache receiverWindowCache = new ReceiverWindowCache(transactionRepository, 1000);
+
+        TransactionValidator validator = new TransactionValidator(
+                new TransactionEnricher(null, receiverWindowCache, null, false, Duration.ofSeconds(2)),
+                new ReceiverShardExecutor(false, 0, Duration.ofSeconds(2)),
+                new BlackListService(blackListRepository,
+                        new BlackListIndex(blackListRepository, Duration.ofSeconds(1), 500), BlackListTtl.DEFAULTS),
+                receiverWindowCache,
+                VelocityTracker.DISABLED,
+                MuleGraph.DISABLED,
+                new ValidationMetrics(new SimpleMeterRegistry()),
+                ValidationThresholds.DEFAULTS,
+                List.of(new TransactionValueRule(), new UserBlacklistRule(), new HighFrequencyRule(), new OutOfAverageValueRule()));
+
+        backtestService = new BacktestService(
+                transactionRepository, validator, BlackListTtl.DEFAULTS, new ObjectMapper().findAndRegisterModules(), 4, 100, 10);
+    }
+
+    @Test
+    void testRun_SameThresholdsReproduceStoredDecisions() {
+        givenHistory(
+                stored(1L, 2L, 100.0, 0, TransactionStatus.SUCCESS, null),
+                stored(2L, 2L, 20000.0, 60, TransactionStatus.FAILED, FraudReason.STRANGE_VALUE),
+                stored(3L, 5L, 50.0, 0, TransactionStatus.SUCCESS, null));
+
+        BacktestReport report = backtestService.runFromDatabase(ValidationThresholds.DEFAULTS);
+
+        assertEquals(3, report.transactions());
+        assertEquals(2, report.receivers());
+        assertEquals(0, report.changed());
+    }
+
+    @Test
+    void testRun_LowerMaxValueReportsNewDecisionsPerReason() {
+        givenHistory(
+                stored(1L, 2L, 100.0, 0, TransactionStatus.SUCCESS, null),
+                stored(2L, 2L, 6000.0, 60, TransactionStatus.SUCCESS, null),
+                stored(3L, 2L, 100.0, 120, TransactionStatus.SUCCESS, null),
+                stored(4L, 7L, 6000.0, 0, TransactionStatus.SUCCESS, null));
+
+        ValidationThresholds candidate = new ValidationThresholds(5000.0, 0.5, 5, 4.0, 5, 5);
+        BacktestReport report = backtestService.runFromDatabase(candidate);
+
+        // A reprovação por valor põe o destinatário 2 na blacklist, e a transação seguinte dele também cai
+        assertEquals(3, report.changed());
+        assertEquals(2, diff(report, FraudReason.STRANGE_VALUE).added());
+        assertEquals(1, diff(report, FraudReason.USER_IN_BLACKLIST).added());
+        assertEquals(4, diff(report, null).stored());
+        assertEquals(3, diff(report, null).removed());
+    }
+
+    @Test
+    void testRun_BlacklistExpiresWithTheReasonTtl() {
+        // STRANGE_VALUE mantém o destinatário na blacklist por 30 dias: a transação de 29 dias depois cai, a de 31 não
+        givenHistory(
+                stored(1L, 2L, 6000.0, 0, TransactionStatus.SUCCESS, null),
+                stored(2L, 2L, 100.0, (int) Duration.ofDays(29).toSeconds(), TransactionStatus.SUCCESS, null),
+                stored(3L, 2L, 100.0, (int) Duration.ofDays(31).toSeconds(), TransactionStatus.SUCCESS, null));
+
+        ValidationThresholds candidate = new ValidationThresholds(5000.0, 0.5, 5, 4.0, 5, 5);
+        BacktestReport report = backtestService.runFromDatabase(candidate);
+
+        assertEquals(2, report.changed());
+        assertEquals(1, diff(report, FraudReason.STRANGE_VALUE).added());
+        assertEquals(1, diff(report, FraudReason.USER_IN_BLACKLIST).added());
+    }
+
+    @Test
+    void testRun_RejectsInputNotGroupedByReceiver() {
+        givenHistory(
+                stored(1L, 5L, 100.0, 0, TransactionStatus.SUCCESS, null),
+                stored(2L, 2L, 100.0, 0, TransactionStatus.SUCCESS, null));
+
+        assertThrows(IllegalArgumentException.class, () -> backtestService.runFromDatabase(ValidationThresholds.DEFAULTS));
+    }
+
+    @Test
+    void testRunFromFile_ReadsExportedRecords(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("history.ndjson");
+        Files.writeString(file, """
+                {"id":1,"createdDate":"2025-01-01T10:00:00","senderId":1,"senderPixKey":"a","receiverId":2,"receiverPixKey":"b","value":100.0,"description":"x","status":"SUCCESS","fraudReason":null}
+                {"id":2,"createdDate":"2025-01-01T10:01:00","senderId":1,"senderPixKey":"a","receiverId":2,"receiverPixKey":"b","value":0.1,"description":"x","status":"SUCCESS","fraudReason":null}
+                """);
+
+        BacktestReport report = backtestService.runFromFile(file, ValidationThresholds.DEFAULTS);
+
+        assertEquals(2, report.transactions());
+        assertEquals(1, report.changed());
+        assertEquals(1, diff(report, FraudReason.STRANGE_VALUE).candidate());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenHistory(Transaction... transactions) {
+        doAnswer(invocation -> {
+            Consumer<Transaction> action = invocation.getArgument(1);
+            List.of(transactions).forEach(action);
+            return null;
+        }).when(transactionRepository).forEachByReceiver(anyInt(), any(Consumer.class));
+    }
+
+    private static Transaction stored(Long id, Long receiverId, double value, int secondsAfterStart,
+                                      TransactionStatus status, FraudReason reason) {
+        User sender = new User();
+        sender.setId(1L);
+        User receiver = new User();
+        receiver.setId(receiverId);
+
+        LocalDateTime createdDate = START.plusSeconds(secondsAfterStart);
+        return new Transaction(id, sender, receiver, value, "pagamento", status, reason, createdDate, createdDate);
+    }
+
+    private static BacktestReport.ReasonDiff diff(BacktestReport report, FraudReason reason) {
+        return report.reasons().stream().filter(diff -> diff.reason() == reason).findFirst().orElseThrow();
+    }
+}
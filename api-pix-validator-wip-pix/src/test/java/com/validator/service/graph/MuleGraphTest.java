@@ -0,0 +1,130 @@
+package com.validator.service.graph;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MuleGraphTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @Test
+    void testRecord_MergesComponentsAndCountsDistinctCounterparties() {
+        MuleGraph graph = new MuleGraph(true, 100, 100, Duration.ofHours(1));
+
+        graph.record(tx(1L, 2L), START);
+        graph.record(tx(1L, 2L), START + 1);
+        graph.record(tx(3L, 4L), START + 2);
+        graph.record(tx(2L, 3L), START + 3);
+
+        NodeStats stats = graph.stats(2L, START + 4);
+        assertEquals(4, stats.componentSize());
+        assertEquals(3, stats.componentGrowth());
+        assertEquals(1, stats.inDegree());
+        assertEquals(1, stats.outDegree());
+        assertEquals(4, graph.stats(4L, START + 4).componentSize());
+        assertEquals(3, graph.edgeCount());
+    }
+
+    @Test
+    void testStats_WindowExpiresGrowthAndDegreesButKeepsComponent() {
+        MuleGraph graph = new MuleGraph(true, 100, 100, Duration.ofHours(1));
+
+        graph.record(tx(1L, 2L), START);
+        graph.record(tx(3L, 2L), START);
+
+        NodeStats later = graph.stats(2L, START + HOUR);
+        assertEquals(3, later.componentSize());
+        assertEquals(0, later.componentGrowth());
+        assertEquals(0, later.inDegree());
+
+        // A mesma aresta volta a contar na nova janela
+        graph.record(tx(1L, 2L), START + HOUR);
+        assertEquals(1, graph.stats(2L, START + HOUR).inDegree());
+    }
+
+    @Test
+    void testRecord_FullGraphStartsNewGeneration() {
+        MuleGraph graph = new MuleGraph(true, 4, 100, Duration.ofHours(1));
+
+        graph.record(tx(1L, 2L), START);
+        graph.record(tx(2L, 3L), START);
+        graph.record(tx(3L, 4L), START);
+        graph.record(tx(5L, 6L), START);
+
+        assertEquals(1, graph.getResets());
+        assertEquals(2, graph.nodeCount());
+        assertEquals(NodeStats.EMPTY, graph.stats(1L, START));
+        assertEquals(2, graph.stats(6L, START).componentSize());
+    }
+
+    @Test
+    void testRecord_ComponentSurvivesTheWindowBoundary() {
+        MuleGraph graph = new MuleGraph(true, 100, 100, Duration.ofHours(1));
+        long windowStart = Math.floorDiv(START, HOUR) * HOUR;
+
+        // Metade do anel no fim de uma janela, a outra metade no começo da seguinte
+        graph.record(tx(1L, 2L), windowStart + HOUR - 2);
+        graph.record(tx(3L, 2L), windowStart + HOUR - 1);
+        graph.record(tx(2L, 4L), windowStart + HOUR);
+        graph.record(tx(2L, 5L), windowStart + HOUR + 1);
+
+        NodeStats stats = graph.stats(2L, windowStart + HOUR + 2);
+        assertEquals(5, stats.componentSize());
+        assertEquals(4, stats.componentGrowth());
+        assertEquals(2, stats.inDegree());
+        assertEquals(2, stats.outDegree());
+    }
+
+    @Test
+    void testRotate_UsersIdleForTwoWindowsLeaveTheGraph() {
+        MuleGraph graph = new MuleGraph(true, 100, 100, Duration.ofHours(1));
+
+        graph.record(tx(1L, 2L), START);
+        graph.record(tx(3L, 4L), START + HOUR);
+
+        assertEquals(2, graph.stats(2L, START + HOUR).componentSize());
+        assertEquals(NodeStats.EMPTY, graph.stats(2L, START + 2 * HOUR));
+        assertEquals(2, graph.stats(4L, START + 2 * HOUR).componentSize());
+        assertEquals(0, graph.getResets());
+    }
+
+    @Test
+    void testRecord_FullGenerationKeepsTheCurrentWindow() {
+        MuleGraph graph = new MuleGraph(true, 5, 100, Duration.ofHours(1));
+
+        graph.record(tx(1L, 2L), START);
+        graph.record(tx(3L, 4L), START);
+        graph.record(tx(5L, 1L), START + HOUR);
+        graph.record(tx(6L, 5L), START + HOUR);
+
+        assertEquals(1, graph.getResets());
+        assertEquals(NodeStats.EMPTY, graph.stats(3L, START + HOUR));
+        assertEquals(3, graph.stats(5L, START + HOUR).componentSize());
+    }
+
+    @Test
+    void testDisabled_KeepsNothing() {
+        MuleGraph.DISABLED.record(tx(1L, 2L), START);
+
+        assertFalse(MuleGraph.DISABLED.isEnabled());
+        assertEquals(NodeStats.EMPTY, MuleGraph.DISABLED.stats(2L, START));
+    }
+
+    private static Transaction tx(Long senderId, Long receiverId) {
+        User sender = new User();
+        sender.setId(senderId);
+        User receiver = new User();
+        receiver.setId(receiverId);
+
+        Transaction transaction = new Transaction();
+        transaction.setSender(sender);
+        transaction.setReceiver(receiver);
+        return transaction;
+    }
+}
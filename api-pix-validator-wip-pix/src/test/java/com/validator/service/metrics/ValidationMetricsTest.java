@@ -0,0 +1,53 @@
+package com.validator.service.metrics;
+
+import com.validator.model.Transaction;
+import com.validator.model.enums.FraudReason;
+import com.validator.model.enums.TransactionStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ValidationMetrics metrics;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ValidationMetrics(registry);
+    }
+
+    @Test
+    void testRecordDecision_TaggedByStatusAndReason() {
+        Transaction failed = new Transaction();
+        failed.setStatus(TransactionStatus.FAILED);
+        failed.setFraudReason(FraudReason.HIGH_FREQUENCY);
+
+        Transaction success = new Transaction();
+        success.setStatus(TransactionStatus.SUCCESS);
+
+        metrics.recordDecision(failed);
+        metrics.recordDecision(failed);
+        metrics.recordDecision(success);
+
+        assertEquals(2.0, registry.get(ValidationMetrics.DECISIONS)
+                .tags("status", "FAILED", "reason", "HIGH_FREQUENCY").counter().count());
+        assertEquals(1.0, registry.get(ValidationMetrics.DECISIONS)
+                .tags("status", "SUCCESS", "reason", "NONE").counter().count());
+    }
+
+    @Test
+    void testRecordStage_AndInFlightGauge() {
+        metrics.validationStarted();
+        metrics.recordStage(ValidationMetrics.Stage.PERSIST, metrics.start());
+
+        assertEquals(1, registry.get(ValidationMetrics.STAGE_TIMER).tag("stage", "persist").timer().count());
+        assertEquals(1.0, registry.get(ValidationMetrics.IN_FLIGHT).gauge().value());
+
+        metrics.validationFinished();
+        assertEquals(0.0, registry.get(ValidationMetrics.IN_FLIGHT).gauge().value());
+    }
+}
@@ -0,0 +1,97 @@
+package com.validator.service.ratelimit;
+
+import com.validator.controller.requests.UserRequest;
+import com.validator.model.enums.PixType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SenderRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private AtomicLong clock;
+    private SenderRateLimiter limiter;
+
+    @BeforeEach
+    void setup() {
+        clock = new AtomicLong(1_000 * SECOND);
+        limiter = new SenderRateLimiter(true, 1000, Duration.ofMinutes(10), Map.of(
+                PixType.CPF, new RateLimit(3, 1.0),
+                PixType.RANDOM, new RateLimit(1, 0.5)), clock::get);
+    }
+
+    @Test
+    void testTryAcquire_AdmitsBurstThenRejectsUntilRefill() {
+        UserRequest sender = new UserRequest("111.111.111-11", PixType.CPF);
+
+        assertEquals(0, limiter.tryAcquire(sender));
+        assertEquals(0, limiter.tryAcquire(sender));
+        assertEquals(0, limiter.tryAcquire(sender));
+        assertEquals(SECOND, limiter.tryAcquire(sender));
+        assertEquals(1, limiter.getRejected());
+
+        clock.addAndGet(SECOND);
+        assertEquals(0, limiter.tryAcquire(sender));
+        assertTrue(limiter.tryAcquire(sender) > 0);
+    }
+
+    @Test
+    void testTryAcquire_UsesLimitOfKeyTypeAndSeparatesSenders() {
+        UserRequest random = new UserRequest("chave-aleatoria", PixType.RANDOM);
+
+        assertEquals(0, limiter.tryAcquire(random));
+        assertEquals(2 * SECOND, limiter.tryAcquire(random));
+        assertEquals(0, limiter.tryAcquire(new UserRequest("outra-chave", PixType.RANDOM)));
+    }
+
+    @Test
+    void testTryAcquire_LetsThroughWhatItCannotClassify() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire(null));
+            assertEquals(0, limiter.tryAcquire(new UserRequest("a@b.com", PixType.EMAIL)));
+            assertEquals(0, limiter.tryAcquire(new UserRequest("sem-tipo", null)));
+        }
+        assertEquals(0, limiter.getRejected());
+    }
+
+    @Test
+    void testTryAcquire_ConcurrentCallersNeverExceedBurst() throws InterruptedException {
+        UserRequest sender = new UserRequest("222.222.222-22", PixType.CPF);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int j = 0; j < 100; j++) {
+                    if (limiter.tryAcquire(sender) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(3, admitted.get());
+        assertEquals(797, limiter.getRejected());
+    }
+}
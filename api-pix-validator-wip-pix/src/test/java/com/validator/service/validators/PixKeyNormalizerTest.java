@@ -0,0 +1,77 @@
+package com.validator.service.validators;
+
+import com.validator.model.enums.PixType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PixKeyNormalizerTest {
+
+    @Test
+    void testCpf_FormattingVariantsMapToDigits() {
+        assertEquals("52998224725", PixKeyNormalizer.normalize(PixType.CPF, "529.982.247-25"));
+        assertEquals("52998224725", PixKeyNormalizer.normalize(PixType.CPF, " 529 982 247 25 "));
+        assertEquals("52998224725", PixKeyNormalizer.normalize(PixType.CPF, new StringBuilder("529.982.247-25")));
+    }
+
+    @Test
+    void testCpf_RejectsWrongCheckDigitsAndRepeatedDigits() {
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.CPF, "529.982.247-26"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.CPF, "111.111.111-11"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.CPF, "5299822472"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.CPF, "52998224725a"));
+    }
+
+    @Test
+    void testPhone_NationalAndFormattedNumbersBecomeE164() {
+        assertEquals("+5511987654321", PixKeyNormalizer.normalize(PixType.PHONE, "(11) 98765-4321"));
+        assertEquals("+5511987654321", PixKeyNormalizer.normalize(PixType.PHONE, "+55 11 98765-4321"));
+        assertEquals("+14155552671", PixKeyNormalizer.normalize(PixType.PHONE, "+1 415 555 2671"));
+    }
+
+    @Test
+    void testPhone_RejectsMalformedNumbers() {
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.PHONE, "987654321"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.PHONE, "+0 11 98765-4321"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.PHONE, "+5511987654321000"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.PHONE, "11 9876x4321"));
+    }
+
+    @Test
+    void testEmail_LowercasedAndValidated() {
+        assertEquals("bob@example.com", PixKeyNormalizer.normalize(PixType.EMAIL, "Bob@Example.COM"));
+
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.EMAIL, "bob.example.com"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.EMAIL, "bob@@example.com"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.EMAIL, "bob@localhost"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.EMAIL, "bob.@example.com"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.EMAIL, "b o b@example.com"));
+        assertThrows(InvalidPixKeyException.class,
+                () -> PixKeyNormalizer.normalize(PixType.EMAIL, "a".repeat(70) + "@example.com"));
+    }
+
+    @Test
+    void testRandom_UuidInLowercaseWithHyphens() {
+        String canonical = "123e4567-e89b-12d3-a456-426614174000";
+
+        assertEquals(canonical, PixKeyNormalizer.normalize(PixType.RANDOM, "123E4567-E89B-12D3-A456-426614174000"));
+        assertEquals(canonical, PixKeyNormalizer.normalize(PixType.RANDOM, "123e4567e89b12d3a456426614174000"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.RANDOM, "chave-aleatoria"));
+        assertThrows(InvalidPixKeyException.class,
+                () -> PixKeyNormalizer.normalize(PixType.RANDOM, "123e4567-e89b-12d3-a456-42661417400g"));
+    }
+
+    @Test
+    void testNormalize_CanonicalKeyIsReturnedAsIs() {
+        String key = "bob@example.com";
+
+        assertSame(key, PixKeyNormalizer.normalize(PixType.EMAIL, key));
+    }
+
+    @Test
+    void testNormalize_RequiresTypeAndKey() {
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(null, "bob@example.com"));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.EMAIL, null));
+        assertThrows(InvalidPixKeyException.class, () -> PixKeyNormalizer.normalize(PixType.EMAIL, "   "));
+    }
+}
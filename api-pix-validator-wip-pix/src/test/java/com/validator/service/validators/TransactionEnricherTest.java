@@ -0,0 +1,146 @@
+package com.validator.service.validators;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.repository.TransactionRepositoryImpl;
+import com.validator.repository.cache.ReceiverWindowCache;
+import com.validator.service.UserService;
+import com.validator.service.validators.TransactionEnricher.Enrichment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransactionEnricherTest {
+
+    private UserService userService;
+    private TransactionRepositoryImpl transactionRepository;
+    private ReceiverWindowCache receiverWindowCache;
+    private ExecutorService executor;
+
+    private Transaction transaction;
+
+    @BeforeEach
+    void setup() {
+        userService = mock(UserService.class);
+        transactionRepository = mock(TransactionRepositoryImpl.class);
+        receiverWindowCache = new ReceiverWindowCache(transactionRepository, 1000);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        transaction = new Transaction();
+        transaction.setSender(new User(null, null, null, null, "sender_key"));
+        transaction.setReceiver(new User(null, null, null, null, "receiver_key"));
+    }
+
+    @AfterEach
+    void teardown() {
+        executor.close();
+    }
+
+    @Test
+    void testEnrich_ResolvesSenderAndReceiverConcurrently() throws InterruptedException {
+        // Cada resolução só termina quando a outra já começou: falharia se fossem sequenciais
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(userService.resolveUser(any())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(2, TimeUnit.SECONDS));
+            User user = invocation.getArgument(0);
+            user.setId("sender_key".equals(user.getPixKey()) ? 1L : 2L);
+            return user;
+        });
+        when(transactionRepository.findReceiverLast15Transactions(2L)).thenReturn(List.of());
+
+        Enrichment enrichment = enricher(true, Duration.ofSeconds(2)).enrich(transaction);
+
+        assertEquals(1L, transaction.getSender().getId());
+        assertEquals(2L, transaction.getReceiver().getId());
+        assertEquals(0, enrichment.receiverWindow().get().size());
+        verify(transactionRepository, times(1)).findReceiverLast15Transactions(2L);
+    }
+
+    @Test
+    void testEnrich_Timeout() {
+        when(userService.resolveUser(any())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return invocation.getArgument(0);
+        });
+
+        TransactionEnricher enricher = enricher(true, Duration.ofMillis(50));
+
+        assertThrows(ValidationTimeoutException.class, () -> enricher.enrich(transaction));
+    }
+
+    @Test
+    void testEnrich_CancelInterruptsTheHistoryQuery() throws InterruptedException {
+        when(userService.resolveUser(any())).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(2L);
+            return user;
+        });
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(transactionRepository.findReceiverStats(2L)).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return Optional.empty();
+        });
+
+        Enrichment enrichment = enricher(true, Duration.ofSeconds(2)).enrich(transaction);
+        assertTrue(queryStarted.await(2, TimeUnit.SECONDS));
+        enrichment.cancel().run();
+
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testEnrich_TimeoutInterruptsPendingLookups() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(2);
+        when(userService.resolveUser(any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return invocation.getArgument(0);
+        });
+
+        TransactionEnricher enricher = enricher(true, Duration.ofMillis(50));
+
+        assertThrows(ValidationTimeoutException.class, () -> enricher.enrich(transaction));
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testEnrich_SequentialLoadsHistoryLazily() {
+        when(userService.resolveUser(any())).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(2L);
+            return user;
+        });
+
+        Enrichment enrichment = enricher(false, Duration.ofSeconds(2)).enrich(transaction);
+        enrichment.cancel().run();
+
+        verify(transactionRepository, never()).findReceiverLast15Transactions(any());
+    }
+
+    private TransactionEnricher enricher(boolean concurrent, Duration timeout) {
+        return new TransactionEnricher(userService, receiverWindowCache, executor, concurrent, timeout);
+    }
+}
@@ -7,14 +7,33 @@ import com.validator.model.enums.FraudReason;
 import com.validator.model.enums.TransactionStatus;
 import com.validator.repository.BlackListRepositoryImpl;
 import com.validator.repository.TransactionRepositoryImpl;
+import com.validator.repository.cache.BlackListIndex;
+import com.validator.repository.cache.ReceiverWindowCache;
+import com.validator.service.BlackListService;
+import com.validator.service.BlackListTtl;
 import com.validator.service.UserService;
+import com.validator.service.graph.MuleGraph;
+import com.validator.service.graph.MuleGraphLimits;
+import com.validator.service.metrics.ValidationMetrics;
+import com.validator.service.validators.rules.*;
+import com.validator.service.validators.terms.DangerousTermDictionary;
+import com.validator.service.velocity.VelocityLimits;
+import com.validator.service.velocity.VelocityTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.DefaultResourceLoader;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,7 +42,10 @@ class TransactionValidatorTest {
 
     private TransactionRepositoryImpl transactionRepository;
     private BlackListRepositoryImpl blackListRepository;
+    private BlackListIndex blackListIndex;
     private UserService userService;
+    private ReceiverShardExecutor shardExecutor;
+    private MuleGraph muleGraph;
     private TransactionValidator validator;
 
     private User sender;
@@ -34,9 +56,35 @@ class TransactionValidatorTest {
     void setup() {
         transactionRepository = mock(TransactionRepositoryImpl.class);
         blackListRepository = mock(BlackListRepositoryImpl.class);
+        blackListIndex = new BlackListIndex(blackListRepository, Duration.ofSeconds(1), 500);
         userService = mock(UserService.class);
 
-        validator = new TransactionValidator(transactionRepository, blackListRepository, userService);
+        DangerousTermDictionary dangerousTermDictionary =
+                new DangerousTermDictionary(new DefaultResourceLoader(), "classpath:dangerous-terms.txt");
+        dangerousTermDictionary.reload();
+
+        ReceiverWindowCache receiverWindowCache = new ReceiverWindowCache(transactionRepository, 1000);
+        shardExecutor = new ReceiverShardExecutor(true, 2, Duration.ofSeconds(2));
+        muleGraph = new MuleGraph(true, 1000, 1000, Duration.ofHours(1));
+
+        validator = new TransactionValidator(
+                new TransactionEnricher(userService, receiverWindowCache, null, false, Duration.ofSeconds(2)),
+                shardExecutor,
+                new BlackListService(blackListRepository, blackListIndex, BlackListTtl.DEFAULTS),
+                receiverWindowCache,
+                new VelocityTracker(true, 4, 1024, 5, 1000),
+                muleGraph,
+                new ValidationMetrics(new SimpleMeterRegistry()),
+                ValidationThresholds.DEFAULTS,
+                List.of(
+                        new VelocityRule(VelocityLimits.DEFAULTS),
+                        new MuleNetworkRule(new MuleGraphLimits(5, 3, 2)),
+                        new OutOfAverageValueRule(),
+                        new DangerousKeysRule(dangerousTermDictionary),
+                        new HighFrequencyRule(),
+                        new UserBlacklistRule(),
+                        new DangerousDescriptionRule(dangerousTermDictionary),
+                        new TransactionValueRule()));
 
         sender = new User();
         sender.setId(1L);
@@ -53,12 +101,52 @@ class TransactionValidatorTest {
         transaction.setDescription("pagamento normal");
         transaction.setCreatedDate(LocalDateTime.now());
 
-        when(userService.getOrCreateUser(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userService.resolveUser(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void teardown() {
+        shardExecutor.shutdown();
+    }
+
+    @Test
+    void testRules_OrderedByCost() {
+        List<Class<?>> order = validator.getRules().stream().<Class<?>>map(Object::getClass).toList();
+
+        assertEquals(List.of(
+                TransactionValueRule.class,
+                DangerousDescriptionRule.class,
+                DangerousKeysRule.class,
+                UserBlacklistRule.class,
+                VelocityRule.class,
+                MuleNetworkRule.class,
+                HighFrequencyRule.class,
+                OutOfAverageValueRule.class), order);
+    }
+
+    @Test
+    void testValidate_CheapRuleSkipsHistoryQuery() {
+        transaction.setValue(20000.0);
+
+        validator.validate(transaction);
+
+        verify(transactionRepository, never()).findReceiverLast15Transactions(any());
+    }
+
+    @Test
+    void testValidate_ReviewDoesNotHideFailure() {
+        transaction.setDescription("golpe");
+        blackListIndex.add(1L);
+
+        Transaction result = validator.validate(transaction);
+
+        assertEquals(TransactionStatus.FAILED, result.getStatus());
+        assertEquals(FraudReason.USER_IN_BLACKLIST, result.getFraudReason());
     }
 
     @Test
     void testValidate_UserInBlacklist() {
-        when(blackListRepository.getUser(2L)).thenReturn(Optional.of(new User()));
+        blackListIndex.add(2L);
 
         Transaction result = validator.validate(transaction);
 
@@ -74,7 +162,39 @@ class TransactionValidatorTest {
 
         assertEquals(TransactionStatus.FAILED, result.getStatus());
         assertEquals(FraudReason.STRANGE_VALUE, result.getFraudReason());
-        verify(blackListRepository).save(any(BlackList.class));
+        // A decisão só marca o índice; a linha é gravada depois da transação
+        assertTrue(blackListIndex.contains(2L));
+        verify(blackListRepository, never()).upsert(any(BlackList.class));
+
+        validator.persistBlacklisting(result);
+        verify(blackListRepository).upsert(any(BlackList.class));
+    }
+
+    @Test
+    void testReassignUsers_MovesBlacklistToTheStoredReceiverId() {
+        transaction.setValue(20000.0);
+        User placeholder = transaction.getReceiver();
+        Transaction result = validator.validate(transaction);
+
+        // Outra requisição gravou a mesma chave com o id 7
+        result.setReceiver(new User(7L, placeholder.getCpf(), placeholder.getName(), placeholder.getPixKeyType(), placeholder.getPixKey()));
+        validator.reassignUsers(result, result.getSender(), placeholder);
+
+        assertFalse(blackListIndex.contains(2L));
+        assertTrue(blackListIndex.contains(7L));
+    }
+
+    @Test
+    void testValidate_BlacklistedSenderWithStrangeValueDoesNotBlacklistReceiver() {
+        transaction.setValue(20000.0);
+        blackListIndex.add(1L);
+
+        Transaction result = validator.validate(transaction);
+
+        assertEquals(TransactionStatus.FAILED, result.getStatus());
+        assertEquals(FraudReason.USER_IN_BLACKLIST, result.getFraudReason());
+        assertFalse(blackListIndex.contains(2L));
+        verify(blackListRepository, never()).upsert(any(BlackList.class));
     }
 
     @Test
@@ -102,7 +222,53 @@ class TransactionValidatorTest {
 
         assertEquals(TransactionStatus.FAILED, result.getStatus());
         assertEquals(FraudReason.HIGH_FREQUENCY, result.getFraudReason());
-        verify(blackListRepository).save(any(BlackList.class));
+        assertTrue(blackListIndex.contains(2L));
+
+        validator.persistBlacklisting(result);
+        verify(blackListRepository).upsert(any(BlackList.class));
+    }
+
+    @Test
+    void testValidate_HighVelocity_SenderAcrossReceivers() {
+        // Destinatários diferentes: nenhum deles chega ao limite de frequência, mas o remetente passa de 10 por minuto
+        for (long receiverId = 100; receiverId < 110; receiverId++) {
+            assertEquals(TransactionStatus.SUCCESS, validator.validate(toReceiver(receiverId)).getStatus());
+        }
+
+        Transaction result = validator.validate(toReceiver(110L));
+
+        assertEquals(TransactionStatus.PENDING_REVIEW, result.getStatus());
+        assertEquals(FraudReason.HIGH_VELOCITY, result.getFraudReason());
+        verify(blackListRepository, never()).upsert(any(BlackList.class));
+    }
+
+    @Test
+    void testValidate_MuleNetwork_ReceiverPassesMoneyThrough() {
+        // O destinatário 2 recebe de três remetentes e repassa para dois outros, todos ligados na última hora
+        for (long other : new long[]{10, 11, 12}) {
+            muleGraph.record(between(other, 2L), System.currentTimeMillis());
+        }
+        for (long other : new long[]{20, 21}) {
+            muleGraph.record(between(2L, other), System.currentTimeMillis());
+        }
+
+        when(transactionRepository.findReceiverLast15Transactions(any())).thenReturn(List.of());
+
+        Transaction result = validator.validate(transaction);
+
+        assertEquals(TransactionStatus.PENDING_REVIEW, result.getStatus());
+        assertEquals(FraudReason.MULE_NETWORK, result.getFraudReason());
+    }
+
+    @Test
+    void testValidate_MuleNetwork_MerchantOnlyReceives() {
+        for (long other : new long[]{10, 11, 12, 13, 14, 15}) {
+            muleGraph.record(between(other, 2L), System.currentTimeMillis());
+        }
+
+        when(transactionRepository.findReceiverLast15Transactions(any())).thenReturn(List.of());
+
+        assertEquals(TransactionStatus.SUCCESS, validator.validate(transaction).getStatus());
     }
 
     @Test
@@ -137,6 +303,18 @@ class TransactionValidatorTest {
         assertEquals(FraudReason.SUSPICIOUS_DESCRIPTION, result.getFraudReason());
     }
 
+    @Test
+    void testValidate_DangerousDescription_IgnoresAccents() {
+        transaction.setDescription("Pagamento Urgênte");
+
+        when(transactionRepository.findReceiverLast15Transactions(any())).thenReturn(List.of());
+
+        Transaction result = validator.validate(transaction);
+
+        assertEquals(TransactionStatus.PENDING_REVIEW, result.getStatus());
+        assertEquals(FraudReason.SUSPICIOUS_DESCRIPTION, result.getFraudReason());
+    }
+
     @Test
     void testValidate_DangerousKeys() {
         transaction.getSender().setPixKey("golpe123");
@@ -160,39 +338,76 @@ class TransactionValidatorTest {
     }
 
     @Test
-    void testValidateDangerousKeys_NullSafety() {
-        validator.validateDangerousKeys(null);
-        Transaction t = new Transaction();
-        validator.validateDangerousKeys(t);
+    void testValidate_ConcurrentTransactionsToSameReceiverAreSerialized() throws Exception {
+        // Quatro recentes: só uma das duas transações simultâneas pode passar antes da regra de frequência disparar
+        when(transactionRepository.findReceiverLast15Transactions(any())).thenReturn(List.of(
+                createRecentTx(1), createRecentTx(2), createRecentTx(3), createRecentTx(4)));
+        when(userService.resolveUser(any())).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            return "sender_key".equals(user.getPixKey()) ? sender : receiver;
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<TransactionStatus> validation = () -> {
+            start.await();
+            Transaction concurrent = new Transaction();
+            concurrent.setSender(new User(null, null, null, null, "sender_key"));
+            concurrent.setReceiver(new User(null, null, null, null, "receiver_key"));
+            concurrent.setValue(100.0);
+            concurrent.setDescription("pagamento normal");
+            return validator.validate(concurrent).getStatus();
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<TransactionStatus> first = executor.submit(validation);
+            Future<TransactionStatus> second = executor.submit(validation);
+            start.countDown();
+
+            List<TransactionStatus> statuses = List.of(first.get(), second.get());
+            assertTrue(statuses.contains(TransactionStatus.SUCCESS));
+            assertTrue(statuses.contains(TransactionStatus.FAILED));
+        }
     }
 
     @Test
-    void testIsBlacklisted_TrueWhenFound() {
-        when(blackListRepository.getUser(1L)).thenReturn(Optional.of(new User()));
-        assertTrue(validator.isBlacklisted(sender));
-    }
+    void testValidate_HistoryIsReadOutsideTheShard() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(transactionRepository.findReceiverLast15Transactions(any())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return List.of();
+        });
 
-    @Test
-    void testIsBlacklisted_FalseWhenNotFound() {
-        when(blackListRepository.getUser(1L)).thenReturn(Optional.empty());
-        assertFalse(validator.isBlacklisted(sender));
+        Transaction result = validator.validate(transaction);
+        validator.validate(toReceiver(2L));
+
+        assertEquals(TransactionStatus.SUCCESS, result.getStatus());
+        assertEquals(1, threads.size());
+        assertFalse(threads.get(0).startsWith("receiver-shard-"));
     }
 
     @Test
-    void testIsBlacklisted_NullId() {
-        sender.setId(null);
-        assertTrue(validator.isBlacklisted(sender));
+    void testEvaluateAll_HistoryIsReadOutsideTheShardOncePerReceiver() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(transactionRepository.findReceiverLast15Transactions(any())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return List.of(createRecentTx(1), createRecentTx(2), createRecentTx(3), createRecentTx(4));
+        });
+
+        List<Transaction> batch = List.of(toReceiver(2L), toReceiver(2L), toReceiver(3L));
+        validator.evaluateAll(batch);
+
+        assertEquals(2, threads.size());
+        assertTrue(threads.stream().noneMatch(name -> name.startsWith("receiver-shard-")));
+        // O segundo item do destinatário 2 enxerga o primeiro, registrado na janela lida antes da fatia
+        assertEquals(TransactionStatus.SUCCESS, batch.get(0).getStatus());
+        assertEquals(FraudReason.HIGH_FREQUENCY, batch.get(1).getFraudReason());
     }
 
     @Test
-    void testAddUserToBlackList_SavesCorrectly() {
-        ArgumentCaptor<BlackList> captor = ArgumentCaptor.forClass(BlackList.class);
-
-        validator.addUserToBlackList(receiver);
-        verify(blackListRepository).save(captor.capture());
-
-        assertEquals(receiver, captor.getValue().getUser());
-        assertNotNull(captor.getValue().getCreateTime());
+    void testValidateDangerousKeys_NullSafety() {
+        DangerousKeysRule rule = new DangerousKeysRule(mock(DangerousTermDictionary.class));
+        assertFalse(rule.matches(null, null));
+        assertFalse(rule.matches(new Transaction(), null));
     }
 
     private Transaction createRecentTx(int minutesAgo) {
@@ -215,4 +430,31 @@ class TransactionValidatorTest {
         t.setValue(value);
         return t;
     }
+
+    private Transaction toReceiver(Long receiverId) {
+        User other = new User();
+        other.setId(receiverId);
+        other.setPixKey("receiver_" + receiverId);
+
+        Transaction tx = new Transaction();
+        tx.setSender(sender);
+        tx.setReceiver(other);
+        tx.setValue(100.0);
+        tx.setDescription("pagamento normal");
+        tx.setCreatedDate(LocalDateTime.now());
+        return tx;
+    }
+
+    private static Transaction between(Long senderId, Long receiverId) {
+        User from = new User();
+        from.setId(senderId);
+        User to = new User();
+        to.setId(receiverId);
+
+        Transaction tx = new Transaction();
+        tx.setSender(from);
+        tx.setReceiver(to);
+        tx.setValue(100.0);
+        return tx;
+    }
 }
@@ -0,0 +1,56 @@
+package com.validator.service.validators.terms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DangerousTermMatcherTest {
+
+    @Test
+    void testFindAll_FindsOverlappingTermsInOnePass() {
+        DangerousTermMatcher matcher = DangerousTermMatcher.compile(List.of("he", "she", "his", "hers"));
+
+        assertEquals(List.of("she", "he", "hers"), matcher.findAll("ushers"));
+    }
+
+    @Test
+    void testContainsAny_IgnoresCaseAndAccents() {
+        DangerousTermMatcher matcher = DangerousTermMatcher.compile(List.of("Ação", "golpe"));
+
+        assertTrue(matcher.containsAny("uma ACAO suspeita"));
+        assertTrue(matcher.containsAny("GOLPÉ"));
+        assertFalse(matcher.containsAny("pagamento normal"));
+    }
+
+    @Test
+    void testContainsAny_NullAndEmptyDictionary() {
+        assertFalse(DangerousTermMatcher.compile(List.of("golpe")).containsAny(null));
+        assertFalse(DangerousTermMatcher.compile(List.of()).containsAny("golpe"));
+        assertTrue(DangerousTermMatcher.compile(List.of(" ", "golpe")).containsAny("golpe"));
+    }
+
+    @Test
+    void testContainsAny_LargeDictionary() {
+        List<String> terms = IntStream.range(0, 500).mapToObj(i -> "termo" + i + "x").toList();
+        DangerousTermMatcher matcher = DangerousTermMatcher.compile(terms);
+
+        assertTrue(matcher.containsAny("texto com termo499x no meio"));
+        assertFalse(matcher.containsAny("texto com termo500x no meio"));
+    }
+
+    @Test
+    void testReload_SwapsMatcher() {
+        DangerousTermDictionary dictionary = new DangerousTermDictionary(null, null);
+        dictionary.reload(List.of("golpe"));
+        DangerousTermMatcher before = dictionary.matcher();
+
+        dictionary.reload(List.of("pirâmide"));
+
+        assertTrue(before.containsAny("golpe"));
+        assertFalse(dictionary.matcher().containsAny("golpe"));
+        assertTrue(dictionary.matcher().containsAny("PIRAMIDE financeira"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.validator.service.velocity;
+
+import com.validator.model.Transaction;
+import com.validator.model.User;
+import com.validator.service.velocity.VelocityTracker.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityTrackerTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long SECOND = 1000L;
+
+    @Test
+    void testCount_ColdKeyUsesSketchAcrossWindows() {
+        VelocityTracker tracker = new VelocityTracker(true, 4, 1024, 100, 1000);
+
+        tracker.record(tx(1L, 2L, 50.0), START);
+        tracker.record(tx(1L, 3L, 25.0), START + 30 * SECOND);
+
+        long now = START + 40 * SECOND;
+        assertEquals(2, tracker.count(Side.SENDER, 1L, VelocityWindow.ONE_MINUTE, now));
+        assertEquals(75.0, tracker.sum(Side.SENDER, 1L, VelocityWindow.ONE_DAY, now), 0.001);
+        assertEquals(1, tracker.count(Side.RECEIVER, 2L, VelocityWindow.FIVE_MINUTES, now));
+        assertEquals(0, tracker.count(Side.RECEIVER, 1L, VelocityWindow.ONE_HOUR, now));
+        assertEquals(0, tracker.hotKeyCount(Side.SENDER));
+    }
+
+    @Test
+    void testCount_OldTransactionsLeaveShortWindows() {
+        VelocityTracker tracker = new VelocityTracker(true, 4, 1024, 100, 1000);
+
+        tracker.record(tx(1L, 2L, 10.0), START);
+
+        long later = START + 10 * 60 * SECOND;
+        assertEquals(0, tracker.count(Side.SENDER, 1L, VelocityWindow.ONE_MINUTE, later));
+        assertEquals(0, tracker.count(Side.SENDER, 1L, VelocityWindow.FIVE_MINUTES, later));
+        assertEquals(1, tracker.count(Side.SENDER, 1L, VelocityWindow.ONE_HOUR, later));
+        assertEquals(1, tracker.count(Side.SENDER, 1L, VelocityWindow.ONE_DAY, later));
+    }
+
+    @Test
+    void testCount_HotKeyIsPromotedAndCountedExactly() {
+        VelocityTracker tracker = new VelocityTracker(true, 4, 1024, 3, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            tracker.record(tx(1L, 2L, 10.0), START + i * SECOND);
+        }
+        assertEquals(1, tracker.hotKeyCount(Side.SENDER));
+
+        // Depois de um minuto da promoção, a janela de 1 min vem dos contadores exatos
+        long later = START + 90 * SECOND;
+        tracker.record(tx(1L, 2L, 10.0), later);
+        assertEquals(1, tracker.count(Side.SENDER, 1L, VelocityWindow.ONE_MINUTE, later));
+        // A janela de 1 h começou antes da promoção: continua no sketch, que viu todas
+        assertEquals(4, tracker.count(Side.SENDER, 1L, VelocityWindow.ONE_HOUR, later));
+    }
+
+    @Test
+    void testCount_SketchNeverUnderestimates() {
+        // Sketch pequeno de propósito, para forçar colisões
+        VelocityTracker tracker = new VelocityTracker(true, 2, 16, Long.MAX_VALUE, 1000);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 2000; i++) {
+            long sender = 1 + random.nextInt(200);
+            tracker.record(tx(sender, 9999L, 1.0), START + i);
+            exact.merge(sender, 1L, Long::sum);
+        }
+
+        long now = START + 2000;
+        exact.forEach((sender, count) ->
+                assertTrue(tracker.count(Side.SENDER, sender, VelocityWindow.ONE_MINUTE, now) >= count));
+    }
+
+    @Test
+    void testDisabled_CountsNothing() {
+        VelocityTracker.DISABLED.record(tx(1L, 2L, 10.0), START);
+
+        assertFalse(VelocityTracker.DISABLED.isEnabled());
+        assertEquals(0, VelocityTracker.DISABLED.count(Side.SENDER, 1L, VelocityWindow.ONE_MINUTE, START));
+    }
+
+    private static Transaction tx(Long senderId, Long receiverId, double value) {
+        User sender = new User();
+        sender.setId(senderId);
+        User receiver = new User();
+        receiver.setId(receiverId);
+
+        Transaction transaction = new Transaction();
+        transaction.setSender(sender);
+        transaction.setReceiver(receiver);
+        transaction.setValue(value);
+        return transaction;
+    }
+}